@@ -0,0 +1,90 @@
+package drift.service;
+
+import lombok.SneakyThrows;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class IdGeneratorBenchmark {
+
+    private static final int BULK_SIZE = 3;
+
+    private IdGenerator idGenerator;
+    private QueueIdGenerator queueIdGenerator;
+
+    @Setup
+    public void setup() {
+        idGenerator = new IdGenerator(Clock.systemUTC(), 0);
+        queueIdGenerator = new QueueIdGenerator();
+    }
+
+    @TearDown
+    public void tearDown() {
+        queueIdGenerator.executorService.shutdownNow();
+    }
+
+    @Benchmark
+    public String generate() {
+        return idGenerator.generate();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public List<String> generateInBulk() {
+        return idGenerator.generate(BULK_SIZE);
+    }
+
+    @Benchmark
+    public String generateFromQueue() {
+        return queueIdGenerator.generate();
+    }
+
+    // Note: copy of the previous queue based implementation kept as a baseline for comparison.
+    private static class QueueIdGenerator {
+
+        private static final int NUMBER_OF_IDS = 10;
+        private static final int ID_LENGTH = 8;
+
+        private final BlockingQueue<String> ids = new ArrayBlockingQueue<>(NUMBER_OF_IDS);
+        private final ExecutorService executorService = Executors.newCachedThreadPool();
+
+        @SneakyThrows
+        private QueueIdGenerator() {
+            for (var i = 0; i < NUMBER_OF_IDS; i++) {
+                ids.put(newId());
+            }
+        }
+
+        @SneakyThrows
+        private String generate() {
+            var id = ids.take();
+            executorService.submit(() -> {
+                try {
+                    ids.put(newId());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            return id;
+        }
+
+        private String newId() {
+            return StringUtils.truncate(UUID.randomUUID().toString(), ID_LENGTH);
+        }
+    }
+}
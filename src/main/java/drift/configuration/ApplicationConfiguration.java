@@ -1,21 +1,33 @@
 package drift.configuration;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import drift.configuration.properties.ChampionshipProperties;
+import drift.configuration.properties.IdGeneratorProperties;
+import drift.configuration.properties.SearchProperties;
+import drift.configuration.properties.SecurityProperties;
 import drift.configuration.properties.StaticContentStorageProperties;
 import drift.repository.*;
 import drift.service.*;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Clock;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
-@EnableConfigurationProperties(StaticContentStorageProperties.class)
+@EnableConfigurationProperties({StaticContentStorageProperties.class, IdGeneratorProperties.class, SearchProperties.class, ChampionshipProperties.class})
+@EnableJpaRepositories(basePackages = "drift.repository", repositoryBaseClass = KeysetSearchJpaRepository.class)
 public class ApplicationConfiguration {
 
     @Bean
-    public IdGenerator idGenerator() {
-        return new IdGenerator();
+    public IdGenerator idGenerator(IdGeneratorProperties properties, Clock clock) {
+        return new IdGenerator(clock, properties.getNodeId());
     }
 
     @Bean
@@ -23,6 +35,55 @@ public class ApplicationConfiguration {
         return Clock.systemUTC();
     }
 
+    @Bean
+    public QualificationLeaderboardRegistry qualificationLeaderboardRegistry(ChampionshipProperties properties) {
+        return new QualificationLeaderboardRegistry(
+                properties.getQualificationLeaderboardCacheMaxSize(), properties.getQualificationLeaderboardCacheTtlInMillis());
+    }
+
+    @Bean
+    public UserNameIndex userNameIndex() {
+        return new UserNameIndex();
+    }
+
+    @Bean
+    public PairsRacesBracketRegistry pairsRacesBracketRegistry(ChampionshipProperties properties) {
+        return new PairsRacesBracketRegistry(properties.getBracketCacheMaxSize(), properties.getBracketCacheTtlInMillis());
+    }
+
+    @Bean
+    public ChampionshipStageRosterRegistry championshipStageRosterRegistry(ChampionshipProperties properties) {
+        return new ChampionshipStageRosterRegistry(
+                properties.getStageRosterCacheMaxSize(), properties.getStageRosterCacheTtlInMillis());
+    }
+
+    @Bean
+    public ChampionshipStandingsCache championshipStandingsCache(ChampionshipProperties properties) {
+        return new ChampionshipStandingsCache(properties.getStandingsCacheMaxSize(), properties.getStandingsCacheTtlInMillis());
+    }
+
+    @Bean
+    public QualificationResultsBroadcaster qualificationResultsBroadcaster(ChampionshipProperties properties) {
+        var dispatcherThreadFactory = new ThreadFactoryBuilder()
+                .setNameFormat("qualification-results-dispatcher-%d")
+                .setDaemon(true)
+                .build();
+        var sendTimeoutThreadFactory = new ThreadFactoryBuilder()
+                .setNameFormat("qualification-results-send-timeout-%d")
+                .setDaemon(true)
+                .build();
+        var threads = properties.getQualificationResultsDispatcherThreads();
+        // Note: the dispatcher pool and its queue are bounded, so subscribers stuck on slow connections can not
+        // create threads without a limit; a subscriber whose send is rejected by the full pool is dropped.
+        var dispatcher = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQualificationResultsDispatcherQueueCapacity()),
+                dispatcherThreadFactory, new ThreadPoolExecutor.AbortPolicy());
+        return new QualificationResultsBroadcaster(
+                dispatcher,
+                Executors.newSingleThreadScheduledExecutor(sendTimeoutThreadFactory),
+                properties.getQualificationResultsSendTimeoutInMillis());
+    }
+
     @Bean
     public FileService fileService(StaticContentStorageProperties properties) {
         return new FileService(properties);
@@ -33,18 +94,24 @@ public class ApplicationConfiguration {
             IdGenerator idGenerator,
             UserRepository userRepository,
             SecurityService securityService,
+            AccessTokenRevocationService accessTokenRevocationService,
+            UserNameIndex userNameIndex,
             MailService mailService,
-            FileService fileService
+            FileService fileService,
+            TransactionTemplate transactionTemplate
     ) {
-        return new UserService(idGenerator, userRepository, securityService, mailService, fileService);
+        return new UserService(idGenerator, userRepository, securityService, accessTokenRevocationService,
+                userNameIndex, mailService, fileService, transactionTemplate);
     }
 
     @Bean
     public RoleService roleService(
             CarRepository carRepository,
-            OrganisationRepository organisationRepository
+            OrganisationRepository organisationRepository,
+            SecurityProperties properties
     ) {
-        return new RoleService(carRepository, organisationRepository);
+        return new RoleService(
+                carRepository, organisationRepository, properties.getRoleCacheMaxSize(), properties.getRoleCacheTtlInMillis());
     }
 
     @Bean
@@ -52,9 +119,10 @@ public class ApplicationConfiguration {
             IdGenerator idGenerator,
             SecurityService securityService,
             CarRepository carRepository,
+            RoleService roleService,
             FileService fileService
     ) {
-        return new CarService(idGenerator, securityService, carRepository, fileService);
+        return new CarService(idGenerator, securityService, carRepository, roleService, fileService);
     }
 
     @Bean
@@ -62,9 +130,10 @@ public class ApplicationConfiguration {
             IdGenerator idGenerator,
             SecurityService securityService,
             OrganisationRepository organisationRepository,
+            RoleService roleService,
             FileService fileService
     ) {
-        return new OrganisationService(idGenerator, securityService, organisationRepository, fileService);
+        return new OrganisationService(idGenerator, securityService, organisationRepository, roleService, fileService);
     }
 
     @Bean
@@ -81,9 +150,12 @@ public class ApplicationConfiguration {
             IdGenerator idGenerator,
             SecurityService securityService,
             OrganisationService organisationService,
-            ChampionshipRepository championshipRepository
+            ChampionshipRepository championshipRepository,
+            ChampionshipStandingRepository championshipStandingRepository,
+            ChampionshipStandingsCache championshipStandingsCache
     ) {
-        return new ChampionshipService(idGenerator, securityService, organisationService, championshipRepository);
+        return new ChampionshipService(idGenerator, securityService, organisationService, championshipRepository,
+                championshipStandingRepository, championshipStandingsCache);
     }
 
     @Bean
@@ -91,15 +163,25 @@ public class ApplicationConfiguration {
             IdGenerator idGenerator,
             SecurityService securityService,
             ChampionshipService championshipService,
+            ScoringSystemService scoringSystemService,
             UserService userService,
             ChampionshipStageRepository championshipStageRepository,
             ChampionshipStageParticipantRepository championshipStageParticipantRepository,
             ChampionshipStageJudgeRepository championshipStageJudgeRepository,
-            FileService fileService
+            ChampionshipStageQualificationScoreRepository championshipStageQualificationScoreRepository,
+            ChampionshipStageBracketRepository championshipStageBracketRepository,
+            FileService fileService,
+            QualificationLeaderboardRegistry qualificationLeaderboardRegistry,
+            QualificationResultsBroadcaster qualificationResultsBroadcaster,
+            PairsRacesBracketRegistry pairsRacesBracketRegistry,
+            ChampionshipStageRosterRegistry championshipStageRosterRegistry
     ) {
         return new ChampionshipStageService(
-                idGenerator, securityService, championshipService, userService, championshipStageRepository,
-                championshipStageParticipantRepository, championshipStageJudgeRepository, fileService);
+                idGenerator, securityService, championshipService, scoringSystemService, userService,
+                championshipStageRepository, championshipStageParticipantRepository, championshipStageJudgeRepository,
+                championshipStageQualificationScoreRepository, championshipStageBracketRepository, fileService,
+                qualificationLeaderboardRegistry, qualificationResultsBroadcaster, pairsRacesBracketRegistry,
+                championshipStageRosterRegistry);
     }
 
     @Bean
@@ -115,4 +197,38 @@ public class ApplicationConfiguration {
                 idGenerator, securityService, organisationService,
                 trainingRepository, trainingParticipantRepository, fileService);
     }
+
+    @Bean
+    public EventService eventService(
+            Clock clock,
+            ChampionshipStageRepository championshipStageRepository,
+            TrainingRepository trainingRepository
+    ) {
+        return new EventService(clock, championshipStageRepository, trainingRepository);
+    }
+
+    @Bean
+    public SearchService searchService(
+            SearchProperties properties,
+            UserRepository userRepository,
+            CarRepository carRepository,
+            OrganisationRepository organisationRepository,
+            ChampionshipRepository championshipRepository,
+            ChampionshipStageRepository championshipStageRepository,
+            TrainingRepository trainingRepository
+    ) {
+        var threadFactory = new ThreadFactoryBuilder()
+                .setNameFormat("search-%d")
+                .setDaemon(true)
+                .build();
+        return new SearchService(
+                userRepository, carRepository, organisationRepository, championshipRepository,
+                championshipStageRepository, trainingRepository, properties.getThreads(), properties.getQueueCapacity(),
+                properties.getDeadlineInMillis(), properties.getRetryAfterInSeconds(), threadFactory);
+    }
+
+    @Bean
+    public SearchFacetCache searchFacetCache(SearchProperties properties) {
+        return new SearchFacetCache(properties.getFacetCacheMaxSize(), properties.getFacetCacheTtlInMillis());
+    }
 }
@@ -0,0 +1,65 @@
+package drift.configuration;
+
+import drift.configuration.properties.EntityCacheProperties;
+import drift.model.Championship;
+import drift.model.Organisation;
+import drift.model.ScoringSystem;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+@Configuration
+@EnableConfigurationProperties(EntityCacheProperties.class)
+public class EntityCacheConfiguration {
+
+    // Note: reference entities are reread by id on almost every write path and change a few times per season.
+    // Championship stages are not cached, because their phase changes during the stage and the cache is node-local.
+    private static final List<Class<?>> CACHED_ENTITIES =
+            List.of(ScoringSystem.class, Organisation.class, Championship.class);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(EntityCacheProperties properties) {
+        var caches = new HashMap<String, org.ehcache.config.CacheConfiguration<?, ?>>();
+        CACHED_ENTITIES.forEach(entity ->
+                caches.put(entity.getName(), cacheConfiguration(properties.getMaxSize(), properties.getTtlInMillis())));
+        caches.put(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                cacheConfiguration(properties.getQueryCacheMaxSize(), properties.getQueryCacheTtlInMillis()));
+        // Note: update timestamps hold one entry per table and must outlive cached query results, so they do not expire.
+        caches.put(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(properties.getMaxSize()))
+                        .withExpiry(ExpiryPolicyBuilder.noExpiration())
+                        .build());
+        var classLoader = getClass().getClassLoader();
+        var cachingProvider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        // Note: every application context gets its own cache manager, so contexts sharing a class loader do not share caches.
+        return cachingProvider.getCacheManager(
+                URI.create("urn:drift:entity-cache:" + UUID.randomUUID()), new DefaultConfiguration(caches, classLoader));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernatePropertiesCustomizer(CacheManager entityCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    private static org.ehcache.config.CacheConfiguration<Object, Object> cacheConfiguration(long maxSize, long ttlInMillis) {
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxSize))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofMillis(ttlInMillis)))
+                .build();
+    }
+}
@@ -1,14 +1,16 @@
 package drift.configuration;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import drift.configuration.properties.SecurityProperties;
 import drift.controller.AccessTokenAuthenticationFilter;
-import drift.service.RoleService;
-import drift.service.SecurityService;
+import drift.repository.AccessTokenRevocationRepository;
+import drift.service.*;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
@@ -25,17 +27,54 @@ import static org.apache.commons.lang3.StringUtils.EMPTY;
 
 @Configuration
 @EnableWebSecurity
+@EnableScheduling
 @EnableConfigurationProperties(SecurityProperties.class)
 @Slf4j
 public class SecurityConfiguration {
 
+    @Bean
+    public VerifiedAccessTokenCache verifiedAccessTokenCache(SecurityProperties properties, Clock clock) {
+        return new VerifiedAccessTokenCache(properties.getTokenCacheMaxSize(), properties.getTokenTtlInMillis(), clock);
+    }
+
+    @Bean
+    public AccessTokenRevocations accessTokenRevocations(SecurityProperties properties) {
+        return new AccessTokenRevocations(properties.getTokenRevocationExpectedUsers());
+    }
+
+    @Bean
+    public AccessTokenRevocationService accessTokenRevocationService(
+            AccessTokenRevocationRepository accessTokenRevocationRepository,
+            AccessTokenRevocations accessTokenRevocations,
+            SecurityProperties properties,
+            Clock clock
+    ) {
+        return new AccessTokenRevocationService(
+                accessTokenRevocationRepository, accessTokenRevocations, clock, properties.getTokenTtlInMillis());
+    }
+
+    @Bean
+    public PasswordHasher passwordHasher(SecurityProperties properties) {
+        var threadFactory = new ThreadFactoryBuilder()
+                .setNameFormat("password-hashing-%d")
+                .setDaemon(true)
+                .build();
+        return new PasswordHasher(properties.getPasswordStrength(), properties.getPasswordHashingThreads(),
+                properties.getPasswordHashingQueueCapacity(), properties.getPasswordHashingRetryAfterInSeconds(),
+                threadFactory);
+    }
+
     @Bean
     public SecurityService securityService(
             SecurityProperties properties,
             RoleService roleService,
-            Clock clock
+            Clock clock,
+            VerifiedAccessTokenCache verifiedAccessTokenCache,
+            AccessTokenRevocations accessTokenRevocations,
+            PasswordHasher passwordHasher
     ) {
-        return new SecurityService(properties, roleService, clock);
+        return new SecurityService(
+                properties, roleService, clock, verifiedAccessTokenCache, accessTokenRevocations, passwordHasher);
     }
 
     @Bean
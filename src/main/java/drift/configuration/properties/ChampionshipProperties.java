@@ -0,0 +1,39 @@
+package drift.configuration.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import javax.validation.constraints.Min;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ConfigurationProperties(prefix = "championship")
+public class ChampionshipProperties {
+    @Min(1)
+    private long standingsCacheMaxSize;
+    @Min(1)
+    private long standingsCacheTtlInMillis;
+    @Min(1)
+    private long stageRosterCacheMaxSize;
+    @Min(1)
+    private long stageRosterCacheTtlInMillis;
+    @Min(1)
+    private long qualificationLeaderboardCacheMaxSize;
+    @Min(1)
+    private long qualificationLeaderboardCacheTtlInMillis;
+    @Min(1)
+    private long bracketCacheMaxSize;
+    @Min(1)
+    private long bracketCacheTtlInMillis;
+    @Min(1)
+    private long qualificationResultsSendTimeoutInMillis;
+    @Min(1)
+    private int qualificationResultsDispatcherThreads;
+    @Min(1)
+    private int qualificationResultsDispatcherQueueCapacity;
+}
@@ -0,0 +1,25 @@
+package drift.configuration.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import javax.validation.constraints.Min;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ConfigurationProperties(prefix = "entity-cache")
+public class EntityCacheProperties {
+    @Min(1)
+    private long maxSize;
+    @Min(1)
+    private long ttlInMillis;
+    @Min(1)
+    private long queryCacheMaxSize;
+    @Min(1)
+    private long queryCacheTtlInMillis;
+}
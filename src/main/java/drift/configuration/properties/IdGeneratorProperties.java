@@ -0,0 +1,24 @@
+package drift.configuration.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+import static drift.service.IdGenerator.MAX_NODE_ID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ConfigurationProperties(prefix = "id-generator")
+public class IdGeneratorProperties {
+    // Note: should be unique per running application instance, otherwise generated ids may collide.
+    @Min(0)
+    @Max(MAX_NODE_ID)
+    private int nodeId;
+}
@@ -0,0 +1,29 @@
+package drift.configuration.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import javax.validation.constraints.Min;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ConfigurationProperties(prefix = "search")
+public class SearchProperties {
+    @Min(1)
+    private int threads;
+    @Min(1)
+    private int queueCapacity;
+    @Min(1)
+    private long deadlineInMillis;
+    @Min(1)
+    private long retryAfterInSeconds;
+    @Min(0)
+    private long facetCacheMaxSize;
+    @Min(1)
+    private long facetCacheTtlInMillis;
+}
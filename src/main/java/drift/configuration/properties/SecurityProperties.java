@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 
@@ -21,4 +22,23 @@ public class SecurityProperties {
     private String tokenKey;
     @Min(60000)
     private long tokenTtlInMillis;
+    @Min(0)
+    private long tokenCacheMaxSize;
+    @Min(1000)
+    private long tokenRevocationRefreshIntervalInMillis;
+    @Min(1)
+    private int tokenRevocationExpectedUsers;
+    @Min(1)
+    private long roleCacheMaxSize;
+    @Min(1)
+    private long roleCacheTtlInMillis;
+    @Min(4)
+    @Max(31)
+    private int passwordStrength;
+    @Min(1)
+    private int passwordHashingThreads;
+    @Min(1)
+    private int passwordHashingQueueCapacity;
+    @Min(1)
+    private long passwordHashingRetryAfterInSeconds;
 }
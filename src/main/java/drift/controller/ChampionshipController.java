@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.util.Map;
 
 import static drift.controller.AccessTokenAuthenticationFilter.ACCESS_TOKEN_HEADER;
 
@@ -30,4 +31,11 @@ public class ChampionshipController {
                                        @PathVariable String championshipId) {
         championshipService.deactivateChampionship(championshipId);
     }
+
+    @Operation(summary = "Get championship standings. Returns user id to points map ordered by points.")
+    @GetMapping("/{championshipId}/standings")
+    public Map<String, Double> getStandings(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                            @PathVariable String championshipId) {
+        return championshipService.getStandings(championshipId);
+    }
 }
@@ -1,15 +1,24 @@
 package drift.controller;
 
+import drift.dto.BattleDto;
+import drift.dto.BattleResultDto;
 import drift.dto.ChampionshipStageCreationDto;
 import drift.dto.ChampionshipStageJudgesAssignmentDto;
 import drift.dto.ChampionshipStageUpdateDto;
+import drift.dto.QualificationResultStatus;
+import drift.dto.QualificationResultsBatchDto;
 import drift.dto.QualificationResultsDto;
+import drift.dto.UserWithCarsDto;
+import drift.repository.UsersWithCarsSearchContext;
 import drift.service.ChampionshipStageService;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.validation.Valid;
 import java.util.Collection;
@@ -17,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 
 import static drift.controller.AccessTokenAuthenticationFilter.ACCESS_TOKEN_HEADER;
+import static drift.controller.SearchController.toResponse;
 
 @RestController
 @RequestMapping("/api/v1/championship-stages")
@@ -69,13 +79,25 @@ public class ChampionshipStageController {
         championshipStageService.deleteParticipant(championshipStageId);
     }
 
-    @Operation(summary = "Get all participants")
+    @Operation(summary = "Get all participants. Supports conditional requests with If-None-Match.")
     @GetMapping("/{championshipStageId}/participants")
     public Collection<String> getParticipants(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
-                                              @PathVariable String championshipStageId) {
+                                              @PathVariable String championshipStageId,
+                                              WebRequest request) {
+        if (request.checkNotModified(String.valueOf(championshipStageService.getVersion(championshipStageId)))) {
+            return null;
+        }
         return championshipStageService.getParticipants(championshipStageId);
     }
 
+    @Operation(summary = "Get page of participants with their active cars ordered by user id")
+    @GetMapping("/{championshipStageId}/participants/expanded")
+    public ResponseEntity<List<UserWithCarsDto>> getParticipants(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                                 @PathVariable String championshipStageId,
+                                                                 UsersWithCarsSearchContext context) {
+        return toResponse(championshipStageService.getParticipants(championshipStageId, context));
+    }
+
     @Operation(summary = "Assign judges")
     @PostMapping("/{championshipStageId}/judges")
     public void assignJudges(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
@@ -84,13 +106,25 @@ public class ChampionshipStageController {
         championshipStageService.assignJudges(championshipStageId, dto.getUserIds());
     }
 
-    @Operation(summary = "Get judges")
+    @Operation(summary = "Get judges. Supports conditional requests with If-None-Match.")
     @GetMapping("/{championshipStageId}/judges")
     public Collection<String> getJudges(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
-                                        @PathVariable String championshipStageId) {
+                                        @PathVariable String championshipStageId,
+                                        WebRequest request) {
+        if (request.checkNotModified(String.valueOf(championshipStageService.getVersion(championshipStageId)))) {
+            return null;
+        }
         return championshipStageService.getJudges(championshipStageId);
     }
 
+    @Operation(summary = "Get page of judges with their active cars ordered by user id")
+    @GetMapping("/{championshipStageId}/judges/expanded")
+    public ResponseEntity<List<UserWithCarsDto>> getJudges(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                           @PathVariable String championshipStageId,
+                                                           UsersWithCarsSearchContext context) {
+        return toResponse(championshipStageService.getJudges(championshipStageId, context));
+    }
+
     @Operation(summary = "Start qualification phase")
     @PostMapping("/{championshipStageId}/start-qualification")
     public void startQualification(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
@@ -106,18 +140,67 @@ public class ChampionshipStageController {
         championshipStageService.updateQualificationResults(championshipStageId, dto);
     }
 
-    @Operation(summary = "Get qualification results. Returns participant user id to best attempt result map.")
+    @Operation(summary = "Update qualification results of multiple participants provided by judge. Returns participant user id to update status map.")
+    @PutMapping("/{championshipStageId}/qualification-results/batch")
+    public Map<String, QualificationResultStatus> updateQualificationResults(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                                             @PathVariable String championshipStageId,
+                                                                             @RequestBody @Valid QualificationResultsBatchDto dto) {
+        return championshipStageService.updateQualificationResults(championshipStageId, dto);
+    }
+
+    @Operation(summary = "Get qualification results. Returns participant user id to best attempt result map. Supports conditional requests with If-None-Match.")
     @GetMapping("/{championshipStageId}/qualification-results")
     public Map<String, Double> getQualificationResults(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
-                                                       @PathVariable String championshipStageId) {
-        return championshipStageService.getQualificationResults(championshipStageId);
+                                                       @PathVariable String championshipStageId,
+                                                       WebRequest request) {
+        // Note: the version is read before the results, so the results sent are never older than their ETag.
+        var version = championshipStageService.getVersion(championshipStageId);
+        if (request.checkNotModified(String.valueOf(version))) {
+            return null;
+        }
+        return championshipStageService.getQualificationResults(championshipStageId, version);
+    }
+
+    @Operation(summary = "Subscribe to qualification results. Sends 'standings' event with participant user id to best attempt result map " +
+            "and then 'changes' events with updated rows only. Removed participant has null result.")
+    @GetMapping(value = "/{championshipStageId}/qualification-results/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToQualificationResults(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                      @PathVariable String championshipStageId) {
+        return championshipStageService.subscribeToQualificationResults(championshipStageId);
     }
 
-    @Operation(summary = "Get qualification results. Returns participant user id to attempts points map provided by judge.")
+    @Operation(summary = "Get qualification results. Returns participant user id to attempts points map provided by judge. Supports conditional requests with If-None-Match.")
     @GetMapping("/{championshipStageId}/qualification-results/by-judge/{judgeUserId}")
     public Map<String, List<Double>> getQualificationResults(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
                                                              @PathVariable String championshipStageId,
-                                                             @PathVariable String judgeUserId) {
+                                                             @PathVariable String judgeUserId,
+                                                             WebRequest request) {
+        if (request.checkNotModified(String.valueOf(championshipStageService.getVersion(championshipStageId)))) {
+            return null;
+        }
         return championshipStageService.getQualificationResults(championshipStageId, judgeUserId);
     }
+
+    @Operation(summary = "Start pairs races phase. Top qualified participants are seeded into bracket.")
+    @PostMapping("/{championshipStageId}/start-pairs-races")
+    public void startPairsRaces(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                @PathVariable String championshipStageId) {
+        championshipStageService.startPairsRaces(championshipStageId);
+    }
+
+    @Operation(summary = "Get battles of pairs races bracket. Battle 1 is the final, battles 2 and 3 are semifinals and so on.")
+    @GetMapping("/{championshipStageId}/battles")
+    public List<BattleDto> getBattles(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                      @PathVariable String championshipStageId) {
+        return championshipStageService.getBattles(championshipStageId);
+    }
+
+    @Operation(summary = "Update battle result. Either winner user id or OMT (one more time) should be provided.")
+    @PutMapping("/{championshipStageId}/battles/{battle}")
+    public void updateBattleResult(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                   @PathVariable String championshipStageId,
+                                   @PathVariable int battle,
+                                   @RequestBody @Valid BattleResultDto dto) {
+        championshipStageService.updateBattleResult(championshipStageId, battle, dto);
+    }
 }
@@ -1,15 +1,20 @@
 package drift.controller;
 
 import drift.exception.ResourceNotFoundException;
+import drift.exception.ServiceOverloadedException;
+import drift.exception.ValidationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.multipart.MultipartException;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.ConstraintViolationException;
 
 @Slf4j
@@ -34,8 +39,22 @@ public class ExceptionHandlingControllerAdvice {
         return formMessage("Unauthorized: %s.", e);
     }
 
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String handleConflictException(Exception e) {
+        return formMessage("Conflict: %s.", e);
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String handleServiceOverloadedException(ServiceOverloadedException e, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterInSeconds()));
+        return formMessage("Service is overloaded: %s.", e);
+    }
+
     @ExceptionHandler({
             IllegalArgumentException.class,
+            ValidationException.class,
             MethodArgumentNotValidException.class,
             ConstraintViolationException.class,
             DataIntegrityViolationException.class,
@@ -6,6 +6,7 @@ import drift.service.ScoringSystemService;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import java.util.Collection;
@@ -26,16 +27,24 @@ public class ScoringSystemController {
         return scoringSystemService.createScoringSystem(dto);
     }
 
-    @Operation(summary = "Get scoring systems")
+    @Operation(summary = "Get scoring systems. Supports conditional requests with If-None-Match.")
     @GetMapping
-    public Collection<ScoringSystemDto> getScoringSystems(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken) {
+    public Collection<ScoringSystemDto> getScoringSystems(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                          WebRequest request) {
+        if (request.checkNotModified(scoringSystemService.getScoringSystemsVersion())) {
+            return null;
+        }
         return scoringSystemService.getScoringSystems();
     }
 
-    @Operation(summary = "Get scoring system by id")
+    @Operation(summary = "Get scoring system by id. Supports conditional requests with If-None-Match.")
     @GetMapping("/{scoringSystemId}")
     public ScoringSystemDto getScoringSystem(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
-                                             @PathVariable String scoringSystemId) {
+                                             @PathVariable String scoringSystemId,
+                                             WebRequest request) {
+        if (request.checkNotModified(scoringSystemService.getScoringSystemVersion(scoringSystemId))) {
+            return null;
+        }
         return scoringSystemService.getScoringSystem(scoringSystemId);
     }
 }
@@ -1,13 +1,28 @@
 package drift.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import drift.dto.*;
 import drift.repository.*;
+import drift.service.EventService;
+import drift.service.SearchFacetCache;
+import drift.service.SearchService;
+import drift.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.Collection;
-import java.util.stream.Collectors;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static drift.controller.AccessTokenAuthenticationFilter.ACCESS_TOKEN_HEADER;
 
@@ -16,52 +31,226 @@ import static drift.controller.AccessTokenAuthenticationFilter.ACCESS_TOKEN_HEAD
 @RequiredArgsConstructor
 public class SearchController {
 
+    public static final String NEXT_CURSOR_HEADER = "NEXT-CURSOR";
+
     private final UserRepository userRepository;
     private final CarRepository carRepository;
     private final OrganisationRepository organisationRepository;
     private final ChampionshipRepository championshipRepository;
     private final ChampionshipStageRepository championshipStageRepository;
     private final TrainingRepository trainingRepository;
+    private final UserService userService;
+    private final EventService eventService;
+    private final SearchService searchService;
+    private final SearchFacetCache searchFacetCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Operation(summary = "Search for users, cars, organisations, championships, championship stages and trainings at once")
+    @PostMapping("/all")
+    public UnifiedSearchResultDto searchForAll(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                               @RequestBody UnifiedSearchContext context) {
+        return searchService.search(context);
+    }
 
     @Operation(summary = "Search for users")
     @PostMapping("/users")
-    public Collection<UserDto> searchForUsers(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
-                                              @RequestBody UsersSearchContext context) {
-        return userRepository.search(context).stream().map(UserDto::from).collect(Collectors.toList());
+    public ResponseEntity<List<UserDto>> searchForUsers(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                        @RequestBody UsersSearchContext context) {
+        return toResponse(userRepository.search(context));
+    }
+
+    @Operation(summary = "Stream all users matching search context as NDJSON")
+    @PostMapping(value = "/users/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                             @RequestBody UsersSearchContext context) {
+        return toStreamingResponse(() -> userRepository.stream(context));
+    }
+
+    @Operation(summary = "Count users matching search context grouped by facet")
+    @PostMapping("/users/facets/{facet}")
+    public Map<String, Long> countUsers(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                        @PathVariable String facet,
+                                        @RequestBody UsersSearchContext context) {
+        return toFacetResponse("users", facet, context, () -> userRepository.countBy(context, facet));
+    }
+
+    @Operation(summary = "Search for active users by prefixes of their names and email")
+    @PostMapping("/users/typeahead")
+    public List<UserDto> searchForUsersByName(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                              @RequestBody UserNameSearchDto dto) {
+        return userService.searchForUsersByName(dto);
     }
 
     @Operation(summary = "Search for cars")
     @PostMapping("/cars")
-    public Collection<CarDto> searchForCars(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
-                                            @RequestBody CarsSearchContext context) {
-        return carRepository.search(context).stream().map(CarDto::from).collect(Collectors.toList());
+    public ResponseEntity<List<CarDto>> searchForCars(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                      @RequestBody CarsSearchContext context) {
+        return toResponse(carRepository.search(context));
+    }
+
+    @Operation(summary = "Stream all cars matching search context as NDJSON")
+    @PostMapping(value = "/cars/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCars(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                            @RequestBody CarsSearchContext context) {
+        return toStreamingResponse(() -> carRepository.stream(context));
+    }
+
+    @Operation(summary = "Count cars matching search context grouped by facet")
+    @PostMapping("/cars/facets/{facet}")
+    public Map<String, Long> countCars(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                       @PathVariable String facet,
+                                       @RequestBody CarsSearchContext context) {
+        return toFacetResponse("cars", facet, context, () -> carRepository.countBy(context, facet));
     }
 
     @Operation(summary = "Search for organisations")
     @PostMapping("/organisations")
-    public Collection<OrganisationDto> searchForOrganisations(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
-                                                              @RequestBody OrganisationsSearchContext context) {
-        return organisationRepository.search(context).stream().map(OrganisationDto::from).collect(Collectors.toList());
+    public ResponseEntity<List<OrganisationDto>> searchForOrganisations(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                                        @RequestBody OrganisationsSearchContext context) {
+        return toResponse(organisationRepository.search(context));
+    }
+
+    @Operation(summary = "Stream all organisations matching search context as NDJSON")
+    @PostMapping(value = "/organisations/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOrganisations(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                                     @RequestBody OrganisationsSearchContext context) {
+        return toStreamingResponse(() -> organisationRepository.stream(context));
+    }
+
+    @Operation(summary = "Count organisations matching search context grouped by facet")
+    @PostMapping("/organisations/facets/{facet}")
+    public Map<String, Long> countOrganisations(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                @PathVariable String facet,
+                                                @RequestBody OrganisationsSearchContext context) {
+        return toFacetResponse("organisations", facet, context, () -> organisationRepository.countBy(context, facet));
+    }
+
+    @Operation(summary = "Search for organisations by text ordered by relevance")
+    @PostMapping("/organisations/full-text")
+    public ResponseEntity<List<OrganisationDto>> searchForOrganisationsByText(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                                              @RequestBody FullTextSearchContext context) {
+        return toResponse(organisationRepository.searchByText(context));
     }
 
     @Operation(summary = "Search for championships")
     @PostMapping("/championships")
-    public Collection<ChampionshipDto> searchForChampionships(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
-                                                              @RequestBody ChampionshipsSearchContext context) {
-        return championshipRepository.search(context).stream().map(ChampionshipDto::from).collect(Collectors.toList());
+    public ResponseEntity<List<ChampionshipDto>> searchForChampionships(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                                        @RequestBody ChampionshipsSearchContext context) {
+        return toResponse(championshipRepository.search(context));
+    }
+
+    @Operation(summary = "Stream all championships matching search context as NDJSON")
+    @PostMapping(value = "/championships/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamChampionships(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                                     @RequestBody ChampionshipsSearchContext context) {
+        return toStreamingResponse(() -> championshipRepository.stream(context));
+    }
+
+    @Operation(summary = "Count championships matching search context grouped by facet")
+    @PostMapping("/championships/facets/{facet}")
+    public Map<String, Long> countChampionships(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                @PathVariable String facet,
+                                                @RequestBody ChampionshipsSearchContext context) {
+        return toFacetResponse("championships", facet, context, () -> championshipRepository.countBy(context, facet));
     }
 
     @Operation(summary = "Search for championship stages")
     @PostMapping("/championship-stages")
-    public Collection<ChampionshipStageDto> searchForChampionshipStages(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
-                                                                        @RequestBody ChampionshipStagesSearchContext context) {
-        return championshipStageRepository.search(context).stream().map(ChampionshipStageDto::from).collect(Collectors.toList());
+    public ResponseEntity<List<ChampionshipStageDto>> searchForChampionshipStages(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                                                  @RequestBody ChampionshipStagesSearchContext context) {
+        return toResponse(championshipStageRepository.search(context));
+    }
+
+    @Operation(summary = "Stream all championship stages matching search context as NDJSON")
+    @PostMapping(value = "/championship-stages/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamChampionshipStages(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                                          @RequestBody ChampionshipStagesSearchContext context) {
+        return toStreamingResponse(() -> championshipStageRepository.stream(context));
+    }
+
+    @Operation(summary = "Count championship stages matching search context grouped by facet")
+    @PostMapping("/championship-stages/facets/{facet}")
+    public Map<String, Long> countChampionshipStages(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                     @PathVariable String facet,
+                                                     @RequestBody ChampionshipStagesSearchContext context) {
+        return toFacetResponse("championship-stages", facet, context, () -> championshipStageRepository.countBy(context, facet));
+    }
+
+    @Operation(summary = "Search for championship stages by text ordered by relevance")
+    @PostMapping("/championship-stages/full-text")
+    public ResponseEntity<List<ChampionshipStageDto>> searchForChampionshipStagesByText(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                                                        @RequestBody FullTextSearchContext context) {
+        return toResponse(championshipStageRepository.searchByText(context));
     }
 
     @Operation(summary = "Search for trainings")
     @PostMapping("/trainings")
-    public Collection<TrainingDto> searchForTrainings(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
-                                                      @RequestBody TrainingsSearchContext context) {
-        return trainingRepository.search(context).stream().map(TrainingDto::from).collect(Collectors.toList());
+    public ResponseEntity<List<TrainingDto>> searchForTrainings(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                                @RequestBody TrainingsSearchContext context) {
+        return toResponse(trainingRepository.search(context));
+    }
+
+    @Operation(summary = "Stream all trainings matching search context as NDJSON")
+    @PostMapping(value = "/trainings/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTrainings(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                                 @RequestBody TrainingsSearchContext context) {
+        return toStreamingResponse(() -> trainingRepository.stream(context));
+    }
+
+    @Operation(summary = "Count trainings matching search context grouped by facet")
+    @PostMapping("/trainings/facets/{facet}")
+    public Map<String, Long> countTrainings(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                            @PathVariable String facet,
+                                            @RequestBody TrainingsSearchContext context) {
+        return toFacetResponse("trainings", facet, context, () -> trainingRepository.countBy(context, facet));
+    }
+
+    @Operation(summary = "Search for trainings by text ordered by relevance")
+    @PostMapping("/trainings/full-text")
+    public ResponseEntity<List<TrainingDto>> searchForTrainingsByText(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                                      @RequestBody FullTextSearchContext context) {
+        return toResponse(trainingRepository.searchByText(context));
+    }
+
+    @Operation(summary = "Search for upcoming championship stages and trainings ordered by start timestamp")
+    @PostMapping("/events")
+    public ResponseEntity<List<EventDto>> searchForEvents(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                          @RequestBody EventsSearchContext context) {
+        return toResponse(eventService.searchForUpcomingEvents(context));
+    }
+
+    static <T> ResponseEntity<List<T>> toResponse(SearchPage<T> page) {
+        var response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    private Map<String, Long> toFacetResponse(String target, String facet, SearchContext context,
+                                              Supplier<Map<String, Long>> count) {
+        // Note: counts do not depend on the page, so requests differing only by cursor or limit share the cached counts.
+        context.setCursor(null);
+        context.setLimit(null);
+        return searchFacetCache.getOrLoad(List.of(target, facet, context), count);
+    }
+
+    private <T> ResponseEntity<StreamingResponseBody> toStreamingResponse(Supplier<Stream<T>> search) {
+        var writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Note: the cursor is read inside its own transaction on the async thread that writes the response,
+        // so every row is written before the next one is fetched.
+        StreamingResponseBody body = output -> transactionTemplate.executeWithoutResult(status -> {
+            try (var items = search.get()) {
+                items.forEach(item -> writeLine(writer, output, item));
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @SneakyThrows
+    private static void writeLine(ObjectWriter writer, OutputStream output, Object item) {
+        writer.writeValue(output, item);
+        output.write('\n');
     }
 }
@@ -2,17 +2,22 @@ package drift.controller;
 
 import drift.dto.TrainingCreationDto;
 import drift.dto.TrainingUpdateDto;
+import drift.dto.UserWithCarsDto;
+import drift.repository.UsersWithCarsSearchContext;
 import drift.service.TrainingService;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.Valid;
 import java.util.Collection;
+import java.util.List;
 
 import static drift.controller.AccessTokenAuthenticationFilter.ACCESS_TOKEN_HEADER;
+import static drift.controller.SearchController.toResponse;
 
 @RestController
 @RequestMapping("/api/v1/trainings")
@@ -71,4 +76,12 @@ public class TrainingController {
                                               @PathVariable String trainingId) {
         return trainingService.getParticipants(trainingId);
     }
+
+    @Operation(summary = "Get page of training participants with their active cars ordered by user id")
+    @GetMapping("/{trainingId}/participants/expanded")
+    public ResponseEntity<List<UserWithCarsDto>> getParticipants(@RequestHeader(ACCESS_TOKEN_HEADER) String accessToken,
+                                                                 @PathVariable String trainingId,
+                                                                 UsersWithCarsSearchContext context) {
+        return toResponse(trainingService.getParticipants(trainingId, context));
+    }
 }
@@ -0,0 +1,16 @@
+package drift.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class BattleDto {
+
+    int number;
+    int top;
+    String leaderUserId;
+    String chaserUserId;
+    String winnerUserId;
+    int omt;
+}
@@ -0,0 +1,9 @@
+package drift.dto;
+
+import lombok.Data;
+
+@Data
+public class BattleResultDto {
+    String winnerUserId;
+    boolean omt;
+}
@@ -3,11 +3,13 @@ package drift.dto;
 import drift.model.Championship;
 import drift.model.Discipline;
 import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Value;
 
 @Value
 @Builder(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
 public class ChampionshipDto {
 
     String id;
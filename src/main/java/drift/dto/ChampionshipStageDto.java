@@ -2,6 +2,7 @@ package drift.dto;
 
 import drift.model.ChampionshipStage;
 import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Value;
 
@@ -9,6 +10,7 @@ import java.time.Instant;
 
 @Value
 @Builder(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
 public class ChampionshipStageDto {
 
     String id;
@@ -0,0 +1,36 @@
+package drift.dto;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+@Builder(access = AccessLevel.PROTECTED)
+public class EventDto {
+
+    EventType type;
+    String id;
+    Instant startTimestamp;
+    ChampionshipStageDto championshipStage;
+    TrainingDto training;
+
+    public static EventDto from(ChampionshipStageDto championshipStage) {
+        return EventDto.builder()
+                .type(EventType.CHAMPIONSHIP_STAGE)
+                .id(championshipStage.getId())
+                .startTimestamp(championshipStage.getStartTimestamp())
+                .championshipStage(championshipStage)
+                .build();
+    }
+
+    public static EventDto from(TrainingDto training) {
+        return EventDto.builder()
+                .type(EventType.TRAINING)
+                .id(training.getId())
+                .startTimestamp(training.getStartTimestamp())
+                .training(training)
+                .build();
+    }
+}
@@ -0,0 +1,6 @@
+package drift.dto;
+
+public enum EventType {
+    CHAMPIONSHIP_STAGE,
+    TRAINING
+}
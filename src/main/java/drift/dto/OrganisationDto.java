@@ -2,11 +2,13 @@ package drift.dto;
 
 import drift.model.Organisation;
 import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Value;
 
 @Value
 @Builder(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
 public class OrganisationDto {
 
     String id;
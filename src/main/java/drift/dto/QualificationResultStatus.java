@@ -0,0 +1,7 @@
+package drift.dto;
+
+public enum QualificationResultStatus {
+    UPDATED,
+    WRONG_PARTICIPANT_USER_ID,
+    WRONG_ATTEMPTS_POINTS
+}
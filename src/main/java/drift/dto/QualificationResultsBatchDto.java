@@ -0,0 +1,16 @@
+package drift.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class QualificationResultsBatchDto {
+    @NotBlank
+    String judgeUserId;
+    @NotEmpty
+    Map<String, List<Double>> attemptsPointsByParticipant;
+}
@@ -0,0 +1,10 @@
+package drift.dto;
+
+public enum SearchTarget {
+    USERS,
+    CARS,
+    ORGANISATIONS,
+    CHAMPIONSHIPS,
+    CHAMPIONSHIP_STAGES,
+    TRAININGS
+}
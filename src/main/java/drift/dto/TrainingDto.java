@@ -4,6 +4,7 @@ import drift.model.ChampionshipStage;
 import drift.model.Discipline;
 import drift.model.Training;
 import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Value;
 
@@ -11,6 +12,7 @@ import java.time.Instant;
 
 @Value
 @Builder(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
 public class TrainingDto {
 
     String id;
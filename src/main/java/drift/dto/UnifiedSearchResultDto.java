@@ -0,0 +1,21 @@
+package drift.dto;
+
+import drift.repository.SearchPage;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Set;
+
+@Value
+@Builder
+public class UnifiedSearchResultDto {
+
+    SearchPage<UserDto> users;
+    SearchPage<CarDto> cars;
+    SearchPage<OrganisationDto> organisations;
+    SearchPage<ChampionshipDto> championships;
+    SearchPage<ChampionshipStageDto> championshipStages;
+    SearchPage<TrainingDto> trainings;
+    // Note: targets whose search did not finish before the deadline, their pages are not set.
+    Set<SearchTarget> timedOut;
+}
@@ -0,0 +1,14 @@
+package drift.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@AllArgsConstructor
+public class UserWithCarsDto {
+
+    UserDto user;
+    List<CarDto> cars;
+}
@@ -0,0 +1,14 @@
+package drift.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterInSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterInSeconds) {
+        super(message);
+        this.retryAfterInSeconds = retryAfterInSeconds;
+    }
+}
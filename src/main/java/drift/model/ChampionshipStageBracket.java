@@ -0,0 +1,37 @@
+package drift.model;
+
+import drift.repository.ListOfIntegersToStringConverter;
+import drift.repository.ListOfStringsToStringConverter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Entity
+@Table(name = "championship_stage_brackets")
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChampionshipStageBracket {
+    @Id
+    private String championshipStageId;
+    @NotEmpty
+    @Convert(converter = ListOfStringsToStringConverter.class)
+    private List<String> participantUserIds;
+    @NotEmpty
+    @Convert(converter = ListOfIntegersToStringConverter.class)
+    private List<Integer> slots;
+    @NotEmpty
+    @Convert(converter = ListOfIntegersToStringConverter.class)
+    private List<Integer> omtCounts;
+    @NotNull
+    private Integer omt;
+    @Version
+    private Long version;
+}
@@ -1,18 +1,14 @@
 package drift.model;
 
-import drift.repository.StringToListOfDoublesMapToStringConverter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
-import java.util.List;
-import java.util.Map;
 
 @Entity
 @Table(name = "championship_stage_participants")
@@ -27,6 +23,4 @@ public class ChampionshipStageParticipant {
     private String championshipStageId;
     @NotNull
     private String userId;
-    @Convert(converter = StringToListOfDoublesMapToStringConverter.class)
-    private Map<String, List<Double>> qualificationResults;
 }
@@ -0,0 +1,32 @@
+package drift.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+@Entity
+@Table(name = "championship_stage_qualification_scores")
+@IdClass(ChampionshipStageQualificationScoreId.class)
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChampionshipStageQualificationScore {
+    @Id
+    private String championshipStageId;
+    @Id
+    private String judgeUserId;
+    @Id
+    private String participantUserId;
+    @Id
+    private Integer attempt;
+    @NotNull
+    private Double points;
+}
@@ -0,0 +1,17 @@
+package drift.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChampionshipStageQualificationScoreId implements Serializable {
+    private String championshipStageId;
+    private String judgeUserId;
+    private String participantUserId;
+    private Integer attempt;
+}
@@ -0,0 +1,28 @@
+package drift.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+@Entity
+@Table(name = "championship_standings")
+@IdClass(ChampionshipStandingId.class)
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChampionshipStanding {
+    @Id
+    private String championshipId;
+    @Id
+    private String userId;
+    @NotNull
+    private Double points;
+}
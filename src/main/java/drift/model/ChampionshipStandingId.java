@@ -0,0 +1,15 @@
+package drift.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChampionshipStandingId implements Serializable {
+    private String championshipId;
+    private String userId;
+}
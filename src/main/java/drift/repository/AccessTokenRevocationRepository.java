@@ -0,0 +1,12 @@
+package drift.repository;
+
+import drift.model.AccessTokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface AccessTokenRevocationRepository extends JpaRepository<AccessTokenRevocation, String> {
+
+    List<AccessTokenRevocation> findAllByNotBeforeGreaterThanEqual(Instant notBefore);
+}
@@ -1,19 +1,36 @@
 package drift.repository;
 
+import drift.dto.CarDto;
 import drift.model.Car;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface CarRepository extends JpaRepository<Car, String>, JpaSpecificationExecutor<Car> {
+public interface CarRepository extends KeysetSearchRepository<Car> {
+
+    SearchKeyset<Car, CarDto> CAR_KEYSET = SearchKeyset.byId(CarDto::getId);
+    Set<String> CAR_FACETS = Set.of("ownerId", "brand", "active");
 
     boolean existsByOwnerIdAndActive(String ownerId, boolean active);
 
-    default Collection<Car> search(CarsSearchContext context) {
+    default SearchPage<CarDto> search(CarsSearchContext context) {
+        return search(getSpecifications(context), context, CAR_KEYSET, CarDto.class);
+    }
+
+    default Stream<CarDto> stream(CarsSearchContext context) {
+        return stream(getSpecifications(context), CAR_KEYSET, CarDto.class);
+    }
+
+    default Map<String, Long> countBy(CarsSearchContext context, String facet) {
+        return countBy(getSpecifications(context), facet, CAR_FACETS);
+    }
+
+    private List<Specification<Car>> getSpecifications(CarsSearchContext context) {
         var specifications = new ArrayList<Specification<Car>>();
         if (CollectionUtils.isNotEmpty(context.getCarIds())) {
             specifications.add((root, query, builder) -> root.get("id").in(context.getCarIds()));
@@ -24,9 +41,6 @@ public interface CarRepository extends JpaRepository<Car, String>, JpaSpecificat
         if (context.getActive() != null) {
             specifications.add((root, query, builder) -> builder.equal(root.get("active"), context.getActive()));
         }
-        var specification = specifications.stream()
-                .reduce(Specification::and)
-                .orElseGet(() -> (root, query, criteriaBuilder) -> null);
-        return this.findAll(specification);
+        return specifications;
     }
 }
@@ -1,11 +1,13 @@
 package drift.repository;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import java.util.Collection;
 
 @Data
-public class CarsSearchContext {
+@EqualsAndHashCode(callSuper = true)
+public class CarsSearchContext extends SearchContext {
     private Collection<String> carIds;
     private Collection<String> ownerIds;
     private Boolean active;
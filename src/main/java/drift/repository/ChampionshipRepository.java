@@ -1,17 +1,34 @@
 package drift.repository;
 
+import drift.dto.ChampionshipDto;
 import drift.model.Championship;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface ChampionshipRepository extends JpaRepository<Championship, String>, JpaSpecificationExecutor<Championship> {
+public interface ChampionshipRepository extends KeysetSearchRepository<Championship> {
 
-    default Collection<Championship> search(ChampionshipsSearchContext context) {
+    SearchKeyset<Championship, ChampionshipDto> CHAMPIONSHIP_KEYSET = SearchKeyset.byId(ChampionshipDto::getId);
+    Set<String> CHAMPIONSHIP_FACETS = Set.of("ownerId", "organisationId", "discipline", "active");
+
+    default SearchPage<ChampionshipDto> search(ChampionshipsSearchContext context) {
+        return search(getSpecifications(context), context, CHAMPIONSHIP_KEYSET, ChampionshipDto.class);
+    }
+
+    default Stream<ChampionshipDto> stream(ChampionshipsSearchContext context) {
+        return stream(getSpecifications(context), CHAMPIONSHIP_KEYSET, ChampionshipDto.class);
+    }
+
+    default Map<String, Long> countBy(ChampionshipsSearchContext context, String facet) {
+        return countBy(getSpecifications(context), facet, CHAMPIONSHIP_FACETS);
+    }
+
+    private List<Specification<Championship>> getSpecifications(ChampionshipsSearchContext context) {
         var specifications = new ArrayList<Specification<Championship>>();
         if (CollectionUtils.isNotEmpty(context.getChampionshipIds())) {
             specifications.add((root, query, builder) -> root.get("id").in(context.getChampionshipIds()));
@@ -28,9 +45,6 @@ public interface ChampionshipRepository extends JpaRepository<Championship, Stri
         if (context.getActive() != null) {
             specifications.add((root, query, builder) -> builder.equal(root.get("active"), context.getActive()));
         }
-        var specification = specifications.stream()
-                .reduce(Specification::and)
-                .orElseGet(() -> (root, query, criteriaBuilder) -> null);
-        return this.findAll(specification);
+        return specifications;
     }
 }
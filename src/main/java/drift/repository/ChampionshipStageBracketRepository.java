@@ -0,0 +1,14 @@
+package drift.repository;
+
+import drift.model.ChampionshipStageBracket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ChampionshipStageBracketRepository extends JpaRepository<ChampionshipStageBracket, String> {
+
+    @Query("SELECT b.version FROM ChampionshipStageBracket b WHERE b.championshipStageId = :championshipStageId")
+    Optional<Long> findVersion(@Param("championshipStageId") String championshipStageId);
+}
@@ -2,10 +2,12 @@ package drift.repository;
 
 import drift.model.ChampionshipStageJudge;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Collection;
+import java.util.List;
 
-public interface ChampionshipStageJudgeRepository extends JpaRepository<ChampionshipStageJudge, String> {
+public interface ChampionshipStageJudgeRepository extends JpaRepository<ChampionshipStageJudge, String>, UsersWithCarsRepository<ChampionshipStageJudge> {
 
     boolean existsByChampionshipStageIdAndUserId(String championshipStageId, String userId);
 
@@ -14,4 +16,14 @@ public interface ChampionshipStageJudgeRepository extends JpaRepository<Champion
     long countByChampionshipStageId(String championshipStageId);
 
     Collection<ChampionshipStageJudge> findAllByChampionshipStageId(String championshipStageId);
+
+    @Query("SELECT judge.userId FROM ChampionshipStageJudge judge WHERE judge.championshipStageId = :championshipStageId")
+    Collection<String> findAllUserIdsByChampionshipStageId(String championshipStageId);
+
+    @Override
+    @Query(nativeQuery = true, value = SELECT_USERS_WITH_CARS +
+            "SELECT judge.user_id FROM championship_stage_judges judge " +
+            "WHERE judge.championship_stage_id = :parentId AND judge.user_id > :afterUserId " +
+            "ORDER BY judge.user_id LIMIT :limit" + JOIN_USERS_WITH_CARS)
+    List<UserWithCarsRow> findAllUsersWithCars(String parentId, String afterUserId, int limit);
 }
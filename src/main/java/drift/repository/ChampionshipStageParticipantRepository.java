@@ -2,13 +2,12 @@ package drift.repository;
 
 import drift.model.ChampionshipStageParticipant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Collection;
-import java.util.Optional;
+import java.util.List;
 
-public interface ChampionshipStageParticipantRepository extends JpaRepository<ChampionshipStageParticipant, String> {
-
-    Optional<ChampionshipStageParticipant> findByChampionshipStageIdAndUserId(String championshipStageId, String userId);
+public interface ChampionshipStageParticipantRepository extends JpaRepository<ChampionshipStageParticipant, String>, UsersWithCarsRepository<ChampionshipStageParticipant> {
 
     boolean existsByChampionshipStageIdAndUserId(String championshipStageId, String userId);
 
@@ -17,4 +16,15 @@ public interface ChampionshipStageParticipantRepository extends JpaRepository<Ch
     long countByChampionshipStageId(String championshipStageId);
 
     Collection<ChampionshipStageParticipant> findAllByChampionshipStageId(String championshipStageId);
+
+    @Query("SELECT participant.userId FROM ChampionshipStageParticipant participant " +
+            "WHERE participant.championshipStageId = :championshipStageId")
+    Collection<String> findAllUserIdsByChampionshipStageId(String championshipStageId);
+
+    @Override
+    @Query(nativeQuery = true, value = SELECT_USERS_WITH_CARS +
+            "SELECT participant.user_id FROM championship_stage_participants participant " +
+            "WHERE participant.championship_stage_id = :parentId AND participant.user_id > :afterUserId " +
+            "ORDER BY participant.user_id LIMIT :limit" + JOIN_USERS_WITH_CARS)
+    List<UserWithCarsRow> findAllUsersWithCars(String parentId, String afterUserId, int limit);
 }
@@ -0,0 +1,24 @@
+package drift.repository;
+
+import drift.model.ChampionshipStageQualificationScore;
+import drift.model.ChampionshipStageQualificationScoreId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+
+public interface ChampionshipStageQualificationScoreRepository
+        extends JpaRepository<ChampionshipStageQualificationScore, ChampionshipStageQualificationScoreId>,
+        ChampionshipStageQualificationScoreUpsertRepository {
+
+    Collection<ChampionshipStageQualificationScore> findAllByChampionshipStageId(String championshipStageId);
+
+    Collection<ChampionshipStageQualificationScore> findAllByChampionshipStageIdAndJudgeUserId(
+            String championshipStageId, String judgeUserId);
+
+    @Modifying
+    @Query("DELETE FROM ChampionshipStageQualificationScore score " +
+            "WHERE score.championshipStageId = :championshipStageId AND score.participantUserId = :participantUserId")
+    void deleteAllByChampionshipStageIdAndParticipantUserId(String championshipStageId, String participantUserId);
+}
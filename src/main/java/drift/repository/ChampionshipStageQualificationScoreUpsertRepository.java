@@ -0,0 +1,13 @@
+package drift.repository;
+
+import drift.model.ChampionshipStageQualificationScore;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ChampionshipStageQualificationScoreUpsertRepository {
+
+    void upsert(String championshipStageId, String judgeUserId, String participantUserId, List<Double> attemptsPoints);
+
+    void upsertAll(Collection<ChampionshipStageQualificationScore> scores);
+}
@@ -0,0 +1,51 @@
+package drift.repository;
+
+import drift.model.ChampionshipStageQualificationScore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class ChampionshipStageQualificationScoreUpsertRepositoryImpl implements ChampionshipStageQualificationScoreUpsertRepository {
+
+    private static final String UPSERT_SQL_FORMAT =
+            "INSERT INTO championship_stage_qualification_scores " +
+                    "(championship_stage_id, judge_user_id, participant_user_id, attempt, points) VALUES %s " +
+                    "ON DUPLICATE KEY UPDATE points = VALUES(points)";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?)";
+    private static final String SINGLE_ROW_UPSERT_SQL = String.format(UPSERT_SQL_FORMAT, ROW_PLACEHOLDERS);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsert(String championshipStageId, String judgeUserId, String participantUserId, List<Double> attemptsPoints) {
+        var rowsPlaceholders = attemptsPoints.stream().map(points -> ROW_PLACEHOLDERS).collect(Collectors.joining(", "));
+        var args = new ArrayList<>(attemptsPoints.size() * 5);
+        for (var attempt = 0; attempt < attemptsPoints.size(); attempt++) {
+            args.add(championshipStageId);
+            args.add(judgeUserId);
+            args.add(participantUserId);
+            args.add(attempt);
+            args.add(attemptsPoints.get(attempt));
+        }
+        jdbcTemplate.update(String.format(UPSERT_SQL_FORMAT, rowsPlaceholders), args.toArray());
+    }
+
+    @Override
+    public void upsertAll(Collection<ChampionshipStageQualificationScore> scores) {
+        var batchArgs = scores.stream()
+                .map(score -> new Object[]{
+                        score.getChampionshipStageId(),
+                        score.getJudgeUserId(),
+                        score.getParticipantUserId(),
+                        score.getAttempt(),
+                        score.getPoints()
+                })
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(SINGLE_ROW_UPSERT_SQL, batchArgs);
+    }
+}
@@ -1,17 +1,48 @@
 package drift.repository;
 
+import drift.dto.ChampionshipStageDto;
 import drift.model.ChampionshipStage;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface ChampionshipStageRepository extends JpaRepository<ChampionshipStage, String>, JpaSpecificationExecutor<ChampionshipStage> {
+public interface ChampionshipStageRepository extends KeysetSearchRepository<ChampionshipStage>, FullTextSearchRepository<ChampionshipStage>,
+        ChampionshipStageVersionRepository {
 
-    default Collection<ChampionshipStage> search(ChampionshipStagesSearchContext context) {
+    SearchKeyset<ChampionshipStage, ChampionshipStageDto> CHAMPIONSHIP_STAGE_KEYSET =
+            SearchKeyset.byStartTimestampAndId(ChampionshipStageDto::getStartTimestamp, ChampionshipStageDto::getId);
+    Set<String> CHAMPIONSHIP_STAGE_FACETS = Set.of("championshipId", "active");
+
+    default SearchPage<ChampionshipStageDto> search(ChampionshipStagesSearchContext context) {
+        return search(getSpecifications(context), context, CHAMPIONSHIP_STAGE_KEYSET, ChampionshipStageDto.class);
+    }
+
+    default Stream<ChampionshipStageDto> stream(ChampionshipStagesSearchContext context) {
+        return stream(getSpecifications(context), CHAMPIONSHIP_STAGE_KEYSET, ChampionshipStageDto.class);
+    }
+
+    default Map<String, Long> countBy(ChampionshipStagesSearchContext context, String facet) {
+        return countBy(getSpecifications(context), facet, CHAMPIONSHIP_STAGE_FACETS);
+    }
+
+    @Override
+    @Query(value = "SELECT id FROM championship_stages WHERE MATCH(name, description, location) AGAINST(:query IN NATURAL LANGUAGE MODE) " +
+            "AND (:active IS NULL OR active = :active) " +
+            "ORDER BY MATCH(name, description, location) AGAINST(:query IN NATURAL LANGUAGE MODE) DESC, id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<String> findIdsByFullText(String query, Boolean active, int limit, int offset);
+
+    default SearchPage<ChampionshipStageDto> searchByText(FullTextSearchContext context) {
+        return searchByText(context, ChampionshipStageDto.class, ChampionshipStageDto::getId);
+    }
+
+    private List<Specification<ChampionshipStage>> getSpecifications(ChampionshipStagesSearchContext context) {
         var specifications = new ArrayList<Specification<ChampionshipStage>>();
         if (CollectionUtils.isNotEmpty(context.getChampionshipStageIds())) {
             specifications.add((root, query, builder) -> root.get("id").in(context.getChampionshipStageIds()));
@@ -22,9 +53,14 @@ public interface ChampionshipStageRepository extends JpaRepository<ChampionshipS
         if (context.getActive() != null) {
             specifications.add((root, query, builder) -> builder.equal(root.get("active"), context.getActive()));
         }
-        var specification = specifications.stream()
-                .reduce(Specification::and)
-                .orElseGet(() -> (root, query, criteriaBuilder) -> null);
-        return this.findAll(specification);
+        if (context.getStartTimestampFrom() != null) {
+            var startTimestampFrom = Instant.ofEpochMilli(context.getStartTimestampFrom());
+            specifications.add((root, query, builder) -> builder.greaterThanOrEqualTo(root.get("startTimestamp"), startTimestampFrom));
+        }
+        if (context.getStartTimestampTo() != null) {
+            var startTimestampTo = Instant.ofEpochMilli(context.getStartTimestampTo());
+            specifications.add((root, query, builder) -> builder.lessThan(root.get("startTimestamp"), startTimestampTo));
+        }
+        return specifications;
     }
 }
@@ -0,0 +1,10 @@
+package drift.repository;
+
+import java.util.Optional;
+
+public interface ChampionshipStageVersionRepository {
+
+    long incrementVersion(String championshipStageId);
+
+    Optional<Long> findVersion(String championshipStageId);
+}
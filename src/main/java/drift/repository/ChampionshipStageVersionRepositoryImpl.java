@@ -0,0 +1,29 @@
+package drift.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+
+// Note: the version column is not mapped to the entity and is updated over JDBC, so version increments
+// of concurrent judges do not fail on optimistic locking.
+@RequiredArgsConstructor
+public class ChampionshipStageVersionRepositoryImpl implements ChampionshipStageVersionRepository {
+
+    private static final String INCREMENT_VERSION_SQL = "UPDATE championship_stages SET version = version + 1 WHERE id = ?";
+    private static final String SELECT_VERSION_SQL = "SELECT version FROM championship_stages WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public long incrementVersion(String championshipStageId) {
+        jdbcTemplate.update(INCREMENT_VERSION_SQL, championshipStageId);
+        // Note: the row is locked by the update until commit, so the version read back is the one it has set.
+        return jdbcTemplate.queryForObject(SELECT_VERSION_SQL, Long.class, championshipStageId);
+    }
+
+    @Override
+    public Optional<Long> findVersion(String championshipStageId) {
+        return jdbcTemplate.queryForList(SELECT_VERSION_SQL, Long.class, championshipStageId).stream().findFirst();
+    }
+}
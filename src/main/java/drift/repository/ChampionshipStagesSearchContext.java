@@ -1,12 +1,16 @@
 package drift.repository;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import java.util.Collection;
 
 @Data
-public class ChampionshipStagesSearchContext {
+@EqualsAndHashCode(callSuper = true)
+public class ChampionshipStagesSearchContext extends SearchContext {
     private Collection<String> championshipIds;
     private Collection<String> championshipStageIds;
     private Boolean active;
+    private Long startTimestampFrom;
+    private Long startTimestampTo;
 }
@@ -0,0 +1,14 @@
+package drift.repository;
+
+import drift.model.ChampionshipStanding;
+import drift.model.ChampionshipStandingId;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ChampionshipStandingRepository
+        extends JpaRepository<ChampionshipStanding, ChampionshipStandingId>,
+        ChampionshipStandingUpsertRepository {
+
+    List<ChampionshipStanding> findAllByChampionshipIdOrderByPointsDescUserIdAsc(String championshipId);
+}
@@ -0,0 +1,8 @@
+package drift.repository;
+
+import java.util.Map;
+
+public interface ChampionshipStandingUpsertRepository {
+
+    void addPoints(String championshipId, Map<String, Double> pointsByUserId);
+}
@@ -0,0 +1,25 @@
+package drift.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class ChampionshipStandingUpsertRepositoryImpl implements ChampionshipStandingUpsertRepository {
+
+    private static final String ADD_POINTS_SQL =
+            "INSERT INTO championship_standings (championship_id, user_id, points) VALUES (?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE points = points + VALUES(points)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addPoints(String championshipId, Map<String, Double> pointsByUserId) {
+        var batchArgs = pointsByUserId.entrySet().stream()
+                .map(userPoints -> new Object[]{championshipId, userPoints.getKey(), userPoints.getValue()})
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(ADD_POINTS_SQL, batchArgs);
+    }
+}
@@ -2,11 +2,13 @@ package drift.repository;
 
 import drift.model.Discipline;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import java.util.Collection;
 
 @Data
-public class ChampionshipsSearchContext {
+@EqualsAndHashCode(callSuper = true)
+public class ChampionshipsSearchContext extends SearchContext {
     private Collection<String> championshipIds;
     private Collection<String> ownerIds;
     private Collection<String> organisationIds;
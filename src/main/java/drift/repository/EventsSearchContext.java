@@ -0,0 +1,12 @@
+package drift.repository;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class EventsSearchContext extends SearchContext {
+    // Note: epoch millis, the window includes its start and excludes its end; it starts now by default.
+    private Long startTimestampFrom;
+    private Long startTimestampTo;
+}
@@ -0,0 +1,11 @@
+package drift.repository;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class FullTextSearchContext extends SearchContext {
+    private String query;
+    private Boolean active;
+}
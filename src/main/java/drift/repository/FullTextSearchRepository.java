@@ -0,0 +1,63 @@
+package drift.repository;
+
+import drift.exception.ValidationException;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@NoRepositoryBean
+public interface FullTextSearchRepository<T> extends KeysetSearchRepository<T> {
+
+    // Note: implemented with MATCH ... AGAINST over a FULLTEXT index, ordered by relevance and then by id.
+    List<String> findIdsByFullText(String query, Boolean active, int limit, int offset);
+
+    default <D> SearchPage<D> searchByText(FullTextSearchContext context, Class<D> projection, Function<D, String> idGetter) {
+        if (StringUtils.isBlank(context.getQuery())) {
+            throw new ValidationException("Query should not be empty");
+        }
+        var limit = KeysetSearchRepository.getLimit(context);
+        // Note: relevance is recalculated by every query, so it can not be used as a keyset
+        // and the cursor holds the offset of the next page instead.
+        var offset = context.getCursor() != null ? decodeOffset(context.getCursor()) : 0;
+        var ids = findIdsByFullText(context.getQuery(), context.getActive(), limit + 1, offset);
+        var pageIds = ids.subList(0, Math.min(limit, ids.size()));
+        var nextCursor = ids.size() > limit ? encodeOffset(offset + limit) : null;
+        if (pageIds.isEmpty()) {
+            return new SearchPage<>(List.of(), nextCursor);
+        }
+        // Note: the native query ranks ids only, the projected columns of the page are then selected by id
+        // the same way as by keyset search, so no managed entities are loaded.
+        var itemsById = findAll((root, query, builder) -> root.get("id").in(pageIds), Sort.unsorted(), pageIds.size(), projection)
+                .stream()
+                .collect(Collectors.toMap(idGetter, Function.identity()));
+        var pageItems = pageIds.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new SearchPage<>(pageItems, nextCursor);
+    }
+
+    private static String encodeOffset(int offset) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                Integer.toString(offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeOffset(String cursor) {
+        try {
+            var offset = Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (offset < 0) {
+                throw new ValidationException("Wrong cursor");
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Wrong cursor");
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package drift.repository;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.Selection;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+public class KeysetSearchJpaRepository<T, ID extends Serializable> extends SimpleJpaRepository<T, ID> {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final Map<Class<?>, String[]> PROJECTION_ATTRIBUTES = new ConcurrentHashMap<>();
+
+    private final EntityManager entityManager;
+
+    public KeysetSearchJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+    }
+
+    public <D> List<D> findAll(Specification<T> specification, Sort sort, int limit, Class<D> projection) {
+        return getProjectionQuery(specification, sort, projection).setMaxResults(limit).getResultList();
+    }
+
+    public <D> Stream<D> stream(Specification<T> specification, Sort sort, Class<D> projection) {
+        // Note: positive fetch size makes the driver stream rows instead of reading the whole result set.
+        return getProjectionQuery(specification, sort, projection)
+                .setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream();
+    }
+
+    public Map<Object, Long> countBy(Specification<T> specification, String attribute) {
+        var builder = entityManager.getCriteriaBuilder();
+        var query = builder.createTupleQuery();
+        var root = query.from(getDomainClass());
+        var predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        var group = root.get(attribute);
+        var count = builder.count(root);
+        query.multiselect(group, count).groupBy(group).orderBy(builder.desc(count), builder.asc(group));
+        var counts = new LinkedHashMap<Object, Long>();
+        entityManager.createQuery(query).getResultList()
+                .forEach(tuple -> counts.put(tuple.get(group), tuple.get(count)));
+        return counts;
+    }
+
+    // Note: projection constructor parameters are selected as the entity attributes of the same names,
+    // so only projected columns are read and no managed entities are created.
+    private <D> TypedQuery<D> getProjectionQuery(Specification<T> specification, Sort sort, Class<D> projection) {
+        var builder = entityManager.getCriteriaBuilder();
+        var query = builder.createQuery(projection);
+        var root = query.from(getDomainClass());
+        var predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        var selections = Arrays.stream(getProjectionAttributes(projection))
+                .map(root::get)
+                .toArray(Selection<?>[]::new);
+        query.select(builder.construct(projection, selections));
+        query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        return entityManager.createQuery(query);
+    }
+
+    private static String[] getProjectionAttributes(Class<?> projection) {
+        return PROJECTION_ATTRIBUTES.computeIfAbsent(projection, type -> {
+            var constructors = type.getConstructors();
+            if (constructors.length != 1) {
+                throw new IllegalStateException("Projection " + type.getSimpleName() + " should have single public constructor");
+            }
+            return BeanUtils.getParameterNames(constructors[0]);
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package drift.repository;
+
+import drift.exception.ValidationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+@NoRepositoryBean
+public interface KeysetSearchRepository<T> extends JpaRepository<T, String>, JpaSpecificationExecutor<T> {
+
+    int DEFAULT_SEARCH_LIMIT = 50;
+    int MAX_SEARCH_LIMIT = 200;
+
+    <D> List<D> findAll(Specification<T> specification, Sort sort, int limit, Class<D> projection);
+
+    <D> Stream<D> stream(Specification<T> specification, Sort sort, Class<D> projection);
+
+    Map<Object, Long> countBy(Specification<T> specification, String attribute);
+
+    default <D> SearchPage<D> search(List<Specification<T>> specifications, SearchContext context,
+                                     SearchKeyset<T, D> keyset, Class<D> projection) {
+        var limit = getLimit(context);
+        var pageSpecifications = new ArrayList<>(specifications);
+        if (context.getCursor() != null) {
+            pageSpecifications.add(keyset.after(context.getCursor()));
+        }
+        var specification = combine(pageSpecifications);
+        // Note: one extra row is fetched to find out whether the next page exists without a count query.
+        var items = findAll(specification, keyset.getSort(), limit + 1, projection);
+        if (items.size() <= limit) {
+            return new SearchPage<>(items, null);
+        }
+        var pageItems = items.subList(0, limit);
+        return new SearchPage<>(pageItems, keyset.cursorOf(pageItems.get(limit - 1)));
+    }
+
+    default <D> Stream<D> stream(List<Specification<T>> specifications, SearchKeyset<T, D> keyset, Class<D> projection) {
+        return stream(combine(specifications), keyset.getSort(), projection);
+    }
+
+    // Note: counts are grouped by entity attribute values, groups of missing values are not reported.
+    default Map<String, Long> countBy(List<Specification<T>> specifications, String facet, Set<String> facets) {
+        if (!facets.contains(facet)) {
+            throw new ValidationException("Facet should be one of " + new TreeSet<>(facets));
+        }
+        var counts = new LinkedHashMap<String, Long>();
+        countBy(combine(specifications), facet).forEach((value, count) -> {
+            if (value != null) {
+                counts.put(value.toString(), count);
+            }
+        });
+        return counts;
+    }
+
+    static int getLimit(SearchContext context) {
+        var limit = context.getLimit() != null ? context.getLimit() : DEFAULT_SEARCH_LIMIT;
+        // Note: repository proxies translate IllegalArgumentException into a data access exception,
+        // so wrong search requests are reported with ValidationException instead.
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new ValidationException("Limit should be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        return limit;
+    }
+
+    private static <T> Specification<T> combine(List<Specification<T>> specifications) {
+        return specifications.stream()
+                .reduce(Specification::and)
+                .orElseGet(() -> (root, query, criteriaBuilder) -> null);
+    }
+}
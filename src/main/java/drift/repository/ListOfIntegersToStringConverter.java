@@ -0,0 +1,26 @@
+package drift.repository;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Converter
+public class ListOfIntegersToStringConverter implements AttributeConverter<List<Integer>, String> {
+
+    private static final String DELIMITER = ",";
+
+    @Override
+    public String convertToDatabaseColumn(List<Integer> entityAttributeValue) {
+        if (entityAttributeValue == null) return null;
+        return entityAttributeValue.stream().map(Object::toString).collect(Collectors.joining(DELIMITER));
+    }
+
+    @Override
+    public List<Integer> convertToEntityAttribute(String dbColumnValue) {
+        if (dbColumnValue == null) return null;
+        return Stream.of(dbColumnValue.split(DELIMITER)).map(Integer::valueOf).collect(Collectors.toList());
+    }
+
+}
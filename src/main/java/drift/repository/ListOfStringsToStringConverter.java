@@ -0,0 +1,26 @@
+package drift.repository;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Converter
+public class ListOfStringsToStringConverter implements AttributeConverter<List<String>, String> {
+
+    private static final String DELIMITER = ",";
+
+    @Override
+    public String convertToDatabaseColumn(List<String> entityAttributeValue) {
+        if (entityAttributeValue == null) return null;
+        return String.join(DELIMITER, entityAttributeValue);
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String dbColumnValue) {
+        if (dbColumnValue == null) return null;
+        return Stream.of(dbColumnValue.split(DELIMITER)).collect(Collectors.toList());
+    }
+
+}
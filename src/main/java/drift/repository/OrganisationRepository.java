@@ -1,19 +1,47 @@
 package drift.repository;
 
+import drift.dto.OrganisationDto;
 import drift.model.Organisation;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface OrganisationRepository extends JpaRepository<Organisation, String>, JpaSpecificationExecutor<Organisation> {
+public interface OrganisationRepository extends KeysetSearchRepository<Organisation>, FullTextSearchRepository<Organisation> {
+
+    SearchKeyset<Organisation, OrganisationDto> ORGANISATION_KEYSET = SearchKeyset.byId(OrganisationDto::getId);
+    Set<String> ORGANISATION_FACETS = Set.of("ownerId", "active");
 
     boolean existsByOwnerIdAndActive(String ownerId, boolean active);
 
-    default Collection<Organisation> search(OrganisationsSearchContext context) {
+    default SearchPage<OrganisationDto> search(OrganisationsSearchContext context) {
+        return search(getSpecifications(context), context, ORGANISATION_KEYSET, OrganisationDto.class);
+    }
+
+    default Stream<OrganisationDto> stream(OrganisationsSearchContext context) {
+        return stream(getSpecifications(context), ORGANISATION_KEYSET, OrganisationDto.class);
+    }
+
+    default Map<String, Long> countBy(OrganisationsSearchContext context, String facet) {
+        return countBy(getSpecifications(context), facet, ORGANISATION_FACETS);
+    }
+
+    @Override
+    @Query(value = "SELECT id FROM organisations WHERE MATCH(name, description) AGAINST(:query IN NATURAL LANGUAGE MODE) " +
+            "AND (:active IS NULL OR active = :active) " +
+            "ORDER BY MATCH(name, description) AGAINST(:query IN NATURAL LANGUAGE MODE) DESC, id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<String> findIdsByFullText(String query, Boolean active, int limit, int offset);
+
+    default SearchPage<OrganisationDto> searchByText(FullTextSearchContext context) {
+        return searchByText(context, OrganisationDto.class, OrganisationDto::getId);
+    }
+
+    private List<Specification<Organisation>> getSpecifications(OrganisationsSearchContext context) {
         var specifications = new ArrayList<Specification<Organisation>>();
         if (CollectionUtils.isNotEmpty(context.getOrganisationIds())) {
             specifications.add((root, query, builder) -> root.get("id").in(context.getOrganisationIds()));
@@ -24,9 +52,6 @@ public interface OrganisationRepository extends JpaRepository<Organisation, Stri
         if (context.getActive() != null) {
             specifications.add((root, query, builder) -> builder.equal(root.get("active"), context.getActive()));
         }
-        var specification = specifications.stream()
-                .reduce(Specification::and)
-                .orElseGet(() -> (root, query, criteriaBuilder) -> null);
-        return this.findAll(specification);
+        return specifications;
     }
 }
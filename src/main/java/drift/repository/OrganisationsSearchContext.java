@@ -1,11 +1,13 @@
 package drift.repository;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import java.util.Collection;
 
 @Data
-public class OrganisationsSearchContext {
+@EqualsAndHashCode(callSuper = true)
+public class OrganisationsSearchContext extends SearchContext {
     private Collection<String> organisationIds;
     private Collection<String> ownerIds;
     private Boolean active;
@@ -0,0 +1,68 @@
+package drift.repository;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+public class QualificationResultsToScoresMigration implements CustomTaskChange {
+
+    private static final String SELECT_SQL =
+            "SELECT championship_stage_id, user_id, qualification_results FROM championship_stage_participants " +
+                    "WHERE qualification_results IS NOT NULL";
+    private static final String INSERT_SQL =
+            "INSERT INTO championship_stage_qualification_scores " +
+                    "(championship_stage_id, judge_user_id, participant_user_id, attempt, points) VALUES (?, ?, ?, ?, ?)";
+
+    private final StringToListOfDoublesMapToStringConverter converter = new StringToListOfDoublesMapToStringConverter();
+    private int numberOfMigratedScores;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        var connection = (JdbcConnection) database.getConnection();
+        try (var select = connection.createStatement();
+             var participants = select.executeQuery(SELECT_SQL);
+             var insert = connection.prepareStatement(INSERT_SQL)) {
+            while (participants.next()) {
+                var championshipStageId = participants.getString(1);
+                var participantUserId = participants.getString(2);
+                var qualificationResults = converter.convertToEntityAttribute(participants.getString(3));
+                for (var judgeAttemptsPoints : qualificationResults.entrySet()) {
+                    var attemptsPoints = judgeAttemptsPoints.getValue();
+                    for (var attempt = 0; attempt < attemptsPoints.size(); attempt++) {
+                        insert.setString(1, championshipStageId);
+                        insert.setString(2, judgeAttemptsPoints.getKey());
+                        insert.setString(3, participantUserId);
+                        insert.setInt(4, attempt);
+                        insert.setDouble(5, attemptsPoints.get(attempt));
+                        insert.addBatch();
+                        numberOfMigratedScores++;
+                    }
+                }
+            }
+            insert.executeBatch();
+        } catch (Exception e) {
+            throw new CustomChangeException("Failed to migrate qualification results", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Migrated " + numberOfMigratedScores + " qualification scores";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -2,10 +2,21 @@ package drift.repository;
 
 import drift.model.ScoringSystem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
 import java.util.Collection;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 public interface ScoringSystemRepository extends JpaRepository<ScoringSystem, String> {
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Collection<ScoringSystem> findAllByActive(boolean active);
+
+    // Note: scoring systems are never deleted, so the number of rows and the sum of their versions
+    // change whenever a scoring system is created or updated.
+    @Query("SELECT COUNT(s) AS count, COALESCE(SUM(s.version), 0) AS versionSum FROM ScoringSystem s")
+    ScoringSystemsVersionRow findVersion();
 }
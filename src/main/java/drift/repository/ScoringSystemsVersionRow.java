@@ -0,0 +1,8 @@
+package drift.repository;
+
+public interface ScoringSystemsVersionRow {
+
+    long getCount();
+
+    long getVersionSum();
+}
@@ -0,0 +1,9 @@
+package drift.repository;
+
+import lombok.Data;
+
+@Data
+public abstract class SearchContext {
+    private String cursor;
+    private Integer limit;
+}
@@ -0,0 +1,86 @@
+package drift.repository;
+
+import drift.exception.ValidationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Function;
+
+public interface SearchKeyset<T, D> {
+
+    Sort getSort();
+
+    Specification<T> after(String cursor);
+
+    String cursorOf(D item);
+
+    static <T, D> SearchKeyset<T, D> byId(Function<D, String> idGetter) {
+        return new SearchKeyset<>() {
+            @Override
+            public Sort getSort() {
+                return Sort.by("id");
+            }
+
+            @Override
+            public Specification<T> after(String cursor) {
+                var id = decode(cursor);
+                return (root, query, builder) -> builder.greaterThan(root.get("id"), id);
+            }
+
+            @Override
+            public String cursorOf(D item) {
+                return encode(idGetter.apply(item));
+            }
+        };
+    }
+
+    static <T, D> SearchKeyset<T, D> byStartTimestampAndId(Function<D, Instant> startTimestampGetter,
+                                                           Function<D, String> idGetter) {
+        return new SearchKeyset<>() {
+            @Override
+            public Sort getSort() {
+                return Sort.by("startTimestamp", "id");
+            }
+
+            @Override
+            public Specification<T> after(String cursor) {
+                var keys = decode(cursor).split(":", 2);
+                if (keys.length != 2) {
+                    throw new ValidationException("Wrong cursor");
+                }
+                Instant startTimestamp;
+                try {
+                    startTimestamp = Instant.ofEpochMilli(Long.parseLong(keys[0]));
+                } catch (NumberFormatException e) {
+                    throw new ValidationException("Wrong cursor");
+                }
+                var id = keys[1];
+                return (root, query, builder) -> builder.or(
+                        builder.greaterThan(root.get("startTimestamp"), startTimestamp),
+                        builder.and(
+                                builder.equal(root.get("startTimestamp"), startTimestamp),
+                                builder.greaterThan(root.get("id"), id)));
+            }
+
+            @Override
+            public String cursorOf(D item) {
+                return encode(startTimestampGetter.apply(item).toEpochMilli() + ":" + idGetter.apply(item));
+            }
+        };
+    }
+
+    private static String encode(String keys) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keys.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Wrong cursor");
+        }
+    }
+}
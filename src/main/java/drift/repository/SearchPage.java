@@ -0,0 +1,11 @@
+package drift.repository;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class SearchPage<T> {
+    List<T> items;
+    String nextCursor;
+}
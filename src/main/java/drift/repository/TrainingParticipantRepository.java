@@ -2,14 +2,23 @@ package drift.repository;
 
 import drift.model.TrainingParticipant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Collection;
+import java.util.List;
 
-public interface TrainingParticipantRepository extends JpaRepository<TrainingParticipant, String> {
+public interface TrainingParticipantRepository extends JpaRepository<TrainingParticipant, String>, UsersWithCarsRepository<TrainingParticipant> {
 
     boolean existsByTrainingIdAndUserId(String trainingId, String userId);
 
     void deleteByTrainingIdAndUserId(String trainingId, String userId);
 
     Collection<TrainingParticipant> findAllByTrainingId(String trainingId);
+
+    @Override
+    @Query(nativeQuery = true, value = SELECT_USERS_WITH_CARS +
+            "SELECT participant.user_id FROM training_participants participant " +
+            "WHERE participant.training_id = :parentId AND participant.user_id > :afterUserId " +
+            "ORDER BY participant.user_id LIMIT :limit" + JOIN_USERS_WITH_CARS)
+    List<UserWithCarsRow> findAllUsersWithCars(String parentId, String afterUserId, int limit);
 }
@@ -1,17 +1,47 @@
 package drift.repository;
 
+import drift.dto.TrainingDto;
 import drift.model.Training;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface TrainingRepository extends JpaRepository<Training, String>, JpaSpecificationExecutor<Training> {
+public interface TrainingRepository extends KeysetSearchRepository<Training>, FullTextSearchRepository<Training> {
 
-    default Collection<Training> search(TrainingsSearchContext context) {
+    SearchKeyset<Training, TrainingDto> TRAINING_KEYSET =
+            SearchKeyset.byStartTimestampAndId(TrainingDto::getStartTimestamp, TrainingDto::getId);
+    Set<String> TRAINING_FACETS = Set.of("ownerId", "organisationId", "discipline", "active");
+
+    default SearchPage<TrainingDto> search(TrainingsSearchContext context) {
+        return search(getSpecifications(context), context, TRAINING_KEYSET, TrainingDto.class);
+    }
+
+    default Stream<TrainingDto> stream(TrainingsSearchContext context) {
+        return stream(getSpecifications(context), TRAINING_KEYSET, TrainingDto.class);
+    }
+
+    default Map<String, Long> countBy(TrainingsSearchContext context, String facet) {
+        return countBy(getSpecifications(context), facet, TRAINING_FACETS);
+    }
+
+    @Override
+    @Query(value = "SELECT id FROM trainings WHERE MATCH(name, location) AGAINST(:query IN NATURAL LANGUAGE MODE) " +
+            "AND (:active IS NULL OR active = :active) " +
+            "ORDER BY MATCH(name, location) AGAINST(:query IN NATURAL LANGUAGE MODE) DESC, id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<String> findIdsByFullText(String query, Boolean active, int limit, int offset);
+
+    default SearchPage<TrainingDto> searchByText(FullTextSearchContext context) {
+        return searchByText(context, TrainingDto.class, TrainingDto::getId);
+    }
+
+    private List<Specification<Training>> getSpecifications(TrainingsSearchContext context) {
         var specifications = new ArrayList<Specification<Training>>();
         if (CollectionUtils.isNotEmpty(context.getTrainingIds())) {
             specifications.add((root, query, builder) -> root.get("id").in(context.getTrainingIds()));
@@ -28,9 +58,14 @@ public interface TrainingRepository extends JpaRepository<Training, String>, Jpa
         if (context.getActive() != null) {
             specifications.add((root, query, builder) -> builder.equal(root.get("active"), context.getActive()));
         }
-        var specification = specifications.stream()
-                .reduce(Specification::and)
-                .orElseGet(() -> (root, query, criteriaBuilder) -> null);
-        return this.findAll(specification);
+        if (context.getStartTimestampFrom() != null) {
+            var startTimestampFrom = Instant.ofEpochMilli(context.getStartTimestampFrom());
+            specifications.add((root, query, builder) -> builder.greaterThanOrEqualTo(root.get("startTimestamp"), startTimestampFrom));
+        }
+        if (context.getStartTimestampTo() != null) {
+            var startTimestampTo = Instant.ofEpochMilli(context.getStartTimestampTo());
+            specifications.add((root, query, builder) -> builder.lessThan(root.get("startTimestamp"), startTimestampTo));
+        }
+        return specifications;
     }
 }
@@ -2,14 +2,18 @@ package drift.repository;
 
 import drift.model.Discipline;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import java.util.Collection;
 
 @Data
-public class TrainingsSearchContext {
+@EqualsAndHashCode(callSuper = true)
+public class TrainingsSearchContext extends SearchContext {
     private Collection<String> trainingIds;
     private Collection<String> ownerIds;
     private Collection<String> organisationIds;
     private Collection<Discipline> disciplines;
     private Boolean active;
+    private Long startTimestampFrom;
+    private Long startTimestampTo;
 }
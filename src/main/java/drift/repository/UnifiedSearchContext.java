@@ -0,0 +1,13 @@
+package drift.repository;
+
+import lombok.Data;
+
+@Data
+public class UnifiedSearchContext {
+    private UsersSearchContext users;
+    private CarsSearchContext cars;
+    private OrganisationsSearchContext organisations;
+    private ChampionshipsSearchContext championships;
+    private ChampionshipStagesSearchContext championshipStages;
+    private TrainingsSearchContext trainings;
+}
@@ -1,16 +1,22 @@
 package drift.repository;
 
+import drift.dto.UserDto;
 import drift.model.User;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, String>, JpaSpecificationExecutor<User> {
+public interface UserRepository extends KeysetSearchRepository<User> {
+
+    SearchKeyset<User, UserDto> USER_KEYSET = SearchKeyset.byId(UserDto::getId);
+    Set<String> USER_FACETS = Set.of("active");
 
     Optional<User> findByEmail(String email);
 
@@ -18,7 +24,23 @@ public interface UserRepository extends JpaRepository<User, String>, JpaSpecific
 
     Optional<User> findByIdAndActive(String id, boolean active);
 
-    default Collection<User> search(UsersSearchContext context) {
+    <T> Optional<T> findByIdAndActive(String id, boolean active, Class<T> projection);
+
+    <T> List<T> findAllByIdInAndActive(Collection<String> ids, boolean active, Class<T> projection);
+
+    default SearchPage<UserDto> search(UsersSearchContext context) {
+        return search(getSpecifications(context), context, USER_KEYSET, UserDto.class);
+    }
+
+    default Stream<UserDto> stream(UsersSearchContext context) {
+        return stream(getSpecifications(context), USER_KEYSET, UserDto.class);
+    }
+
+    default Map<String, Long> countBy(UsersSearchContext context, String facet) {
+        return countBy(getSpecifications(context), facet, USER_FACETS);
+    }
+
+    private List<Specification<User>> getSpecifications(UsersSearchContext context) {
         var specifications = new ArrayList<Specification<User>>();
         if (CollectionUtils.isNotEmpty(context.getUserIds())) {
             specifications.add((root, query, builder) -> root.get("id").in(context.getUserIds()));
@@ -26,9 +48,6 @@ public interface UserRepository extends JpaRepository<User, String>, JpaSpecific
         if (context.getActive() != null) {
             specifications.add((root, query, builder) -> builder.equal(root.get("active"), context.getActive()));
         }
-        var specification = specifications.stream()
-                .reduce(Specification::and)
-                .orElseGet(() -> (root, query, criteriaBuilder) -> null);
-        return this.findAll(specification);
+        return specifications;
     }
 }
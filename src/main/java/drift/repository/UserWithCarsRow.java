@@ -0,0 +1,31 @@
+package drift.repository;
+
+public interface UserWithCarsRow {
+
+    String getUserId();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getCountryCode();
+
+    String getCity();
+
+    String getImage();
+
+    // Note: MariaDB returns BOOLEAN columns of native queries as TINYINT.
+    Integer getActive();
+
+    String getCarId();
+
+    String getCarBrand();
+
+    String getCarModel();
+
+    Double getCarPower();
+
+    String getCarImage();
+}
@@ -1,11 +1,13 @@
 package drift.repository;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import java.util.Collection;
 
 @Data
-public class UsersSearchContext {
+@EqualsAndHashCode(callSuper = true)
+public class UsersSearchContext extends SearchContext {
     private Collection<String> userIds;
     private Boolean active;
 }
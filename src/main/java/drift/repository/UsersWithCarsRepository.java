@@ -0,0 +1,71 @@
+package drift.repository;
+
+import drift.dto.CarDto;
+import drift.dto.UserDto;
+import drift.dto.UserWithCarsDto;
+import drift.exception.ValidationException;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+@NoRepositoryBean
+public interface UsersWithCarsRepository<T> extends Repository<T, String> {
+
+    // Note: implementations select a page of user ids into a derived table, so the limit applies to users
+    // rather than to joined rows, and then join users with their active cars in the same query.
+    String SELECT_USERS_WITH_CARS = "SELECT u.id AS userId, u.email AS email, u.first_name AS firstName, " +
+            "u.last_name AS lastName, u.country_code AS countryCode, u.city AS city, u.image AS image, u.active AS active, " +
+            "c.id AS carId, c.brand AS carBrand, c.model AS carModel, c.power AS carPower, c.image AS carImage FROM (";
+    String JOIN_USERS_WITH_CARS = ") page JOIN users u ON u.id = page.user_id " +
+            "LEFT JOIN cars c ON c.owner_id = u.id AND c.active = TRUE ORDER BY u.id, c.id";
+
+    List<UserWithCarsRow> findAllUsersWithCars(String parentId, String afterUserId, int limit);
+
+    default SearchPage<UserWithCarsDto> searchUsersWithCars(String parentId, UsersWithCarsSearchContext context) {
+        var limit = KeysetSearchRepository.getLimit(context);
+        var afterUserId = context.getCursor() != null ? decode(context.getCursor()) : "";
+        // Note: one extra user is fetched to find out whether the next page exists without a count query.
+        var rows = findAllUsersWithCars(parentId, afterUserId, limit + 1);
+        var items = new ArrayList<UserWithCarsDto>();
+        for (var row : rows) {
+            var last = items.isEmpty() ? null : items.get(items.size() - 1);
+            if (last == null || !last.getUser().getId().equals(row.getUserId())) {
+                if (items.size() == limit) {
+                    return new SearchPage<>(items, encode(last.getUser().getId()));
+                }
+                last = new UserWithCarsDto(toUser(row), new ArrayList<>());
+                items.add(last);
+            }
+            if (row.getCarId() != null) {
+                last.getCars().add(toCar(row));
+            }
+        }
+        return new SearchPage<>(items, null);
+    }
+
+    private static UserDto toUser(UserWithCarsRow row) {
+        return new UserDto(row.getUserId(), row.getEmail(), row.getFirstName(), row.getLastName(),
+                row.getCountryCode(), row.getCity(), row.getImage(), Integer.valueOf(1).equals(row.getActive()));
+    }
+
+    private static CarDto toCar(UserWithCarsRow row) {
+        return new CarDto(row.getCarId(), row.getUserId(), row.getCarBrand(), row.getCarModel(), row.getCarPower(),
+                row.getCarImage(), true);
+    }
+
+    private static String encode(String userId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(userId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Wrong cursor");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package drift.repository;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class UsersWithCarsSearchContext extends SearchContext {
+}
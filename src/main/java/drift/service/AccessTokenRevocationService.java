@@ -0,0 +1,63 @@
+package drift.service;
+
+import drift.model.AccessTokenRevocation;
+import drift.repository.AccessTokenRevocationRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static drift.service.Transactions.afterCommit;
+
+@Transactional
+public class AccessTokenRevocationService {
+
+    // Note: revocations are re-read with this overlap, so rows committed late or by nodes with a lagging clock
+    // are not skipped by the incremental refresh.
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final AccessTokenRevocationRepository accessTokenRevocationRepository;
+    private final AccessTokenRevocations accessTokenRevocations;
+    private final Clock clock;
+    private final Duration tokenTtl;
+    private volatile Instant refreshedNotBefore;
+
+    public AccessTokenRevocationService(
+            AccessTokenRevocationRepository accessTokenRevocationRepository,
+            AccessTokenRevocations accessTokenRevocations,
+            Clock clock,
+            long tokenTtlInMillis
+    ) {
+        this.accessTokenRevocationRepository = accessTokenRevocationRepository;
+        this.accessTokenRevocations = accessTokenRevocations;
+        this.clock = clock;
+        this.tokenTtl = Duration.ofMillis(tokenTtlInMillis);
+        this.refreshedNotBefore = clock.instant().minus(tokenTtl);
+    }
+
+    public void revokeAccessTokens(String userId) {
+        // Note: access tokens carry issue time in milliseconds, so every token issued before the revocation is rejected
+        // while a token issued right after a password change, even within the same second, stays valid.
+        var notBefore = clock.instant().truncatedTo(ChronoUnit.MILLIS);
+        accessTokenRevocationRepository.save(new AccessTokenRevocation(userId, notBefore));
+        afterCommit(() -> accessTokenRevocations.put(userId, notBefore));
+    }
+
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${security.token-revocation-refresh-interval-in-millis}")
+    public void refresh() {
+        var revocations = accessTokenRevocationRepository.findAllByNotBeforeGreaterThanEqual(
+                refreshedNotBefore.minus(REFRESH_OVERLAP));
+        for (var revocation : revocations) {
+            accessTokenRevocations.put(revocation.getUserId(), revocation.getNotBefore());
+            if (revocation.getNotBefore().isAfter(refreshedNotBefore)) {
+                refreshedNotBefore = revocation.getNotBefore();
+            }
+        }
+        // Note: every access token issued before this moment is already expired, so older revocations are not needed.
+        accessTokenRevocations.removeOlderThan(clock.instant().minus(tokenTtl));
+    }
+}
@@ -0,0 +1,55 @@
+package drift.service;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class AccessTokenRevocations {
+
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private final int expectedRevocations;
+    private final Map<String, Instant> notBeforeByUserId = new ConcurrentHashMap<>();
+    // Note: the filter screens out users without revocations before the exact map is hashed into,
+    // it is rebuilt only when expired revocations are removed because bloom filter entries cannot be deleted.
+    private volatile BloomFilter<CharSequence> revokedUserIds;
+
+    public AccessTokenRevocations(int expectedRevocations) {
+        this.expectedRevocations = expectedRevocations;
+        this.revokedUserIds = createFilter(expectedRevocations);
+    }
+
+    public boolean isRevoked(String userId, long issuedAtMillis) {
+        if (!revokedUserIds.mightContain(userId)) {
+            return false;
+        }
+        var notBefore = notBeforeByUserId.get(userId);
+        return notBefore != null && issuedAtMillis < notBefore.toEpochMilli();
+    }
+
+    public synchronized void put(String userId, Instant notBefore) {
+        notBeforeByUserId.merge(userId, notBefore, (current, updated) -> updated.isAfter(current) ? updated : current);
+        revokedUserIds.put(userId);
+    }
+
+    public synchronized void removeOlderThan(Instant threshold) {
+        if (notBeforeByUserId.values().removeIf(notBefore -> notBefore.isBefore(threshold))) {
+            var filter = createFilter(Math.max(expectedRevocations, 2 * notBeforeByUserId.size()));
+            notBeforeByUserId.keySet().forEach(filter::put);
+            revokedUserIds = filter;
+        }
+    }
+
+    public synchronized void clear() {
+        notBeforeByUserId.clear();
+        revokedUserIds = createFilter(expectedRevocations);
+    }
+
+    private static BloomFilter<CharSequence> createFilter(int expectedInsertions) {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedInsertions, FALSE_POSITIVE_PROBABILITY);
+    }
+}
@@ -0,0 +1,34 @@
+package drift.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public final class Caches {
+
+    private Caches() {
+    }
+
+    // Note: node-local caches are evicted after commit on the node which makes the change only,
+    // so their entries expire after a short time to let other nodes pick up the change as well.
+    public static <K, V> Cache<K, V> expiringCache(long maxSize, long ttlInMillis) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlInMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    public static <K, V> V getOrLoad(Cache<K, V> cache, K key, Supplier<V> loader) {
+        try {
+            return cache.get(key, loader::get);
+        } catch (UncheckedExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -11,6 +11,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.util.function.Supplier;
 
+import static drift.service.Transactions.afterCommit;
+
 @Transactional
 @RequiredArgsConstructor
 public class CarService {
@@ -18,19 +20,23 @@ public class CarService {
     private final IdGenerator idGenerator;
     private final SecurityService securityService;
     private final CarRepository carRepository;
+    private final RoleService roleService;
     private final FileService fileService;
 
     public String registerCar(CarRegistrationDto dto) {
-        return carRepository.save(
+        var ownerId = securityService.getRequesterId();
+        var carId = carRepository.save(
                 Car.builder()
                         .id(idGenerator.generate())
-                        .ownerId(securityService.getRequesterId())
+                        .ownerId(ownerId)
                         .brand(dto.getBrand())
                         .model(dto.getModel())
                         .power(dto.getPower())
                         .active(true)
                         .build()
         ).getId();
+        afterCommit(() -> roleService.evictRoles(ownerId));
+        return carId;
     }
 
     public void updateCar(String carId, CarUpdateDto dto) {
@@ -41,6 +47,7 @@ public class CarService {
     public void deactivateCar(String carId) {
         var car = getRequesterCar(carId);
         carRepository.save(car.toBuilder().active(false).build());
+        afterCommit(() -> roleService.evictRoles(car.getOwnerId()));
     }
 
     public void uploadImage(String carId, MultipartFile image) {
@@ -3,11 +3,17 @@ package drift.service;
 import drift.dto.ChampionshipCreationDto;
 import drift.model.Championship;
 import drift.repository.ChampionshipRepository;
+import drift.repository.ChampionshipStandingRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.function.Supplier;
 
+import static drift.service.Transactions.afterCommit;
+
 @Transactional
 @RequiredArgsConstructor
 public class ChampionshipService {
@@ -16,6 +22,8 @@ public class ChampionshipService {
     private final SecurityService securityService;
     private final OrganisationService organisationService;
     private final ChampionshipRepository championshipRepository;
+    private final ChampionshipStandingRepository championshipStandingRepository;
+    private final ChampionshipStandingsCache championshipStandingsCache;
 
     public String createChampionship(ChampionshipCreationDto dto) {
         organisationService.getRequesterOrganisation(dto.getOrganisationId());
@@ -42,6 +50,25 @@ public class ChampionshipService {
         return championship;
     }
 
+    public void addStandingsPoints(String championshipId, Map<String, Double> pointsByUserId) {
+        championshipStandingRepository.addPoints(championshipId, pointsByUserId);
+        afterCommit(() -> championshipStandingsCache.evict(championshipId));
+    }
+
+    public Map<String, Double> getStandings(String championshipId) {
+        return championshipStandingsCache.getOrLoad(championshipId, () -> loadStandings(championshipId));
+    }
+
+    private Map<String, Double> loadStandings(String championshipId) {
+        if (!championshipRepository.existsById(championshipId)) {
+            throw wrongChampionshipIdException().get();
+        }
+        var standings = new LinkedHashMap<String, Double>();
+        championshipStandingRepository.findAllByChampionshipIdOrderByPointsDescUserIdAsc(championshipId)
+                .forEach(standing -> standings.put(standing.getUserId(), standing.getPoints()));
+        return Collections.unmodifiableMap(standings);
+    }
+
     private Supplier<IllegalArgumentException> wrongChampionshipIdException() {
         return () -> new IllegalArgumentException("Wrong championship id");
     }
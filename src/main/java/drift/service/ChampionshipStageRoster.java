@@ -0,0 +1,36 @@
+package drift.service;
+
+import drift.model.ChampionshipStageJudge;
+import drift.model.ChampionshipStageParticipant;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class ChampionshipStageRoster {
+
+    private final Set<String> judgeUserIds;
+    private final Set<String> participantUserIds;
+
+    private ChampionshipStageRoster(Set<String> judgeUserIds, Set<String> participantUserIds) {
+        this.judgeUserIds = judgeUserIds;
+        this.participantUserIds = participantUserIds;
+    }
+
+    public static ChampionshipStageRoster of(
+            Collection<ChampionshipStageJudge> judges,
+            Collection<ChampionshipStageParticipant> participants
+    ) {
+        return new ChampionshipStageRoster(
+                judges.stream().map(ChampionshipStageJudge::getUserId).collect(Collectors.toSet()),
+                participants.stream().map(ChampionshipStageParticipant::getUserId).collect(Collectors.toSet()));
+    }
+
+    public boolean hasJudge(String userId) {
+        return judgeUserIds.contains(userId);
+    }
+
+    public boolean hasParticipant(String userId) {
+        return participantUserIds.contains(userId);
+    }
+}
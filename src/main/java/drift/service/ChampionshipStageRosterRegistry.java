@@ -0,0 +1,34 @@
+package drift.service;
+
+import com.google.common.cache.Cache;
+
+import java.util.function.Supplier;
+
+import static drift.service.Caches.expiringCache;
+
+public class ChampionshipStageRosterRegistry {
+
+    private final Cache<String, ChampionshipStageRoster> rosters;
+
+    // Note: the stage version is not used to refresh rosters, because it is also incremented
+    // by every qualification score update.
+    public ChampionshipStageRosterRegistry(long maxSize, long ttlInMillis) {
+        this.rosters = expiringCache(maxSize, ttlInMillis);
+    }
+
+    public ChampionshipStageRoster getOrLoad(String championshipStageId, Supplier<ChampionshipStageRoster> loader) {
+        return Caches.getOrLoad(rosters, championshipStageId, loader);
+    }
+
+    public void put(String championshipStageId, ChampionshipStageRoster roster) {
+        rosters.put(championshipStageId, roster);
+    }
+
+    public void evict(String championshipStageId) {
+        rosters.invalidate(championshipStageId);
+    }
+
+    public void clear() {
+        rosters.invalidateAll();
+    }
+}
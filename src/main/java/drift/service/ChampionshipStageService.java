@@ -1,37 +1,57 @@
 package drift.service;
 
+import drift.dto.BattleDto;
+import drift.dto.BattleResultDto;
 import drift.dto.ChampionshipStageCreationDto;
 import drift.dto.ChampionshipStageUpdateDto;
+import drift.dto.QualificationResultStatus;
+import drift.dto.QualificationResultsBatchDto;
 import drift.dto.QualificationResultsDto;
+import drift.dto.UserWithCarsDto;
 import drift.model.*;
+import drift.repository.ChampionshipStageBracketRepository;
 import drift.repository.ChampionshipStageJudgeRepository;
 import drift.repository.ChampionshipStageParticipantRepository;
+import drift.repository.ChampionshipStageQualificationScoreRepository;
 import drift.repository.ChampionshipStageRepository;
+import drift.repository.SearchPage;
+import drift.repository.UsersWithCarsSearchContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static drift.service.Transactions.afterCommit;
+
 @Transactional
 @RequiredArgsConstructor
 public class ChampionshipStageService {
 
+    private static final Duration QUALIFICATION_RESULTS_STREAM_TIMEOUT = Duration.ofHours(1);
+
     private final IdGenerator idGenerator;
     private final SecurityService securityService;
     private final ChampionshipService championshipService;
+    private final ScoringSystemService scoringSystemService;
     private final UserService userService;
     private final ChampionshipStageRepository championshipStageRepository;
     private final ChampionshipStageParticipantRepository championshipStageParticipantRepository;
     private final ChampionshipStageJudgeRepository championshipStageJudgeRepository;
+    private final ChampionshipStageQualificationScoreRepository championshipStageQualificationScoreRepository;
+    private final ChampionshipStageBracketRepository championshipStageBracketRepository;
     private final FileService fileService;
+    private final QualificationLeaderboardRegistry qualificationLeaderboardRegistry;
+    private final QualificationResultsBroadcaster qualificationResultsBroadcaster;
+    private final PairsRacesBracketRegistry pairsRacesBracketRegistry;
+    private final ChampionshipStageRosterRegistry championshipStageRosterRegistry;
 
     public String createChampionshipStage(ChampionshipStageCreationDto dto) {
         championshipService.getRequesterChampionship(dto.getChampionshipId());
@@ -68,6 +88,8 @@ public class ChampionshipStageService {
                         .attempts(dto.getAttempts())
                         .omt(dto.getOmt())
                         .build());
+        championshipStageRepository.incrementVersion(championshipStageId);
+        afterCommit(() -> qualificationLeaderboardRegistry.evict(championshipStageId));
     }
 
     public void deactivateChampionshipStage(String championshipStageId) {
@@ -96,19 +118,40 @@ public class ChampionshipStageService {
                         .championshipStageId(championshipStageId)
                         .userId(userId)
                         .build());
+        var version = championshipStageRepository.incrementVersion(championshipStageId);
+        afterCommit(() -> {
+            championshipStageRosterRegistry.evict(championshipStageId);
+            qualificationLeaderboardRegistry.update(championshipStageId, version, leaderboard -> leaderboard.add(userId));
+        });
     }
 
     public void deleteParticipant(String championshipStageId) {
         getChampionshipStage(championshipStageId);
         var userId = securityService.getRequesterId();
         championshipStageParticipantRepository.deleteByChampionshipStageIdAndUserId(championshipStageId, userId);
+        championshipStageQualificationScoreRepository.deleteAllByChampionshipStageIdAndParticipantUserId(championshipStageId, userId);
+        var version = championshipStageRepository.incrementVersion(championshipStageId);
+        afterCommit(() -> {
+            championshipStageRosterRegistry.evict(championshipStageId);
+            qualificationLeaderboardRegistry.update(championshipStageId, version, leaderboard -> leaderboard.remove(userId));
+            publishQualificationResults(championshipStageId, version, List.of(userId));
+        });
+    }
+
+    // Note: the version is incremented in the same transaction as every change of participants, judges
+    // and qualification scores of the stage, so it identifies the state of all of them.
+    public long getVersion(String championshipStageId) {
+        return championshipStageRepository.findVersion(championshipStageId).orElseThrow(wrongChampionshipStageIdException());
     }
 
     public Collection<String> getParticipants(String championshipStageId) {
-        getChampionshipStage(championshipStageId);
-        return championshipStageParticipantRepository.findAllByChampionshipStageId(championshipStageId).stream()
-                .map(ChampionshipStageParticipant::getUserId)
-                .collect(Collectors.toSet());
+        validateChampionshipStageExists(championshipStageId);
+        return new HashSet<>(championshipStageParticipantRepository.findAllUserIdsByChampionshipStageId(championshipStageId));
+    }
+
+    public SearchPage<UserWithCarsDto> getParticipants(String championshipStageId, UsersWithCarsSearchContext context) {
+        validateChampionshipStageExists(championshipStageId);
+        return championshipStageParticipantRepository.searchUsersWithCars(championshipStageId, context);
     }
 
     public void assignJudges(String championshipStageId, Collection<String> userIds) {
@@ -116,32 +159,52 @@ public class ChampionshipStageService {
         if (userIds.size() < 1 || userIds.size() > 3) {
             throw new IllegalArgumentException("Wrong number of judges");
         }
-        userIds.forEach(userService::getUser);
+        userService.getUsers(userIds);
         championshipStageJudgeRepository.deleteAllByChampionshipStageId(championshipStageId);
+        var ids = idGenerator.generate(userIds.size()).iterator();
         var judges = userIds.stream()
                 .map(userId ->
                         ChampionshipStageJudge.builder()
-                                .id(idGenerator.generate())
+                                .id(ids.next())
                                 .championshipStageId(championshipStageId)
                                 .userId(userId)
                                 .build())
                 .collect(Collectors.toList());
         championshipStageJudgeRepository.saveAll(judges);
+        var version = championshipStageRepository.incrementVersion(championshipStageId);
+        afterCommit(() -> {
+            championshipStageRosterRegistry.evict(championshipStageId);
+            // Note: judges do not affect the results, the leaderboard only has to keep up with the stage version.
+            qualificationLeaderboardRegistry.update(championshipStageId, version, leaderboard -> {});
+        });
     }
 
     public Collection<String> getJudges(String championshipStageId) {
-        getChampionshipStage(championshipStageId);
-        return championshipStageJudgeRepository.findAllByChampionshipStageId(championshipStageId).stream()
-                .map(ChampionshipStageJudge::getUserId)
-                .collect(Collectors.toSet());
+        validateChampionshipStageExists(championshipStageId);
+        return new HashSet<>(championshipStageJudgeRepository.findAllUserIdsByChampionshipStageId(championshipStageId));
+    }
+
+    public SearchPage<UserWithCarsDto> getJudges(String championshipStageId, UsersWithCarsSearchContext context) {
+        validateChampionshipStageExists(championshipStageId);
+        return championshipStageJudgeRepository.searchUsersWithCars(championshipStageId, context);
     }
 
     public void startQualification(String championshipStageId) {
         var championshipStage = getRequesterChampionshipStage(championshipStageId);
         validateBeforeQualificationStart(championshipStage);
-        initQualificationResults(championshipStage);
+        var judges = championshipStageJudgeRepository.findAllByChampionshipStageId(championshipStageId);
+        var participants = championshipStageParticipantRepository.findAllByChampionshipStageId(championshipStageId);
+        initQualificationResults(championshipStage, judges, participants);
+        var version = championshipStageRepository.incrementVersion(championshipStageId);
         championshipStageRepository.save(
                 championshipStage.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build());
+        var roster = ChampionshipStageRoster.of(judges, participants);
+        var leaderboard = buildQualificationLeaderboard(championshipStage, participants, List.of(), version);
+        afterCommit(() -> {
+            championshipStageRosterRegistry.put(championshipStageId, roster);
+            qualificationLeaderboardRegistry.put(championshipStageId, leaderboard);
+            publishQualificationResults(championshipStageId, version, leaderboard.getResults().keySet());
+        });
     }
 
     public void updateQualificationResults(String championshipStageId, QualificationResultsDto qualificationResults) {
@@ -149,32 +212,139 @@ public class ChampionshipStageService {
         var participantUserId = qualificationResults.getParticipantUserId();
         var judgeUserId = qualificationResults.getJudgeUserId();
         var attemptsPoints = qualificationResults.getAttemptsPoints();
-        championshipStageParticipantRepository.findByChampionshipStageIdAndUserId(championshipStageId, participantUserId)
-                .map(participant -> {
-                    participant.getQualificationResults().put(judgeUserId, attemptsPoints);
-                    return participant;
-                })
-                .map(championshipStageParticipantRepository::save)
-                .orElseThrow();
+        championshipStageQualificationScoreRepository.upsert(championshipStageId, judgeUserId, participantUserId, attemptsPoints);
+        var version = championshipStageRepository.incrementVersion(championshipStageId);
+        afterCommit(() -> {
+            qualificationLeaderboardRegistry.update(
+                    championshipStageId, version, leaderboard -> leaderboard.put(participantUserId, judgeUserId, attemptsPoints));
+            publishQualificationResults(championshipStageId, version, List.of(participantUserId));
+        });
+    }
+
+    public Map<String, QualificationResultStatus> updateQualificationResults(
+            String championshipStageId,
+            QualificationResultsBatchDto qualificationResults
+    ) {
+        var judgeUserId = qualificationResults.getJudgeUserId();
+        var championshipStage = getQualificationChampionshipStage(championshipStageId, judgeUserId);
+        var roster = getRoster(championshipStageId);
+        var statuses = new LinkedHashMap<String, QualificationResultStatus>();
+        var updatedAttemptsPoints = new LinkedHashMap<String, List<Double>>();
+        qualificationResults.getAttemptsPointsByParticipant().forEach((participantUserId, attemptsPoints) -> {
+            if (!roster.hasParticipant(participantUserId)) {
+                statuses.put(participantUserId, QualificationResultStatus.WRONG_PARTICIPANT_USER_ID);
+            } else if (!isValidAttemptsPoints(championshipStage, attemptsPoints)) {
+                statuses.put(participantUserId, QualificationResultStatus.WRONG_ATTEMPTS_POINTS);
+            } else {
+                statuses.put(participantUserId, QualificationResultStatus.UPDATED);
+                updatedAttemptsPoints.put(participantUserId, List.copyOf(attemptsPoints));
+            }
+        });
+        var scores = updatedAttemptsPoints.entrySet().stream()
+                .flatMap(participantAttemptsPoints -> IntStream.range(0, championshipStage.getAttempts())
+                        .mapToObj(attempt -> ChampionshipStageQualificationScore.builder()
+                                .championshipStageId(championshipStageId)
+                                .judgeUserId(judgeUserId)
+                                .participantUserId(participantAttemptsPoints.getKey())
+                                .attempt(attempt)
+                                .points(participantAttemptsPoints.getValue().get(attempt))
+                                .build()))
+                .collect(Collectors.toList());
+        if (!scores.isEmpty()) {
+            championshipStageQualificationScoreRepository.upsertAll(scores);
+            var version = championshipStageRepository.incrementVersion(championshipStageId);
+            afterCommit(() -> {
+                qualificationLeaderboardRegistry.update(
+                        championshipStageId,
+                        version,
+                        leaderboard -> updatedAttemptsPoints.forEach((participantUserId, attemptsPoints) ->
+                                leaderboard.put(participantUserId, judgeUserId, attemptsPoints)));
+                publishQualificationResults(championshipStageId, version, updatedAttemptsPoints.keySet());
+            });
+        }
+        return statuses;
     }
 
     public Map<String, List<Double>> getQualificationResults(String championshipStageId, String judgeUserId) {
         getChampionshipStage(championshipStageId);
-        if (!championshipStageJudgeRepository.existsByChampionshipStageIdAndUserId(championshipStageId, judgeUserId)) {
+        if (!getRoster(championshipStageId).hasJudge(judgeUserId)) {
             throw new IllegalArgumentException("Wrong judge user id");
         }
-        return championshipStageParticipantRepository.findAllByChampionshipStageId(championshipStageId).stream()
-                .collect(Collectors.toMap(
-                        ChampionshipStageParticipant::getUserId,
-                        participant -> participant.getQualificationResults().get(judgeUserId)));
+        return championshipStageQualificationScoreRepository.findAllByChampionshipStageIdAndJudgeUserId(championshipStageId, judgeUserId).stream()
+                .sorted(Comparator.comparing(ChampionshipStageQualificationScore::getAttempt))
+                .collect(Collectors.groupingBy(
+                        ChampionshipStageQualificationScore::getParticipantUserId,
+                        Collectors.mapping(ChampionshipStageQualificationScore::getPoints, Collectors.toList())));
     }
 
     public Map<String, Double> getQualificationResults(String championshipStageId) {
-        var championshipStage = getChampionshipStage(championshipStageId);
-        return championshipStageParticipantRepository.findAllByChampionshipStageId(championshipStageId).stream()
-                .collect(Collectors.toMap(
-                        ChampionshipStageParticipant::getUserId,
-                        participant -> calculateBestAttemptResult(participant, championshipStage)));
+        return getQualificationResults(championshipStageId, getVersion(championshipStageId));
+    }
+
+    // Note: the version has to be read before the call, so a leaderboard loaded together with a concurrent change
+    // is labelled with the older version and brought up to date by the change itself.
+    public Map<String, Double> getQualificationResults(String championshipStageId, long version) {
+        return getQualificationLeaderboard(championshipStageId, version).getResults();
+    }
+
+    public SseEmitter subscribeToQualificationResults(String championshipStageId) {
+        var emitter = new SseEmitter(QUALIFICATION_RESULTS_STREAM_TIMEOUT.toMillis());
+        qualificationResultsBroadcaster.subscribe(
+                championshipStageId, emitter, () -> getQualificationResults(championshipStageId));
+        return emitter;
+    }
+
+    public void startPairsRaces(String championshipStageId) {
+        var championshipStage = getRequesterChampionshipStage(championshipStageId);
+        if (!ChampionshipStagePhase.QUALIFICATION.equals(championshipStage.getPhase())) {
+            throw new IllegalArgumentException("Pairs races can be started from QUALIFICATION phase only");
+        }
+        var championship = championshipService.getRequesterChampionship(championshipStage.getChampionshipId());
+        var scoringSystem = scoringSystemService.getScoringSystem(championship.getScoringSystemId());
+        var qualifiedUserIds = getQualificationResults(championshipStageId).keySet().stream()
+                .limit(scoringSystem.getParticipantsAfterQualification())
+                .collect(Collectors.toList());
+        var bracket = PairsRacesBracket.seed(qualifiedUserIds, championshipStage.getOmt());
+        championshipStageRepository.save(
+                championshipStage.toBuilder().phase(ChampionshipStagePhase.PAIRS_RACES).build());
+        saveBracket(championshipStageId, bracket);
+    }
+
+    public void updateBattleResult(String championshipStageId, int battle, BattleResultDto battleResult) {
+        var championshipStage = getRequesterChampionshipStage(championshipStageId);
+        if (!ChampionshipStagePhase.PAIRS_RACES.equals(championshipStage.getPhase())) {
+            throw new IllegalArgumentException("Battle results can be updated during PAIRS_RACES phase only");
+        }
+        var bracket = getCurrentPairsRacesBracket(championshipStageId);
+        var updatedBracket = battleResult.isOmt()
+                ? bracket.withOmt(battle)
+                : bracket.withWinner(battle, battleResult.getWinnerUserId());
+        if (updatedBracket.isCompleted()) {
+            championshipStageRepository.save(
+                    championshipStage.toBuilder().phase(ChampionshipStagePhase.FINALIZATION).build());
+            addStandingsPoints(championshipStage, updatedBracket);
+            afterCommit(() -> qualificationLeaderboardRegistry.evict(championshipStageId));
+        }
+        saveBracket(championshipStageId, updatedBracket);
+    }
+
+    public List<BattleDto> getBattles(String championshipStageId) {
+        return getPairsRacesBracket(championshipStageId).getBattles();
+    }
+
+    private void addStandingsPoints(ChampionshipStage championshipStage, PairsRacesBracket bracket) {
+        var championship = championshipService.getRequesterChampionship(championshipStage.getChampionshipId());
+        var scoringTable = ScoringTable.compile(scoringSystemService.getScoringSystem(championship.getScoringSystemId()));
+        var pointsByUserId = new HashMap<String, Double>();
+        var qualificationPlace = 0;
+        for (var userId : getQualificationResults(championshipStage.getId()).keySet()) {
+            pointsByUserId.put(userId, scoringTable.getParticipationPoints() + scoringTable.getQualificationPoints(++qualificationPlace));
+        }
+        var place = 0;
+        for (var userId : bracket.getPlaces()) {
+            pointsByUserId.merge(userId, scoringTable.getPoints(++place), Double::sum);
+        }
+        championshipService.addStandingsPoints(championship.getId(), pointsByUserId);
     }
 
     private void validateBeforeQualificationStart(ChampionshipStage championshipStage) {
@@ -189,46 +359,127 @@ public class ChampionshipStageService {
         }
     }
 
-    private void initQualificationResults(ChampionshipStage championshipStage) {
-        var judges = championshipStageJudgeRepository.findAllByChampionshipStageId(championshipStage.getId());
-        var attemptsPoints = Collections.nCopies(championshipStage.getAttempts(), 0d);
-        var participantsWithQualificationResults = championshipStageParticipantRepository.findAllByChampionshipStageId(championshipStage.getId()).stream()
-                .map(participant -> {
-                    var qualificationResults = judges.stream()
-                            .collect(Collectors.toMap(ChampionshipStageJudge::getUserId, judge -> attemptsPoints));
-                    return participant.toBuilder().qualificationResults(qualificationResults).build();
-                })
+    private void initQualificationResults(
+            ChampionshipStage championshipStage,
+            Collection<ChampionshipStageJudge> judges,
+            Collection<ChampionshipStageParticipant> participants
+    ) {
+        var initialScores = participants.stream()
+                .flatMap(participant -> judges.stream()
+                        .flatMap(judge -> IntStream.range(0, championshipStage.getAttempts())
+                                .mapToObj(attempt -> ChampionshipStageQualificationScore.builder()
+                                        .championshipStageId(championshipStage.getId())
+                                        .judgeUserId(judge.getUserId())
+                                        .participantUserId(participant.getUserId())
+                                        .attempt(attempt)
+                                        .points(0d)
+                                        .build())))
                 .collect(Collectors.toList());
-        championshipStageParticipantRepository.saveAll(participantsWithQualificationResults);
+        championshipStageQualificationScoreRepository.upsertAll(initialScores);
     }
 
     private void validateBeforeQualificationResultsUpdate(
             String championshipStageId,
             QualificationResultsDto qualificationResults
     ) {
+        var championshipStage = getQualificationChampionshipStage(championshipStageId, qualificationResults.getJudgeUserId());
+        if (!getRoster(championshipStageId).hasParticipant(qualificationResults.getParticipantUserId())) {
+            throw new IllegalArgumentException("Wrong participant user id");
+        }
+        if (!isValidAttemptsPoints(championshipStage, qualificationResults.getAttemptsPoints())) {
+            throw new IllegalArgumentException("Wrong attempts points");
+        }
+    }
+
+    private ChampionshipStage getQualificationChampionshipStage(String championshipStageId, String judgeUserId) {
         var championshipStage = getChampionshipStage(championshipStageId);
         if (!ChampionshipStagePhase.QUALIFICATION.equals(championshipStage.getPhase())) {
             throw new IllegalArgumentException("Qualification results can be updated during QUALIFICATION phase only");
         }
-        if (!championshipStageJudgeRepository.existsByChampionshipStageIdAndUserId(championshipStage.getId(), qualificationResults.getJudgeUserId())) {
+        if (!getRoster(championshipStageId).hasJudge(judgeUserId)) {
             throw new IllegalArgumentException("Wrong judge user id");
         }
-        if (!championshipStageParticipantRepository.existsByChampionshipStageIdAndUserId(championshipStage.getId(), qualificationResults.getParticipantUserId())) {
-            throw new IllegalArgumentException("Wrong participant user id");
+        return championshipStage;
+    }
+
+    private ChampionshipStageRoster getRoster(String championshipStageId) {
+        return championshipStageRosterRegistry.getOrLoad(championshipStageId, () -> ChampionshipStageRoster.of(
+                championshipStageJudgeRepository.findAllByChampionshipStageId(championshipStageId),
+                championshipStageParticipantRepository.findAllByChampionshipStageId(championshipStageId)));
+    }
+
+    private boolean isValidAttemptsPoints(ChampionshipStage championshipStage, List<Double> attemptsPoints) {
+        return attemptsPoints != null
+                && attemptsPoints.size() == championshipStage.getAttempts()
+                && attemptsPoints.stream().allMatch(Objects::nonNull);
+    }
+
+    private QualificationLeaderboard buildQualificationLeaderboard(
+            ChampionshipStage championshipStage,
+            Collection<ChampionshipStageParticipant> participants,
+            Collection<ChampionshipStageQualificationScore> scores,
+            long version
+    ) {
+        var participantUserIds = participants.stream()
+                .map(ChampionshipStageParticipant::getUserId)
+                .collect(Collectors.toSet());
+        var leaderboard = new QualificationLeaderboard(championshipStage.getAttempts(), version);
+        participantUserIds.forEach(leaderboard::add);
+        for (var score : scores) {
+            if (participantUserIds.contains(score.getParticipantUserId())) {
+                leaderboard.put(score.getParticipantUserId(), score.getJudgeUserId(), score.getAttempt(), score.getPoints());
+            }
         }
-        if (qualificationResults.getAttemptsPoints().size() != championshipStage.getAttempts()) {
-            throw new IllegalArgumentException("Wrong number of attempts");
+        return leaderboard;
+    }
+
+    private QualificationLeaderboard getQualificationLeaderboard(String championshipStageId, long version) {
+        return qualificationLeaderboardRegistry.getOrLoad(championshipStageId, version, () -> {
+            var championshipStage = getChampionshipStage(championshipStageId);
+            var participants = championshipStageParticipantRepository.findAllByChampionshipStageId(championshipStageId);
+            var scores = championshipStageQualificationScoreRepository.findAllByChampionshipStageId(championshipStageId);
+            return buildQualificationLeaderboard(championshipStage, participants, scores, version);
+        });
+    }
+
+    private PairsRacesBracket getPairsRacesBracket(String championshipStageId) {
+        return pairsRacesBracketRegistry.getOrLoad(championshipStageId, () -> loadPairsRacesBracket(championshipStageId));
+    }
+
+    // Note: battle results may be updated on another node, so the cached bracket is updated only if it has
+    // the persisted version, otherwise it is reloaded instead of failing on optimistic locking when saved.
+    private PairsRacesBracket getCurrentPairsRacesBracket(String championshipStageId) {
+        var version = championshipStageBracketRepository.findVersion(championshipStageId)
+                .orElseThrow(pairsRacesNotStartedException());
+        return pairsRacesBracketRegistry.getOrLoad(championshipStageId, version, () -> loadPairsRacesBracket(championshipStageId));
+    }
+
+    private PairsRacesBracket loadPairsRacesBracket(String championshipStageId) {
+        return championshipStageBracketRepository.findById(championshipStageId)
+                .map(PairsRacesBracket::from)
+                .orElseThrow(pairsRacesNotStartedException());
+    }
+
+    private void saveBracket(String championshipStageId, PairsRacesBracket bracket) {
+        ChampionshipStageBracket snapshot;
+        try {
+            snapshot = championshipStageBracketRepository.saveAndFlush(bracket.toSnapshot(championshipStageId));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            pairsRacesBracketRegistry.evict(championshipStageId);
+            throw e;
         }
+        var savedBracket = bracket.withVersion(snapshot.getVersion());
+        afterCommit(() -> pairsRacesBracketRegistry.put(championshipStageId, savedBracket));
     }
 
-    private Double calculateBestAttemptResult(ChampionshipStageParticipant participant, ChampionshipStage championshipStage) {
-        return IntStream.range(0, championshipStage.getAttempts())
-                .mapToObj(attemptIndex ->
-                        participant.getQualificationResults().values().stream()
-                                .map(attemptsPointsByJudge -> attemptsPointsByJudge.get(attemptIndex))
-                                .reduce(0d, Double::sum))
-                .max(Double::compareTo)
-                .orElseThrow();
+    private void publishQualificationResults(String championshipStageId, long version, Collection<String> participantUserIds) {
+        if (!qualificationResultsBroadcaster.hasSubscribers(championshipStageId)) {
+            return;
+        }
+        var results = getQualificationResults(championshipStageId, version);
+        var changes = new LinkedHashMap<String, Double>();
+        participantUserIds.forEach(participantUserId -> changes.put(participantUserId, results.get(participantUserId)));
+        qualificationResultsBroadcaster.publish(championshipStageId, changes);
     }
 
     private ChampionshipStage getRequesterChampionshipStage(String championshipStageId) {
@@ -241,10 +492,20 @@ public class ChampionshipStageService {
         return championshipStageRepository.findById(championshipStageId).orElseThrow(wrongChampionshipStageIdException());
     }
 
+    private void validateChampionshipStageExists(String championshipStageId) {
+        if (!championshipStageRepository.existsById(championshipStageId)) {
+            throw wrongChampionshipStageIdException().get();
+        }
+    }
+
     private Supplier<IllegalArgumentException> wrongChampionshipStageIdException() {
         return () -> new IllegalArgumentException("Wrong championship stage id");
     }
 
+    private Supplier<IllegalArgumentException> pairsRacesNotStartedException() {
+        return () -> new IllegalArgumentException("Pairs races are not started");
+    }
+
     private void validateBeforeUpdate(ChampionshipStage championshipStage) {
         var phase = championshipStage.getPhase();
         if (!ChampionshipStagePhase.CREATION.equals(phase)) {
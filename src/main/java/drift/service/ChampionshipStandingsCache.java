@@ -0,0 +1,29 @@
+package drift.service;
+
+import com.google.common.cache.Cache;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static drift.service.Caches.expiringCache;
+
+public class ChampionshipStandingsCache {
+
+    private final Cache<String, Map<String, Double>> standingsByChampionshipId;
+
+    public ChampionshipStandingsCache(long maxSize, long ttlInMillis) {
+        this.standingsByChampionshipId = expiringCache(maxSize, ttlInMillis);
+    }
+
+    public Map<String, Double> getOrLoad(String championshipId, Supplier<Map<String, Double>> loader) {
+        return Caches.getOrLoad(standingsByChampionshipId, championshipId, loader);
+    }
+
+    public void evict(String championshipId) {
+        standingsByChampionshipId.invalidate(championshipId);
+    }
+
+    public void clear() {
+        standingsByChampionshipId.invalidateAll();
+    }
+}
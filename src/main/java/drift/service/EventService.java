@@ -0,0 +1,62 @@
+package drift.service;
+
+import com.google.common.collect.Iterators;
+import drift.dto.EventDto;
+import drift.repository.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class EventService {
+
+    private static final SearchKeyset<?, EventDto> EVENT_KEYSET =
+            SearchKeyset.byStartTimestampAndId(EventDto::getStartTimestamp, EventDto::getId);
+    private static final Comparator<EventDto> EVENT_ORDER =
+            Comparator.comparing(EventDto::getStartTimestamp).thenComparing(EventDto::getId);
+
+    private final Clock clock;
+    private final ChampionshipStageRepository championshipStageRepository;
+    private final TrainingRepository trainingRepository;
+
+    public SearchPage<EventDto> searchForUpcomingEvents(EventsSearchContext context) {
+        var startTimestampFrom = context.getStartTimestampFrom() != null ? context.getStartTimestampFrom() : clock.millis();
+
+        var championshipStagesContext = new ChampionshipStagesSearchContext();
+        championshipStagesContext.setActive(true);
+        championshipStagesContext.setStartTimestampFrom(startTimestampFrom);
+        championshipStagesContext.setStartTimestampTo(context.getStartTimestampTo());
+        championshipStagesContext.setCursor(context.getCursor());
+        championshipStagesContext.setLimit(context.getLimit());
+        var championshipStages = championshipStageRepository.search(championshipStagesContext);
+
+        var trainingsContext = new TrainingsSearchContext();
+        trainingsContext.setActive(true);
+        trainingsContext.setStartTimestampFrom(startTimestampFrom);
+        trainingsContext.setStartTimestampTo(context.getStartTimestampTo());
+        trainingsContext.setCursor(context.getCursor());
+        trainingsContext.setLimit(context.getLimit());
+        var trainings = trainingRepository.search(trainingsContext);
+
+        // Note: both pages are index range scans ordered by (start timestamp, id) and ids are unique across
+        // stages and trainings, so the merged page is the first page of the feed and its cursor resumes both scans.
+        var events = Iterators.mergeSorted(
+                List.of(
+                        Iterators.transform(championshipStages.getItems().iterator(), EventDto::from),
+                        Iterators.transform(trainings.getItems().iterator(), EventDto::from)),
+                EVENT_ORDER);
+        var limit = KeysetSearchRepository.getLimit(context);
+        var pageEvents = new ArrayList<EventDto>(limit);
+        while (events.hasNext() && pageEvents.size() < limit) {
+            pageEvents.add(events.next());
+        }
+        var hasNextPage = events.hasNext() || championshipStages.getNextCursor() != null || trainings.getNextCursor() != null;
+        var nextCursor = hasNextPage ? EVENT_KEYSET.cursorOf(pageEvents.get(pageEvents.size() - 1)) : null;
+        return new SearchPage<>(pageEvents, nextCursor);
+    }
+}
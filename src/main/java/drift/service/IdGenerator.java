@@ -1,52 +1,81 @@
 package drift.service;
 
-import lombok.SneakyThrows;
-import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
-import java.util.UUID;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
-@Slf4j
 public class IdGenerator {
 
-    private static final int NUMBER_OF_IDS = 10;
-    private static final int ID_LENGTH = 8;
+    public static final int NODE_ID_BITS = 10;
+    public static final int MAX_NODE_ID = (1 << NODE_ID_BITS) - 1;
+
+    private static final long EPOCH_MILLIS = Instant.parse("2022-01-01T00:00:00Z").toEpochMilli();
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int MAX_BORROWED_MILLIS = 1;
+    private static final char[] ALPHABET = "0123456789abcdefghjkmnpqrstvwxyz".toCharArray();
+    private static final int ALPHABET_BITS = 5;
+    private static final int ID_LENGTH = 13;
 
-    private final BlockingQueue<String> ids;
-    private final ExecutorService executorService;
+    private final Clock clock;
+    private final long nodeId;
+    // Note: the last reserved (timestamp << SEQUENCE_BITS | sequence) pair, a sequence overflow borrows the next
+    // millisecond instead of waiting for it, but the generator never runs more than MAX_BORROWED_MILLIS ahead of
+    // the clock and spins until the clock catches up, so a restarted node can not reissue ids of the previous run.
+    private final AtomicLong lastState = new AtomicLong();
 
-    public IdGenerator() {
-        this.ids = generateIds();
-        this.executorService = Executors.newCachedThreadPool();
+    public IdGenerator(Clock clock, int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id should be between 0 and " + MAX_NODE_ID);
+        }
+        this.clock = clock;
+        this.nodeId = nodeId;
     }
 
-    @SneakyThrows
     public String generate() {
-        var id = ids.take();
-        executorService.submit(() -> {
-            try {
-                ids.put(newId());
-            } catch (Exception e) {
-                log.error("### Failed to add new id to queue", e);
-            }
-        });
-        return id;
+        return toId(reserve(1));
     }
 
-    @SneakyThrows
-    private BlockingQueue<String> generateIds() {
-        var queueOfIds = new ArrayBlockingQueue<String>(NUMBER_OF_IDS);
-        for (var i = 0; i < NUMBER_OF_IDS; i++) {
-            queueOfIds.put(newId());
+    public List<String> generate(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Number of ids should be positive");
+        }
+        if (n > SEQUENCE_MASK + 1) {
+            throw new IllegalArgumentException("Number of ids should not exceed " + (SEQUENCE_MASK + 1));
+        }
+        var lastReservedState = reserve(n);
+        var ids = new ArrayList<String>(n);
+        for (var state = lastReservedState - n + 1; state <= lastReservedState; state++) {
+            ids.add(toId(state));
         }
-        return queueOfIds;
+        return ids;
     }
 
-    private String newId() {
-        return StringUtils.truncate(UUID.randomUUID().toString(), ID_LENGTH);
+    private long reserve(int n) {
+        while (true) {
+            var currentTimestamp = clock.millis() - EPOCH_MILLIS;
+            var previousState = lastState.get();
+            var state = Math.max(previousState, (currentTimestamp << SEQUENCE_BITS) - 1) + n;
+            if ((state >>> SEQUENCE_BITS) - currentTimestamp > MAX_BORROWED_MILLIS) {
+                Thread.onSpinWait();
+            } else if (lastState.compareAndSet(previousState, state)) {
+                return state;
+            }
+        }
+    }
+
+    // Note: 41 bits of milliseconds, 10 bits of node id and 12 bits of sequence are encoded as fixed length
+    // base32 with ascending alphabet, so ids sort as strings in generation order and keep primary key inserts local.
+    private String toId(long state) {
+        var timestamp = state >>> SEQUENCE_BITS;
+        var value = (timestamp << (NODE_ID_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (state & SEQUENCE_MASK);
+        var id = new char[ID_LENGTH];
+        for (var index = ID_LENGTH - 1; index >= 0; index--) {
+            id[index] = ALPHABET[(int) (value & (ALPHABET.length - 1))];
+            value >>>= ALPHABET_BITS;
+        }
+        return new String(id);
     }
 }
@@ -11,6 +11,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.util.function.Supplier;
 
+import static drift.service.Transactions.afterCommit;
+
 @Transactional
 @RequiredArgsConstructor
 public class OrganisationService {
@@ -18,18 +20,22 @@ public class OrganisationService {
     private final IdGenerator idGenerator;
     private final SecurityService securityService;
     private final OrganisationRepository organisationRepository;
+    private final RoleService roleService;
     private final FileService fileService;
 
     public String registerOrganisation(OrganisationRegistrationDto dto) {
-        return organisationRepository.save(
+        var ownerId = securityService.getRequesterId();
+        var organisationId = organisationRepository.save(
                 Organisation.builder()
                         .id(idGenerator.generate())
-                        .ownerId(securityService.getRequesterId())
+                        .ownerId(ownerId)
                         .name(dto.getName())
                         .description(dto.getDescription())
                         .active(true)
                         .build()
         ).getId();
+        afterCommit(() -> roleService.evictRoles(ownerId));
+        return organisationId;
     }
 
     public void updateOrganisation(String organisationId, OrganisationUpdateDto dto) {
@@ -40,6 +46,7 @@ public class OrganisationService {
     public void deactivateOrganisation(String organisationId) {
         var organisation = getRequesterOrganisation(organisationId);
         organisationRepository.save(organisation.toBuilder().active(false).build());
+        afterCommit(() -> roleService.evictRoles(organisation.getOwnerId()));
     }
 
     public void uploadImage(String organisationId, MultipartFile image) {
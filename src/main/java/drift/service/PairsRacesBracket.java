@@ -0,0 +1,176 @@
+package drift.service;
+
+import drift.dto.BattleDto;
+import drift.model.ChampionshipStageBracket;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class PairsRacesBracket {
+
+    private static final int EMPTY = -1;
+
+    private final String[] participantUserIds;
+    private final int size;
+    // Note: heap layout - battle n is held between slots 2n and 2n + 1 and its winner is stored in slot n,
+    // battle 1 is the final and slots [size, 2 * size) are seeded with qualification places (EMPTY for bye).
+    private final int[] slots;
+    private final int[] omtCounts;
+    private final int omt;
+    private final Long version;
+
+    private PairsRacesBracket(String[] participantUserIds, int[] slots, int[] omtCounts, int omt, Long version) {
+        this.participantUserIds = participantUserIds;
+        this.size = slots.length / 2;
+        this.slots = slots;
+        this.omtCounts = omtCounts;
+        this.omt = omt;
+        this.version = version;
+    }
+
+    public static PairsRacesBracket seed(List<String> qualifiedUserIds, int omt) {
+        if (qualifiedUserIds.size() < 2) {
+            throw new IllegalArgumentException("Not enough participants for pairs races");
+        }
+        var size = Integer.highestOneBit(qualifiedUserIds.size() - 1) << 1;
+        var slots = new int[2 * size];
+        Arrays.fill(slots, EMPTY);
+        var seeds = seedOrder(size);
+        for (var position = 0; position < size; position++) {
+            var place = seeds[position] - 1;
+            slots[size + position] = place < qualifiedUserIds.size() ? place : EMPTY;
+        }
+        for (var battle = size / 2; battle < size; battle++) {
+            if (slots[2 * battle + 1] == EMPTY) {
+                slots[battle] = slots[2 * battle];
+            }
+        }
+        return new PairsRacesBracket(qualifiedUserIds.toArray(String[]::new), slots, new int[size], omt, null);
+    }
+
+    public static PairsRacesBracket from(ChampionshipStageBracket snapshot) {
+        return new PairsRacesBracket(
+                snapshot.getParticipantUserIds().toArray(String[]::new),
+                snapshot.getSlots().stream().mapToInt(Integer::intValue).toArray(),
+                snapshot.getOmtCounts().stream().mapToInt(Integer::intValue).toArray(),
+                snapshot.getOmt(),
+                snapshot.getVersion());
+    }
+
+    public ChampionshipStageBracket toSnapshot(String championshipStageId) {
+        return ChampionshipStageBracket.builder()
+                .championshipStageId(championshipStageId)
+                .participantUserIds(List.of(participantUserIds))
+                .slots(Arrays.stream(slots).boxed().collect(Collectors.toList()))
+                .omtCounts(Arrays.stream(omtCounts).boxed().collect(Collectors.toList()))
+                .omt(omt)
+                .version(version)
+                .build();
+    }
+
+    public PairsRacesBracket withWinner(int battle, String winnerUserId) {
+        validatePendingBattle(battle);
+        var updatedSlots = slots.clone();
+        if (getUserId(slots[2 * battle]).equals(winnerUserId)) {
+            updatedSlots[battle] = slots[2 * battle];
+        } else if (getUserId(slots[2 * battle + 1]).equals(winnerUserId)) {
+            updatedSlots[battle] = slots[2 * battle + 1];
+        } else {
+            throw new IllegalArgumentException("Wrong winner user id");
+        }
+        return new PairsRacesBracket(participantUserIds, updatedSlots, omtCounts, omt, version);
+    }
+
+    public PairsRacesBracket withOmt(int battle) {
+        validatePendingBattle(battle);
+        if (omtCounts[battle] >= omt) {
+            throw new IllegalArgumentException("Number of OMT is exceeded");
+        }
+        var updatedOmtCounts = omtCounts.clone();
+        updatedOmtCounts[battle]++;
+        return new PairsRacesBracket(participantUserIds, slots, updatedOmtCounts, omt, version);
+    }
+
+    public PairsRacesBracket withVersion(Long version) {
+        return new PairsRacesBracket(participantUserIds, slots, omtCounts, omt, version);
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public boolean isCompleted() {
+        return slots[1] != EMPTY;
+    }
+
+    public List<BattleDto> getBattles() {
+        var battles = new ArrayList<BattleDto>(size - 1);
+        for (var battle = 1; battle < size; battle++) {
+            var isBye = battle >= size / 2 && slots[2 * battle + 1] == EMPTY;
+            if (!isBye) {
+                battles.add(BattleDto.builder()
+                        .number(battle)
+                        .top(2 * Integer.highestOneBit(battle))
+                        .leaderUserId(getUserId(slots[2 * battle]))
+                        .chaserUserId(getUserId(slots[2 * battle + 1]))
+                        .winnerUserId(getUserId(slots[battle]))
+                        .omt(omtCounts[battle])
+                        .build());
+            }
+        }
+        return battles;
+    }
+
+    public List<String> getPlaces() {
+        if (!isCompleted()) {
+            throw new IllegalStateException("Pairs races are not finished");
+        }
+        // Note: participants are ranked by the round they were knocked out in (0 for the winner, 1 for the final,
+        // 2 for semifinals and so on), participants knocked out in the same round are ranked by qualification place.
+        var knockoutRounds = new int[participantUserIds.length];
+        for (var battle = 1; battle < size; battle++) {
+            if (slots[2 * battle + 1] != EMPTY) {
+                var loser = slots[2 * battle] == slots[battle] ? slots[2 * battle + 1] : slots[2 * battle];
+                knockoutRounds[loser] = Integer.SIZE - Integer.numberOfLeadingZeros(battle);
+            }
+        }
+        return IntStream.range(0, participantUserIds.length).boxed()
+                .sorted(Comparator.<Integer>comparingInt(place -> knockoutRounds[place]).thenComparingInt(place -> place))
+                .map(place -> participantUserIds[place])
+                .collect(Collectors.toList());
+    }
+
+    private void validatePendingBattle(int battle) {
+        if (battle < 1 || battle >= size) {
+            throw new IllegalArgumentException("Wrong battle number");
+        }
+        if (slots[2 * battle] == EMPTY || slots[2 * battle + 1] == EMPTY) {
+            throw new IllegalArgumentException("Battle participants are not determined yet");
+        }
+        if (slots[battle] != EMPTY) {
+            throw new IllegalArgumentException("Battle is already finished");
+        }
+    }
+
+    private String getUserId(int place) {
+        return place == EMPTY ? null : participantUserIds[place];
+    }
+
+    private static int[] seedOrder(int size) {
+        var seeds = new int[]{1};
+        while (seeds.length < size) {
+            var nextSeeds = new int[seeds.length * 2];
+            var nextSize = nextSeeds.length;
+            for (var index = 0; index < seeds.length; index++) {
+                nextSeeds[2 * index] = seeds[index];
+                nextSeeds[2 * index + 1] = nextSize + 1 - seeds[index];
+            }
+            seeds = nextSeeds;
+        }
+        return seeds;
+    }
+}
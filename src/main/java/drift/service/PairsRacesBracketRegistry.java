@@ -0,0 +1,44 @@
+package drift.service;
+
+import com.google.common.cache.Cache;
+
+import java.util.function.Supplier;
+
+import static drift.service.Caches.expiringCache;
+
+public class PairsRacesBracketRegistry {
+
+    private final Cache<String, PairsRacesBracket> brackets;
+
+    public PairsRacesBracketRegistry(long maxSize, long ttlInMillis) {
+        this.brackets = expiringCache(maxSize, ttlInMillis);
+    }
+
+    public PairsRacesBracket getOrLoad(String championshipStageId, Supplier<PairsRacesBracket> loader) {
+        return Caches.getOrLoad(brackets, championshipStageId, loader);
+    }
+
+    public PairsRacesBracket getOrLoad(String championshipStageId, long version, Supplier<PairsRacesBracket> loader) {
+        var bracket = brackets.getIfPresent(championshipStageId);
+        if (bracket != null && bracket.getVersion() != null && bracket.getVersion() == version) {
+            return bracket;
+        }
+        var loadedBracket = loader.get();
+        put(championshipStageId, loadedBracket);
+        return loadedBracket;
+    }
+
+    public void put(String championshipStageId, PairsRacesBracket bracket) {
+        // Note: commits of concurrent battle results may be reported out of order, so the latest snapshot version wins.
+        brackets.asMap().merge(championshipStageId, bracket,
+                (current, updated) -> updated.getVersion() >= current.getVersion() ? updated : current);
+    }
+
+    public void evict(String championshipStageId) {
+        brackets.invalidate(championshipStageId);
+    }
+
+    public void clear() {
+        brackets.invalidateAll();
+    }
+}
@@ -0,0 +1,87 @@
+package drift.service;
+
+import drift.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+public class PasswordHasher implements MeterBinder {
+
+    private static final String EXECUTOR_NAME = "password-hashing";
+    private static final String LATENCY_METER_NAME = "password.hashing";
+    private static final String REJECTIONS_METER_NAME = "password.hashing.rejected";
+    private static final String ENCODE = "encode";
+    private static final String MATCHES = "matches";
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterInSeconds;
+    private volatile Timer encodeTimer;
+    private volatile Timer matchesTimer;
+    private volatile Counter rejections;
+
+    public PasswordHasher(int strength, int threads, int queueCapacity, long retryAfterInSeconds, ThreadFactory threadFactory) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        // Note: the queue is bounded and full queue is not waited for, so a sign in storm is answered with 503
+        // instead of occupying every request thread with BCrypt rounds.
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterInSeconds = retryAfterInSeconds;
+    }
+
+    public String encode(String rawPassword) {
+        return execute(() -> encoder.encode(rawPassword), encodeTimer);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return execute(() -> encoder.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    public boolean needsRehash(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(registry);
+        encodeTimer = Timer.builder(LATENCY_METER_NAME).tag("operation", ENCODE).register(registry);
+        matchesTimer = Timer.builder(LATENCY_METER_NAME).tag("operation", MATCHES).register(registry);
+        rejections = Counter.builder(REJECTIONS_METER_NAME).register(registry);
+    }
+
+    private <T> T execute(Supplier<T> hashing, Timer timer) {
+        Future<T> result;
+        try {
+            result = executor.submit(() -> timer != null ? timer.record(hashing) : hashing.get());
+        } catch (RejectedExecutionException e) {
+            var currentRejections = rejections;
+            if (currentRejections != null) {
+                currentRejections.increment();
+            }
+            throw new ServiceOverloadedException("Too many password hashing requests", retryAfterInSeconds);
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Password hashing is interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package drift.service;
+
+import java.util.*;
+
+public class QualificationLeaderboard {
+
+    private final int attempts;
+    private final Map<String, Integer> judgeIndexes = new HashMap<>();
+    private final Map<String, Entry> entriesByUserId = new HashMap<>();
+    private final NavigableSet<Entry> ranking = new TreeSet<>(QualificationLeaderboard::compareRanking);
+    private volatile Map<String, Double> results;
+    // Note: version of the championship stage the leaderboard reflects.
+    private volatile long version;
+
+    public QualificationLeaderboard(int attempts, long version) {
+        this.attempts = attempts;
+        this.version = version;
+    }
+
+    public synchronized void add(String userId) {
+        if (!entriesByUserId.containsKey(userId)) {
+            attach(detach(userId));
+        }
+    }
+
+    public synchronized void put(String userId, String judgeUserId, List<Double> attemptsPoints) {
+        var entry = detach(userId);
+        setAttemptsPoints(entry, judgeUserId, attemptsPoints);
+        attach(entry);
+    }
+
+    public synchronized void put(String userId, String judgeUserId, int attempt, double points) {
+        var entry = detach(userId);
+        var offset = getJudgeOffset(entry, judgeUserId);
+        entry.points[offset + attempt] = points;
+        attach(entry);
+    }
+
+    public synchronized void remove(String userId) {
+        Optional.ofNullable(entriesByUserId.remove(userId)).ifPresent(ranking::remove);
+        results = null;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Map<String, Double> getResults() {
+        var currentResults = results;
+        if (currentResults == null) {
+            synchronized (this) {
+                if (results == null) {
+                    var rankedResults = new LinkedHashMap<String, Double>();
+                    ranking.forEach(entry -> rankedResults.put(entry.userId, entry.getBestAttemptResult()));
+                    results = Collections.unmodifiableMap(rankedResults);
+                }
+                currentResults = results;
+            }
+        }
+        return currentResults;
+    }
+
+    private Entry detach(String userId) {
+        var entry = entriesByUserId.get(userId);
+        if (entry == null) {
+            entry = new Entry(userId, new double[judgeIndexes.size() * attempts], new double[attempts]);
+            entriesByUserId.put(userId, entry);
+        } else {
+            ranking.remove(entry);
+        }
+        return entry;
+    }
+
+    private void attach(Entry entry) {
+        calculateSortedAttemptResults(entry);
+        ranking.add(entry);
+        results = null;
+    }
+
+    private void setAttemptsPoints(Entry entry, String judgeUserId, List<Double> attemptsPoints) {
+        var offset = getJudgeOffset(entry, judgeUserId);
+        for (var attempt = 0; attempt < attempts; attempt++) {
+            entry.points[offset + attempt] = attemptsPoints.get(attempt);
+        }
+    }
+
+    private int getJudgeOffset(Entry entry, String judgeUserId) {
+        var judgeIndex = judgeIndexes.computeIfAbsent(judgeUserId, id -> judgeIndexes.size());
+        var offset = judgeIndex * attempts;
+        if (entry.points.length < offset + attempts) {
+            entry.points = Arrays.copyOf(entry.points, judgeIndexes.size() * attempts);
+        }
+        return offset;
+    }
+
+    private void calculateSortedAttemptResults(Entry entry) {
+        var sortedAttemptResults = entry.sortedAttemptResults;
+        Arrays.fill(sortedAttemptResults, 0d);
+        for (var offset = 0; offset < entry.points.length; offset += attempts) {
+            for (var attempt = 0; attempt < attempts; attempt++) {
+                sortedAttemptResults[attempt] += entry.points[offset + attempt];
+            }
+        }
+        Arrays.sort(sortedAttemptResults);
+    }
+
+    private static int compareRanking(Entry entry, Entry otherEntry) {
+        var attemptResults = entry.sortedAttemptResults;
+        var otherAttemptResults = otherEntry.sortedAttemptResults;
+        for (var index = attemptResults.length - 1; index >= 0; index--) {
+            var comparison = Double.compare(otherAttemptResults[index], attemptResults[index]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return entry.userId.compareTo(otherEntry.userId);
+    }
+
+    // Note: entry arrays are mutated only while the entry is detached from the ranking set.
+    private static class Entry {
+
+        private final String userId;
+        private double[] points;
+        private final double[] sortedAttemptResults;
+
+        private Entry(String userId, double[] points, double[] sortedAttemptResults) {
+            this.userId = userId;
+            this.points = points;
+            this.sortedAttemptResults = sortedAttemptResults;
+        }
+
+        private double getBestAttemptResult() {
+            return sortedAttemptResults.length == 0 ? 0d : sortedAttemptResults[sortedAttemptResults.length - 1];
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package drift.service;
+
+import com.google.common.cache.Cache;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static drift.service.Caches.expiringCache;
+
+public class QualificationLeaderboardRegistry {
+
+    private final Cache<String, QualificationLeaderboard> leaderboards;
+
+    public QualificationLeaderboardRegistry(long maxSize, long ttlInMillis) {
+        this.leaderboards = expiringCache(maxSize, ttlInMillis);
+    }
+
+    // Note: a leaderboard behind the given stage version, e.g. missing scores submitted through another node, is reloaded.
+    // The load runs outside of the map locks and the loaded leaderboard is installed only if no newer one was put
+    // meanwhile; updates committed during the load are picked up by the next read, which is behind their version.
+    public QualificationLeaderboard getOrLoad(String championshipStageId, long version, Supplier<QualificationLeaderboard> loader) {
+        var leaderboard = leaderboards.getIfPresent(championshipStageId);
+        if (leaderboard != null && leaderboard.getVersion() >= version) {
+            return leaderboard;
+        }
+        return leaderboards.asMap().merge(championshipStageId, loader.get(),
+                (current, loaded) -> current.getVersion() >= loaded.getVersion() ? current : loaded);
+    }
+
+    public void put(String championshipStageId, QualificationLeaderboard leaderboard) {
+        leaderboards.put(championshipStageId, leaderboard);
+    }
+
+    // Note: the update is applied only if it brings the leaderboard to the next stage version, a leaderboard
+    // that has missed a version (changed through another node or updates committed in a different order)
+    // is evicted and reloaded on the next read.
+    public void update(String championshipStageId, long version, Consumer<QualificationLeaderboard> update) {
+        leaderboards.asMap().computeIfPresent(championshipStageId, (id, leaderboard) -> {
+            if (leaderboard.getVersion() >= version) {
+                return leaderboard;
+            }
+            if (leaderboard.getVersion() != version - 1) {
+                return null;
+            }
+            update.accept(leaderboard);
+            leaderboard.setVersion(version);
+            return leaderboard;
+        });
+    }
+
+    public void evict(String championshipStageId) {
+        leaderboards.invalidate(championshipStageId);
+    }
+
+    public void clear() {
+        leaderboards.invalidateAll();
+    }
+}
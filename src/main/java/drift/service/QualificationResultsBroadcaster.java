@@ -0,0 +1,150 @@
+package drift.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Slf4j
+@RequiredArgsConstructor
+public class QualificationResultsBroadcaster {
+
+    static final String STANDINGS_EVENT = "standings";
+    static final String CHANGES_EVENT = "changes";
+
+    private final Executor executor;
+    private final ScheduledExecutorService sendTimeoutScheduler;
+    private final long sendTimeoutInMillis;
+    private final Map<String, Set<Subscriber>> subscribersByChampionshipStageId = new ConcurrentHashMap<>();
+
+    public void subscribe(String championshipStageId, SseEmitter emitter, Supplier<Map<String, Double>> standings) {
+        var subscriber = new Subscriber(championshipStageId, emitter);
+        subscribersByChampionshipStageId.compute(championshipStageId, (id, subscribers) -> {
+            var stageSubscribers = subscribers != null ? subscribers : ConcurrentHashMap.<Subscriber>newKeySet();
+            stageSubscribers.add(subscriber);
+            return stageSubscribers;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        Map<String, Double> currentStandings;
+        try {
+            currentStandings = standings.get();
+        } catch (RuntimeException e) {
+            unsubscribe(subscriber);
+            throw e;
+        }
+        if (subscriber.send(STANDINGS_EVENT, currentStandings)) {
+            subscriber.flush();
+        }
+    }
+
+    public boolean hasSubscribers(String championshipStageId) {
+        return subscribersByChampionshipStageId.containsKey(championshipStageId);
+    }
+
+    public void publish(String championshipStageId, Map<String, Double> changes) {
+        var subscribers = subscribersByChampionshipStageId.get(championshipStageId);
+        if (subscribers == null || changes.isEmpty()) {
+            return;
+        }
+        subscribers.forEach(subscriber -> subscriber.enqueue(changes));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribersByChampionshipStageId.computeIfPresent(subscriber.championshipStageId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    @RequiredArgsConstructor
+    private class Subscriber {
+
+        private final String championshipStageId;
+        private final SseEmitter emitter;
+        // Note: changes are coalesced by participant, so a slow subscriber holds at most one pending row per participant
+        // and at most one send is in flight for it; the flag is raised until the initial standings are sent.
+        private Map<String, Double> pendingChanges = new LinkedHashMap<>();
+        private boolean sending = true;
+        private boolean dropped;
+
+        void enqueue(Map<String, Double> changes) {
+            synchronized (this) {
+                if (dropped) {
+                    return;
+                }
+                pendingChanges.putAll(changes);
+                if (sending) {
+                    return;
+                }
+                sending = true;
+            }
+            try {
+                executor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                drop(e);
+            }
+        }
+
+        void flush() {
+            while (true) {
+                Map<String, Double> changes;
+                synchronized (this) {
+                    if (dropped || pendingChanges.isEmpty()) {
+                        sending = false;
+                        return;
+                    }
+                    changes = pendingChanges;
+                    pendingChanges = new LinkedHashMap<>();
+                }
+                if (!send(CHANGES_EVENT, changes)) {
+                    return;
+                }
+            }
+        }
+
+        // Note: a subscriber which does not take an event within the timeout is dropped and its connection is completed
+        // with an error, so changes are no longer piled up for a client which can not keep up with them.
+        boolean send(String eventName, Map<String, Double> data) {
+            var timeout = sendTimeoutScheduler.schedule(
+                    () -> drop(new TimeoutException("Event is not sent within " + sendTimeoutInMillis + " ms")),
+                    sendTimeoutInMillis,
+                    TimeUnit.MILLISECONDS);
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(data));
+            } catch (IOException | IllegalStateException e) {
+                drop(e);
+            } finally {
+                timeout.cancel(false);
+            }
+            synchronized (this) {
+                return !dropped;
+            }
+        }
+
+        void drop(Exception cause) {
+            synchronized (this) {
+                if (dropped) {
+                    return;
+                }
+                dropped = true;
+                pendingChanges.clear();
+            }
+            log.debug("Qualification results subscriber of championship stage {} is dropped", championshipStageId, cause);
+            unsubscribe(this);
+            emitter.completeWithError(cause);
+        }
+    }
+}
@@ -1,32 +1,54 @@
 package drift.service;
 
+import com.google.common.cache.Cache;
 import drift.model.Role;
 import drift.repository.CarRepository;
 import drift.repository.OrganisationRepository;
-import lombok.RequiredArgsConstructor;
 
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static drift.service.Caches.expiringCache;
 
-@RequiredArgsConstructor
 public class RoleService {
 
     private final CarRepository carRepository;
     private final OrganisationRepository organisationRepository;
+    private final Cache<String, Set<Role>> rolesByUserId;
+
+    public RoleService(
+            CarRepository carRepository,
+            OrganisationRepository organisationRepository,
+            long cacheMaxSize,
+            long cacheTtlInMillis
+    ) {
+        this.carRepository = carRepository;
+        this.organisationRepository = organisationRepository;
+        this.rolesByUserId = expiringCache(cacheMaxSize, cacheTtlInMillis);
+    }
 
-    public Collection<Role> getRoles(String userId) {
-        return new ArrayList<>() {{
-            add(Role.SPECTATOR);
-            if (carRepository.existsByOwnerIdAndActive(userId, true)) {
-                add(Role.DRIVER);
-            }
-            if (organisationRepository.existsByOwnerIdAndActive(userId, true)) {
-                add(Role.ORGANIZER);
-            }
-        }};
+    public Set<Role> getRoles(String userId) {
+        return Caches.getOrLoad(rolesByUserId, userId, () -> loadRoles(userId));
     }
 
     public boolean userHasRoles(String userId, Collection<Role> roles) {
         return getRoles(userId).containsAll(roles);
     }
+
+    public void evictRoles(String userId) {
+        rolesByUserId.invalidate(userId);
+    }
+
+    private Set<Role> loadRoles(String userId) {
+        var roles = EnumSet.of(Role.SPECTATOR);
+        if (carRepository.existsByOwnerIdAndActive(userId, true)) {
+            roles.add(Role.DRIVER);
+        }
+        if (organisationRepository.existsByOwnerIdAndActive(userId, true)) {
+            roles.add(Role.ORGANIZER);
+        }
+        return Collections.unmodifiableSet(roles);
+    }
 }
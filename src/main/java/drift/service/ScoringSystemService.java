@@ -37,8 +37,21 @@ public class ScoringSystemService {
                 .collect(Collectors.toList());
     }
 
+    public String getScoringSystemsVersion() {
+        var version = scoringSystemRepository.findVersion();
+        return version.getCount() + "." + version.getVersionSum();
+    }
+
     public ScoringSystemDto getScoringSystem(String scoringSystemId) {
-        return scoringSystemRepository.findById(scoringSystemId).map(ScoringSystemDto::from)
+        return ScoringSystemDto.from(getScoringSystemEntity(scoringSystemId));
+    }
+
+    public String getScoringSystemVersion(String scoringSystemId) {
+        return String.valueOf(getScoringSystemEntity(scoringSystemId).getVersion());
+    }
+
+    private ScoringSystem getScoringSystemEntity(String scoringSystemId) {
+        return scoringSystemRepository.findById(scoringSystemId)
                 .orElseThrow(() -> new IllegalArgumentException("Wrong scoring system id"));
     }
 }
@@ -0,0 +1,43 @@
+package drift.service;
+
+import drift.dto.ScoringSystemDto;
+
+import java.util.List;
+
+public class ScoringTable {
+
+    private final double participationPoints;
+    private final double[] qualificationPoints;
+    private final double[] points;
+
+    private ScoringTable(double participationPoints, double[] qualificationPoints, double[] points) {
+        this.participationPoints = participationPoints;
+        this.qualificationPoints = qualificationPoints;
+        this.points = points;
+    }
+
+    public static ScoringTable compile(ScoringSystemDto scoringSystem) {
+        return new ScoringTable(
+                scoringSystem.getParticipationPoints(),
+                toArray(scoringSystem.getQualificationPoints()),
+                toArray(scoringSystem.getPoints()));
+    }
+
+    public double getParticipationPoints() {
+        return participationPoints;
+    }
+
+    public double getQualificationPoints(int place) {
+        return place <= qualificationPoints.length ? qualificationPoints[place - 1] : 0d;
+    }
+
+    // Note: the last entry of the points table is shared by all places beyond it,
+    // e.g. the "17-32" entry of the top 32 table.
+    public double getPoints(int place) {
+        return points.length == 0 ? 0d : points[Math.min(place, points.length) - 1];
+    }
+
+    private static double[] toArray(List<Double> points) {
+        return points == null ? new double[0] : points.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+}
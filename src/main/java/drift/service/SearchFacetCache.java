@@ -0,0 +1,28 @@
+package drift.service;
+
+import com.google.common.cache.Cache;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static drift.service.Caches.expiringCache;
+
+public class SearchFacetCache {
+
+    private final Cache<Object, Map<String, Long>> countsByQuery;
+
+    // Note: counts are not evicted on writes, they are only kept for a short time, so listing pages requested
+    // by many clients share the same aggregate queries at the cost of slightly stale counts.
+    public SearchFacetCache(long maxSize, long ttlInMillis) {
+        this.countsByQuery = expiringCache(maxSize, ttlInMillis);
+    }
+
+    public Map<String, Long> getOrLoad(Object query, Supplier<Map<String, Long>> loader) {
+        return Caches.getOrLoad(countsByQuery, query, () -> Collections.unmodifiableMap(loader.get()));
+    }
+
+    public void clear() {
+        countsByQuery.invalidateAll();
+    }
+}
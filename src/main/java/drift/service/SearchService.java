@@ -0,0 +1,159 @@
+package drift.service;
+
+import drift.dto.SearchTarget;
+import drift.dto.UnifiedSearchResultDto;
+import drift.exception.ServiceOverloadedException;
+import drift.repository.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+public class SearchService implements MeterBinder {
+
+    private static final String EXECUTOR_NAME = "search";
+    private static final String REJECTIONS_METER_NAME = "search.rejected";
+    private static final String TIMEOUTS_METER_NAME = "search.timed.out";
+
+    private final UserRepository userRepository;
+    private final CarRepository carRepository;
+    private final OrganisationRepository organisationRepository;
+    private final ChampionshipRepository championshipRepository;
+    private final ChampionshipStageRepository championshipStageRepository;
+    private final TrainingRepository trainingRepository;
+    private final ThreadPoolExecutor executor;
+    private final long deadlineInNanos;
+    private final long retryAfterInSeconds;
+    private volatile Counter rejections;
+    private volatile Counter timeouts;
+
+    public SearchService(
+            UserRepository userRepository,
+            CarRepository carRepository,
+            OrganisationRepository organisationRepository,
+            ChampionshipRepository championshipRepository,
+            ChampionshipStageRepository championshipStageRepository,
+            TrainingRepository trainingRepository,
+            int threads,
+            int queueCapacity,
+            long deadlineInMillis,
+            long retryAfterInSeconds,
+            ThreadFactory threadFactory
+    ) {
+        this.userRepository = userRepository;
+        this.carRepository = carRepository;
+        this.organisationRepository = organisationRepository;
+        this.championshipRepository = championshipRepository;
+        this.championshipStageRepository = championshipStageRepository;
+        this.trainingRepository = trainingRepository;
+        // Note: every unified search takes up to six queue slots, the queue is bounded and full queue is not waited for,
+        // so a burst of searches is answered with 503 instead of piling up behind the deadline.
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.deadlineInNanos = TimeUnit.MILLISECONDS.toNanos(deadlineInMillis);
+        this.retryAfterInSeconds = retryAfterInSeconds;
+    }
+
+    public UnifiedSearchResultDto search(UnifiedSearchContext context) {
+        var fanOut = new FanOut(System.nanoTime() + deadlineInNanos);
+        try {
+            var users = fanOut.submit(context.getUsers(), userRepository::search);
+            var cars = fanOut.submit(context.getCars(), carRepository::search);
+            var organisations = fanOut.submit(context.getOrganisations(), organisationRepository::search);
+            var championships = fanOut.submit(context.getChampionships(), championshipRepository::search);
+            var championshipStages = fanOut.submit(context.getChampionshipStages(), championshipStageRepository::search);
+            var trainings = fanOut.submit(context.getTrainings(), trainingRepository::search);
+            return UnifiedSearchResultDto.builder()
+                    .users(fanOut.await(SearchTarget.USERS, users))
+                    .cars(fanOut.await(SearchTarget.CARS, cars))
+                    .organisations(fanOut.await(SearchTarget.ORGANISATIONS, organisations))
+                    .championships(fanOut.await(SearchTarget.CHAMPIONSHIPS, championships))
+                    .championshipStages(fanOut.await(SearchTarget.CHAMPIONSHIP_STAGES, championshipStages))
+                    .trainings(fanOut.await(SearchTarget.TRAININGS, trainings))
+                    .timedOut(fanOut.timedOut)
+                    .build();
+        } finally {
+            fanOut.cancelAll();
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(registry);
+        rejections = Counter.builder(REJECTIONS_METER_NAME).register(registry);
+        timeouts = Counter.builder(TIMEOUTS_METER_NAME).register(registry);
+    }
+
+    private class FanOut {
+
+        private final long deadline;
+        private final List<Future<?>> searches = new ArrayList<>();
+        private final Set<SearchTarget> timedOut = EnumSet.noneOf(SearchTarget.class);
+
+        FanOut(long deadline) {
+            this.deadline = deadline;
+        }
+
+        <C, T> Future<SearchPage<T>> submit(C context, Function<C, SearchPage<T>> search) {
+            if (context == null) {
+                return null;
+            }
+            try {
+                var future = executor.submit(() -> search.apply(context));
+                searches.add(future);
+                return future;
+            } catch (RejectedExecutionException e) {
+                var currentRejections = rejections;
+                if (currentRejections != null) {
+                    currentRejections.increment();
+                }
+                throw new ServiceOverloadedException("Too many search requests", retryAfterInSeconds);
+            }
+        }
+
+        // Note: every search is waited for until the common deadline, so the whole fan-out takes as long
+        // as the slowest search and searches that miss the deadline are cancelled and reported as timed out.
+        <T> SearchPage<T> await(SearchTarget target, Future<SearchPage<T>> search) {
+            if (search == null) {
+                return null;
+            }
+            try {
+                return search.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                search.cancel(true);
+                if (timedOut.isEmpty()) {
+                    var currentTimeouts = timeouts;
+                    if (currentTimeouts != null) {
+                        currentTimeouts.increment();
+                    }
+                }
+                timedOut.add(target);
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Search is interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        void cancelAll() {
+            searches.forEach(search -> search.cancel(true));
+        }
+    }
+}
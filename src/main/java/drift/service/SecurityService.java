@@ -6,6 +6,7 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.Claim;
 import drift.configuration.properties.SecurityProperties;
 import drift.model.Role;
+import drift.service.VerifiedAccessTokenCache.VerifiedAccessToken;
 import lombok.SneakyThrows;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -13,65 +14,96 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.security.SecureRandom;
 import java.time.Clock;
 import java.util.*;
 
 public class SecurityService {
 
     private static final String USER_ID = "userId";
+    private static final String ISSUED_AT_MILLIS = "issuedAtMillis";
+    private static final String PASSWORD_CHARACTERS = "abcdefghijkmnpqrstuvwxyzABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+    private static final int GENERATED_PASSWORD_LENGTH = 10;
 
     private final SecurityProperties properties;
     private final RoleService roleService;
     private final Clock clock;
-    private final PasswordEncoder encoder;
+    private final VerifiedAccessTokenCache verifiedAccessTokenCache;
+    private final AccessTokenRevocations accessTokenRevocations;
+    private final PasswordHasher passwordHasher;
     private final Random randomGenerator;
+    private final SecureRandom secureRandomGenerator;
     private final Algorithm tokenKey;
     private final JWTVerifier tokenVerifier;
 
     @SneakyThrows
-    public SecurityService(SecurityProperties properties, RoleService roleService, Clock clock) {
+    public SecurityService(
+            SecurityProperties properties,
+            RoleService roleService,
+            Clock clock,
+            VerifiedAccessTokenCache verifiedAccessTokenCache,
+            AccessTokenRevocations accessTokenRevocations,
+            PasswordHasher passwordHasher
+    ) {
         this.properties = properties;
         this.roleService = roleService;
         this.clock = clock;
-        this.encoder = new BCryptPasswordEncoder();
+        this.verifiedAccessTokenCache = verifiedAccessTokenCache;
+        this.accessTokenRevocations = accessTokenRevocations;
+        this.passwordHasher = passwordHasher;
         this.randomGenerator = new Random();
+        this.secureRandomGenerator = new SecureRandom();
         this.tokenKey = Algorithm.HMAC256(properties.getTokenKey());
         this.tokenVerifier = ((JWTVerifier.BaseVerification) JWT.require(tokenKey)).build(() -> new Date(clock.millis()));
     }
 
     public String encode(String value) {
-        return encoder.encode(value);
+        return passwordHasher.encode(value);
     }
 
     public boolean matches(String value, String encodedValue) {
-        return encoder.matches(value, encodedValue);
+        return passwordHasher.matches(value, encodedValue);
+    }
+
+    public boolean needsRehash(String encodedValue) {
+        return passwordHasher.needsRehash(encodedValue);
     }
 
     public String generateVerificationCode() {
         return String.format("%04d", randomGenerator.nextInt(9999));
     }
 
+    public String generatePassword() {
+        var password = new char[GENERATED_PASSWORD_LENGTH];
+        for (var index = 0; index < password.length; index++) {
+            password[index] = PASSWORD_CHARACTERS.charAt(secureRandomGenerator.nextInt(PASSWORD_CHARACTERS.length()));
+        }
+        return new String(password);
+    }
+
     public String generateAccessToken(String userId) {
+        var issuedAtMillis = clock.millis();
+        // Note: the issued at claim holds whole seconds, so issue time is also provided in milliseconds
+        // to compare it with revocation time exactly.
         return JWT.create()
                 .withPayload(Map.of(
                         USER_ID, userId
                 ))
-                .withExpiresAt(new Date(clock.millis() + properties.getTokenTtlInMillis()))
+                .withClaim(ISSUED_AT_MILLIS, issuedAtMillis)
+                .withIssuedAt(new Date(issuedAtMillis))
+                .withExpiresAt(new Date(issuedAtMillis + properties.getTokenTtlInMillis()))
                 .sign(tokenKey);
     }
 
     public void setupSecurityContext(String accessToken) {
         try {
-            var decodedAccessToken = tokenVerifier.verify(accessToken);
-            var userId = Optional.ofNullable(decodedAccessToken.getClaim(USER_ID))
-                    .map(Claim::asString)
-                    .orElseThrow();
-            var authorities = List.<GrantedAuthority>of();
-            var principal = new User(userId, userId, authorities);
-            var authentication = new UsernamePasswordAuthenticationToken(principal, accessToken, authorities);
+            var verifiedAccessToken = verifiedAccessTokenCache.get(accessToken)
+                    .orElseGet(() -> verifyAccessToken(accessToken));
+            var authentication = verifiedAccessToken.getAuthentication();
+            if (accessTokenRevocations.isRevoked(authentication.getName(), verifiedAccessToken.getIssuedAtMillis())) {
+                throw new SecurityException("Access token is revoked");
+            }
             SecurityContextHolder.getContext().setAuthentication(authentication);
         } catch (Exception e) {
             SecurityContextHolder.clearContext();
@@ -96,6 +128,26 @@ public class SecurityService {
         }
     }
 
+    private VerifiedAccessToken verifyAccessToken(String accessToken) {
+        var decodedAccessToken = tokenVerifier.verify(accessToken);
+        var userId = Optional.ofNullable(decodedAccessToken.getClaim(USER_ID))
+                .map(Claim::asString)
+                .orElseThrow();
+        var authorities = List.<GrantedAuthority>of();
+        var principal = new User(userId, userId, authorities);
+        // Note: the authentication is cached, so it does not keep the raw access token as its credentials.
+        var authentication = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        var expiresAt = Optional.ofNullable(decodedAccessToken.getExpiresAt()).map(Date::getTime);
+        // Note: access tokens issued before the issued at claim was introduced are treated as issued a TTL before expiry.
+        var issuedAtMillis = Optional.ofNullable(decodedAccessToken.getClaim(ISSUED_AT_MILLIS).asLong())
+                .or(() -> Optional.ofNullable(decodedAccessToken.getIssuedAt()).map(Date::getTime))
+                .or(() -> expiresAt.map(expiresAtMillis -> expiresAtMillis - properties.getTokenTtlInMillis()))
+                .orElse(0L);
+        var verifiedAccessToken = new VerifiedAccessToken(authentication, issuedAtMillis, expiresAt.orElse(Long.MAX_VALUE));
+        expiresAt.ifPresent(expiresAtMillis -> verifiedAccessTokenCache.put(accessToken, verifiedAccessToken));
+        return verifiedAccessToken;
+    }
+
     private Optional<UserDetails> getUserDetails() {
         return Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
                 .map(Authentication::getPrincipal)
@@ -2,12 +2,15 @@ package drift.service;
 
 import drift.dto.TrainingCreationDto;
 import drift.dto.TrainingUpdateDto;
+import drift.dto.UserWithCarsDto;
 import drift.model.ImageCategory;
 import drift.model.Role;
 import drift.model.Training;
 import drift.model.TrainingParticipant;
 import drift.repository.TrainingParticipantRepository;
+import drift.repository.SearchPage;
 import drift.repository.TrainingRepository;
+import drift.repository.UsersWithCarsSearchContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -96,6 +99,11 @@ public class TrainingService {
                 .collect(Collectors.toSet());
     }
 
+    public SearchPage<UserWithCarsDto> getParticipants(String trainingId, UsersWithCarsSearchContext context) {
+        getTraining(trainingId);
+        return trainingParticipantRepository.searchUsersWithCars(trainingId, context);
+    }
+
     private Training getRequesterTraining(String trainingId) {
         var training = getTraining(trainingId);
         securityService.validateOwner(training.getOwnerId(), Training.class);
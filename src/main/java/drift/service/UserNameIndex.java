@@ -0,0 +1,253 @@
+package drift.service;
+
+import drift.dto.UserDto;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class UserNameIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Trie trie = new Trie();
+    // Note: updates applied while the index is rebuilt from a snapshot are replayed on top of the rebuilt trie,
+    // so they are not lost when it replaces the current one.
+    private List<Consumer<Trie>> pendingUpdates;
+
+    public void put(UserDto user) {
+        update(trie -> trie.put(user.getId(), tokenize(user.getFirstName(), user.getLastName(), user.getEmail())));
+    }
+
+    public void remove(String userId) {
+        update(trie -> trie.remove(userId));
+    }
+
+    public List<String> search(String query, int limit) {
+        var terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.search(terms, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public synchronized void rebuild(Stream<UserDto> users) {
+        withWriteLock(() -> pendingUpdates = new ArrayList<>());
+        try {
+            var rebuiltTrie = new Trie();
+            users.forEach(user -> rebuiltTrie.put(user.getId(), tokenize(user.getFirstName(), user.getLastName(), user.getEmail())));
+            withWriteLock(() -> {
+                pendingUpdates.forEach(update -> update.accept(rebuiltTrie));
+                trie = rebuiltTrie;
+            });
+        } finally {
+            withWriteLock(() -> pendingUpdates = null);
+        }
+    }
+
+    private void update(Consumer<Trie> update) {
+        withWriteLock(() -> {
+            update.accept(trie);
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static List<String> tokenize(String... values) {
+        return Arrays.stream(values)
+                .filter(Objects::nonNull)
+                .flatMap(value -> Arrays.stream(value.trim().toLowerCase(Locale.ROOT).split("\\s+")))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    // Note: nodes and user entries reference users by int handles, so user ids and tokens are stored once per user
+    // however many nodes the user is reachable from.
+    private static class Trie {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final int[] NO_HANDLES = new int[0];
+
+        private final Node root = new Node();
+        private final Map<String, Integer> handlesByUserId = new HashMap<>();
+        private final List<String> userIds = new ArrayList<>();
+        private final List<String[]> tokens = new ArrayList<>();
+        private final Deque<Integer> freeHandles = new ArrayDeque<>();
+
+        void put(String userId, List<String> userTokens) {
+            remove(userId);
+            if (userTokens.isEmpty()) {
+                return;
+            }
+            var handle = allocate(userId, userTokens.toArray(String[]::new));
+            userTokens.forEach(token -> root.descend(token, true).addHandle(handle));
+        }
+
+        void remove(String userId) {
+            var handle = handlesByUserId.remove(userId);
+            if (handle == null) {
+                return;
+            }
+            for (var token : tokens.get(handle)) {
+                root.removeHandle(token, 0, handle);
+            }
+            userIds.set(handle, null);
+            tokens.set(handle, null);
+            freeHandles.push(handle);
+        }
+
+        List<String> search(List<String> terms, int limit) {
+            // Note: the subtree of the longest term is the smallest one to scan, other terms are checked against
+            // the tokens of each found user; users whose token equals the term come first.
+            var scanTerm = terms.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+            var node = root.descend(scanTerm, false);
+            var result = new ArrayList<String>(limit);
+            if (node == null) {
+                return result;
+            }
+            var visitedHandles = new HashSet<Integer>();
+            var nodes = new ArrayDeque<Node>();
+            nodes.push(node);
+            while (!nodes.isEmpty()) {
+                var current = nodes.pop();
+                for (var index = 0; index < current.handleCount; index++) {
+                    var handle = current.handles[index];
+                    if (visitedHandles.add(handle) && matchesAll(tokens.get(handle), terms)) {
+                        result.add(userIds.get(handle));
+                        if (result.size() == limit) {
+                            return result;
+                        }
+                    }
+                }
+                for (var index = current.keys.length - 1; index >= 0; index--) {
+                    nodes.push(current.children[index]);
+                }
+            }
+            return result;
+        }
+
+        private int allocate(String userId, String[] userTokens) {
+            var handle = freeHandles.poll();
+            if (handle == null) {
+                handle = userIds.size();
+                userIds.add(userId);
+                tokens.add(userTokens);
+            } else {
+                userIds.set(handle, userId);
+                tokens.set(handle, userTokens);
+            }
+            handlesByUserId.put(userId, handle);
+            return handle;
+        }
+
+        private static boolean matchesAll(String[] userTokens, List<String> terms) {
+            return terms.stream().allMatch(term -> Arrays.stream(userTokens).anyMatch(token -> token.startsWith(term)));
+        }
+
+        // Note: children are kept in arrays sorted by key, so nodes hold no per-entry map objects
+        // and subtrees are visited in alphabetical order.
+        private static class Node {
+
+            private char[] keys = NO_KEYS;
+            private Node[] children = NO_CHILDREN;
+            private int[] handles = NO_HANDLES;
+            private int handleCount;
+
+            Node descend(String token, boolean create) {
+                var node = this;
+                for (var position = 0; position < token.length() && node != null; position++) {
+                    node = node.child(token.charAt(position), create);
+                }
+                return node;
+            }
+
+            void addHandle(int handle) {
+                for (var index = 0; index < handleCount; index++) {
+                    if (handles[index] == handle) {
+                        return;
+                    }
+                }
+                if (handleCount == handles.length) {
+                    handles = Arrays.copyOf(handles, Math.max(2, 2 * handleCount));
+                }
+                handles[handleCount++] = handle;
+            }
+
+            // Note: returns true when the node became empty and may be unlinked by its parent.
+            boolean removeHandle(String token, int position, int handle) {
+                if (position == token.length()) {
+                    for (var index = 0; index < handleCount; index++) {
+                        if (handles[index] == handle) {
+                            System.arraycopy(handles, index + 1, handles, index, handleCount - index - 1);
+                            handleCount--;
+                            break;
+                        }
+                    }
+                } else {
+                    var index = Arrays.binarySearch(keys, token.charAt(position));
+                    if (index >= 0 && children[index].removeHandle(token, position + 1, handle)) {
+                        keys = remove(keys, index);
+                        children = remove(children, index);
+                    }
+                }
+                return handleCount == 0 && keys.length == 0;
+            }
+
+            private Node child(char key, boolean create) {
+                var index = Arrays.binarySearch(keys, key);
+                if (index >= 0) {
+                    return children[index];
+                }
+                if (!create) {
+                    return null;
+                }
+                var insertionIndex = -index - 1;
+                var child = new Node();
+                var updatedKeys = new char[keys.length + 1];
+                var updatedChildren = new Node[children.length + 1];
+                System.arraycopy(keys, 0, updatedKeys, 0, insertionIndex);
+                System.arraycopy(children, 0, updatedChildren, 0, insertionIndex);
+                updatedKeys[insertionIndex] = key;
+                updatedChildren[insertionIndex] = child;
+                System.arraycopy(keys, insertionIndex, updatedKeys, insertionIndex + 1, keys.length - insertionIndex);
+                System.arraycopy(children, insertionIndex, updatedChildren, insertionIndex + 1, children.length - insertionIndex);
+                keys = updatedKeys;
+                children = updatedChildren;
+                return child;
+            }
+
+            private static char[] remove(char[] array, int index) {
+                var updated = new char[array.length - 1];
+                System.arraycopy(array, 0, updated, 0, index);
+                System.arraycopy(array, index + 1, updated, index, array.length - index - 1);
+                return updated.length == 0 ? NO_KEYS : updated;
+            }
+
+            private static Node[] remove(Node[] array, int index) {
+                var updated = new Node[array.length - 1];
+                System.arraycopy(array, 0, updated, 0, index);
+                System.arraycopy(array, index + 1, updated, index, array.length - index - 1);
+                return updated.length == 0 ? NO_CHILDREN : updated;
+            }
+        }
+    }
+}
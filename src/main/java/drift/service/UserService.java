@@ -1,25 +1,45 @@
 package drift.service;
 
 import drift.dto.*;
+import drift.exception.ServiceOverloadedException;
 import drift.model.ImageCategory;
 import drift.model.User;
 import drift.repository.UserRepository;
+import drift.repository.UsersSearchContext;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
-@Transactional
+import static drift.service.Transactions.afterCommit;
+
+// Note: methods hashing passwords are not transactional, so requests waiting for a hashing slot do not hold
+// database connections; every repository call runs in its own transaction and related writes are grouped
+// into short transactions after hashing.
 @RequiredArgsConstructor
 public class UserService {
 
+    private static final int DEFAULT_USER_NAME_SEARCH_LIMIT = 10;
+    private static final int MAX_USER_NAME_SEARCH_LIMIT = 50;
+
     private final IdGenerator idGenerator;
     private final UserRepository userRepository;
     private final SecurityService securityService;
+    private final AccessTokenRevocationService accessTokenRevocationService;
+    private final UserNameIndex userNameIndex;
     private final MailService mailService;
     private final FileService fileService;
+    private final TransactionOperations transactionOperations;
 
     public void registerUser(UserRegistrationDto dto) {
         var normalizedEmail = normalize(dto.getEmail());
@@ -38,41 +58,72 @@ public class UserService {
         mailService.sendVerificationMail(user);
     }
 
+    @Transactional
     public void activateUser(UserActivationDto dto) {
         var normalizedEmail = normalize(dto.getEmail());
         var user = userRepository.findByEmailAndActive(normalizedEmail, false).orElseThrow(wrongEmailException());
         if (!dto.getVerificationCode().equals(user.getVerificationCode())) {
             throw new IllegalArgumentException("Wrong verification code");
         }
-        userRepository.save(user.toBuilder().verificationCode(null).active(true).build());
+        var activatedUser = user.toBuilder().verificationCode(null).active(true).build();
+        userRepository.save(activatedUser);
+        afterCommit(() -> userNameIndex.put(UserDto.from(activatedUser)));
     }
 
     public String signIn(SignInDto dto) {
         var normalizedEmail = normalize(dto.getEmail());
-        return userRepository.findByEmailAndActive(normalizedEmail, true)
-                .filter(user -> securityService.matches(dto.getPassword(), user.getPassword()))
-                .map(User::getId)
-                .map(securityService::generateAccessToken)
+        var user = userRepository.findByEmailAndActive(normalizedEmail, true)
+                .filter(activeUser -> securityService.matches(dto.getPassword(), activeUser.getPassword()))
                 .orElseThrow(() -> new IllegalArgumentException("Wrong email or password"));
+        if (securityService.needsRehash(user.getPassword())) {
+            rehashPassword(user, dto.getPassword());
+        }
+        return securityService.generateAccessToken(user.getId());
+    }
+
+    // Note: the password is already verified, so rehashing is skipped when hashing is overloaded
+    // instead of failing the sign in; it is retried on one of the next sign ins.
+    private void rehashPassword(User user, String rawPassword) {
+        String encodedPassword;
+        try {
+            encodedPassword = securityService.encode(rawPassword);
+        } catch (ServiceOverloadedException e) {
+            return;
+        }
+        userRepository.save(user.toBuilder().password(encodedPassword).build());
     }
 
     public void resetPassword(ResetPasswordDto dto) {
         var normalizedEmail = normalize(dto.getEmail());
         var user = userRepository.findByEmailAndActive(normalizedEmail, true).orElseThrow(wrongEmailException());
-        var newPassword = idGenerator.generate();
+        var newPassword = securityService.generatePassword();
         var encodedNewPassword = securityService.encode(newPassword);
-        userRepository.save(user.toBuilder().password(encodedNewPassword).build());
+        transactionOperations.executeWithoutResult(status -> {
+            userRepository.save(user.toBuilder().password(encodedNewPassword).build());
+            accessTokenRevocationService.revokeAccessTokens(user.getId());
+        });
         mailService.sendPasswordResetMail(normalizedEmail, newPassword);
     }
 
+    @Transactional
     public UserDto getMe() {
         var requesterId = securityService.getRequesterId();
         return getUser(requesterId);
     }
 
+    @Transactional
     public UserDto getUser(String userId) {
-        var user = getActiveUser(userId);
-        return UserDto.from(user);
+        return userRepository.findByIdAndActive(userId, true, UserDto.class).orElseThrow(wrongUserIdException());
+    }
+
+    @Transactional
+    public List<UserDto> getUsers(Collection<String> userIds) {
+        var distinctUserIds = new HashSet<>(userIds);
+        var users = userRepository.findAllByIdInAndActive(distinctUserIds, true, UserDto.class);
+        if (users.size() != distinctUserIds.size()) {
+            throw wrongUserIdException().get();
+        }
+        return users;
     }
 
     public void updateMe(UserUpdateDto dto) {
@@ -82,12 +133,21 @@ public class UserService {
                 .lastName(dto.getLastName())
                 .countryCode(dto.getCountryCode())
                 .city(dto.getCity());
-        if (StringUtils.isNotBlank(dto.getPassword())) {
+        var passwordIsUpdated = StringUtils.isNotBlank(dto.getPassword());
+        if (passwordIsUpdated) {
             userBuilder.password(securityService.encode(dto.getPassword()));
         }
-        userRepository.save(userBuilder.build());
+        var updatedUser = userBuilder.build();
+        transactionOperations.executeWithoutResult(status -> {
+            userRepository.save(updatedUser);
+            if (passwordIsUpdated) {
+                accessTokenRevocationService.revokeAccessTokens(requesterId);
+            }
+            afterCommit(() -> userNameIndex.put(UserDto.from(updatedUser)));
+        });
     }
 
+    @Transactional
     public void uploadImage(MultipartFile image) {
         var requesterId = securityService.getRequesterId();
         var user = getActiveUser(requesterId);
@@ -96,10 +156,46 @@ public class UserService {
         userRepository.save(updatedUser);
     }
 
+    @Transactional
     public void deactivateMe() {
         var requesterId = securityService.getRequesterId();
         var user = getActiveUser(requesterId);
         userRepository.save(user.toBuilder().active(false).build());
+        accessTokenRevocationService.revokeAccessTokens(requesterId);
+        afterCommit(() -> userNameIndex.remove(requesterId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserDto> searchForUsersByName(UserNameSearchDto dto) {
+        var limit = dto.getLimit() != null ? dto.getLimit() : DEFAULT_USER_NAME_SEARCH_LIMIT;
+        if (limit < 1 || limit > MAX_USER_NAME_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Limit should be between 1 and " + MAX_USER_NAME_SEARCH_LIMIT);
+        }
+        if (StringUtils.isBlank(dto.getQuery())) {
+            return List.of();
+        }
+        var userIds = userNameIndex.search(dto.getQuery(), limit);
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        // Note: the index may lag behind users changed on other nodes until its next rebuild,
+        // so found users are re-read and those no longer active are skipped.
+        var usersById = userRepository.findAllByIdInAndActive(userIds, true, UserDto.class).stream()
+                .collect(Collectors.toMap(UserDto::getId, Function.identity()));
+        return userIds.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${user-name-index.rebuild-interval-in-millis}")
+    public void rebuildUserNameIndex() {
+        var context = new UsersSearchContext();
+        context.setActive(true);
+        try (var users = userRepository.stream(context)) {
+            userNameIndex.rebuild(users);
+        }
     }
 
     private User getActiveUser(String userId) {
@@ -0,0 +1,67 @@
+package drift.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.Value;
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+public class VerifiedAccessTokenCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "verified-access-tokens";
+
+    private final Clock clock;
+    // Note: keys are token digests, so the heap cost of an entry does not depend on the token length.
+    private final Cache<HashCode, VerifiedAccessToken> verifiedAccessTokens;
+
+    public VerifiedAccessTokenCache(long maximumSize, long tokenTtlInMillis, Clock clock) {
+        this.clock = clock;
+        this.verifiedAccessTokens = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(tokenTtlInMillis, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<VerifiedAccessToken> get(String accessToken) {
+        var key = digest(accessToken);
+        var verifiedAccessToken = verifiedAccessTokens.getIfPresent(key);
+        if (verifiedAccessToken == null) {
+            return Optional.empty();
+        }
+        if (verifiedAccessToken.getExpiresAtMillis() <= clock.millis()) {
+            verifiedAccessTokens.invalidate(key);
+            return Optional.empty();
+        }
+        return Optional.of(verifiedAccessToken);
+    }
+
+    public void put(String accessToken, VerifiedAccessToken verifiedAccessToken) {
+        verifiedAccessTokens.put(digest(accessToken), verifiedAccessToken);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, verifiedAccessTokens, CACHE_NAME);
+    }
+
+    private static HashCode digest(String accessToken) {
+        return Hashing.sha256().hashString(accessToken, StandardCharsets.UTF_8);
+    }
+
+    @Value
+    public static class VerifiedAccessToken {
+        Authentication authentication;
+        long issuedAtMillis;
+        long expiresAtMillis;
+    }
+}
@@ -1,14 +1,29 @@
 package drift.functional
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.google.common.util.concurrent.ThreadFactoryBuilder
+import drift.configuration.properties.IdGeneratorProperties
+import drift.configuration.properties.SecurityProperties
 import drift.repository.*
+import drift.service.AccessTokenRevocations
+import drift.service.ChampionshipStageRosterRegistry
+import drift.service.ChampionshipStandingsCache
+import drift.service.IdGenerator
+import drift.service.PairsRacesBracketRegistry
+import drift.service.QualificationLeaderboardRegistry
+import drift.service.RoleService
+import drift.service.SearchFacetCache
 import drift.service.SecurityService
+import drift.service.UserNameIndex
+import drift.service.UserService
+import drift.util.TransactionRecordingPasswordHasher
 import io.restassured.RestAssured
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.context.SpringBootTest
 import org.springframework.boot.test.context.TestConfiguration
 import org.springframework.boot.web.server.LocalServerPort
 import org.springframework.context.annotation.Bean
+import org.springframework.context.annotation.Primary
 import org.springframework.test.context.ActiveProfiles
 import spock.lang.Specification
 
@@ -43,12 +58,40 @@ abstract class BaseFunctionalTest extends Specification {
     @Autowired
     protected ChampionshipStageJudgeRepository championshipStageJudgeRepository
     @Autowired
+    protected ChampionshipStageQualificationScoreRepository championshipStageQualificationScoreRepository
+    @Autowired
+    protected ChampionshipStageBracketRepository championshipStageBracketRepository
+    @Autowired
+    protected ChampionshipStandingRepository championshipStandingRepository
+    @Autowired
     protected TrainingRepository trainingRepository
     @Autowired
     protected TrainingParticipantRepository trainingParticipantRepository
+    @Autowired
+    protected AccessTokenRevocationRepository accessTokenRevocationRepository
 
     @Autowired
     protected SecurityService securityService
+    @Autowired
+    protected RoleService roleService
+    @Autowired
+    protected AccessTokenRevocations accessTokenRevocations
+    @Autowired
+    protected UserService userService
+    @Autowired
+    protected UserNameIndex userNameIndex
+    @Autowired
+    protected SearchFacetCache searchFacetCache
+    @Autowired
+    protected QualificationLeaderboardRegistry qualificationLeaderboardRegistry
+    @Autowired
+    protected PairsRacesBracketRegistry pairsRacesBracketRegistry
+    @Autowired
+    protected ChampionshipStageRosterRegistry championshipStageRosterRegistry
+    @Autowired
+    protected TransactionRecordingPasswordHasher passwordHasher
+    @Autowired
+    protected ChampionshipStandingsCache championshipStandingsCache
 
     protected String accessTokenForUser1
     protected String accessTokenForUser2
@@ -78,10 +121,27 @@ abstract class BaseFunctionalTest extends Specification {
         championshipStageParticipantRepository.flush()
         championshipStageJudgeRepository.deleteAll()
         championshipStageJudgeRepository.flush()
+        championshipStageQualificationScoreRepository.deleteAll()
+        championshipStageQualificationScoreRepository.flush()
+        championshipStageBracketRepository.deleteAll()
+        championshipStageBracketRepository.flush()
+        championshipStandingRepository.deleteAll()
+        championshipStandingRepository.flush()
         trainingRepository.deleteAll()
         trainingRepository.flush()
         trainingParticipantRepository.deleteAll()
         trainingParticipantRepository.flush()
+        accessTokenRevocationRepository.deleteAll()
+        accessTokenRevocationRepository.flush()
+        [USER_ID_1, USER_ID_2, USER_ID_3].each { roleService.evictRoles(it) }
+        accessTokenRevocations.clear()
+        userNameIndex.rebuild([].stream())
+        searchFacetCache.clear()
+        qualificationLeaderboardRegistry.clear()
+        pairsRacesBracketRegistry.clear()
+        championshipStageRosterRegistry.clear()
+        championshipStandingsCache.clear()
+        passwordHasher.clear()
     }
 
     private static void deleteFiles(String... filePaths) {
@@ -92,5 +152,20 @@ abstract class BaseFunctionalTest extends Specification {
     static class BaseTestContextConfiguration {
         @Bean
         Clock clock() { CLOCK }
+
+        // Note: the id generator waits for the clock once it runs out of ids of the next millisecond,
+        // so it keeps the system clock instead of the fixed one.
+        @Bean
+        IdGenerator idGenerator(IdGeneratorProperties properties) {
+            new IdGenerator(Clock.systemUTC(), properties.nodeId)
+        }
+
+        @Bean
+        @Primary
+        TransactionRecordingPasswordHasher transactionRecordingPasswordHasher(SecurityProperties properties) {
+            new TransactionRecordingPasswordHasher(properties.passwordStrength, properties.passwordHashingThreads,
+                    properties.passwordHashingQueueCapacity, properties.passwordHashingRetryAfterInSeconds,
+                    new ThreadFactoryBuilder().setNameFormat('password-hashing-%d').setDaemon(true).build())
+        }
     }
 }
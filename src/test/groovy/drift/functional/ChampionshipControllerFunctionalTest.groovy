@@ -1,5 +1,7 @@
 package drift.functional
 
+import drift.model.ChampionshipStanding
+
 import static drift.controller.AccessTokenAuthenticationFilter.ACCESS_TOKEN_HEADER
 import static drift.util.TestConstants.*
 import static io.restassured.RestAssured.given
@@ -186,4 +188,52 @@ class ChampionshipControllerFunctionalTest extends BaseFunctionalTest {
                 .then()
                 .statusCode(SC_UNAUTHORIZED)
     }
+
+
+    // --- Championship standings
+
+    def 'should provide championship standings ordered by points'() {
+        given:
+        championshipRepository.saveAndFlush(CHAMPIONSHIP)
+        championshipStandingRepository.saveAllAndFlush([
+                new ChampionshipStanding(CHAMPIONSHIP_ID, USER_ID_1, 10.5d),
+                new ChampionshipStanding(CHAMPIONSHIP_ID, USER_ID_2, 20.5d),
+                new ChampionshipStanding(CHAMPIONSHIP_ID, USER_ID_3, 10.5d)
+        ])
+
+        when:
+        def standings = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .when()
+                .get(STANDINGS_API_URL)
+                .then()
+                .statusCode(SC_OK)
+                .extract().body().as(Map)
+
+        then:
+        standings.keySet() as List == [USER_ID_2, USER_ID_1, USER_ID_3]
+        standings == [(USER_ID_2): 20.5d, (USER_ID_1): 10.5d, (USER_ID_3): 10.5d]
+    }
+
+    def 'should not provide championship standings if championship is not found by id'() {
+        when:
+        def response = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .when()
+                .get(STANDINGS_API_URL)
+                .then()
+                .statusCode(SC_BAD_REQUEST)
+                .extract().body().asString()
+
+        then:
+        response == 'Validation exception: Wrong championship id.'
+    }
+
+    def 'should not provide championship standings in case of request without valid access token'() {
+        expect:
+        when()
+                .get(STANDINGS_API_URL)
+                .then()
+                .statusCode(SC_UNAUTHORIZED)
+    }
 }
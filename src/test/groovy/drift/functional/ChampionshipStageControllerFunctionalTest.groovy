@@ -1,16 +1,25 @@
 package drift.functional
 
+import drift.dto.CarDto
+import drift.dto.UserWithCarsDto
 import drift.model.ChampionshipStageJudge
 import drift.model.ChampionshipStageParticipant
 import drift.model.ChampionshipStagePhase
+import drift.model.ChampionshipStanding
+import drift.service.PairsRacesBracket
 import drift.model.User
+import groovy.json.JsonSlurper
+import io.restassured.RestAssured
 import spock.lang.Ignore
 
 import static drift.controller.AccessTokenAuthenticationFilter.ACCESS_TOKEN_HEADER
+import static drift.controller.SearchController.NEXT_CURSOR_HEADER
 import static drift.util.TestConstants.*
 import static io.restassured.RestAssured.given
 import static io.restassured.RestAssured.when
 import static org.apache.http.HttpStatus.*
+import static org.springframework.http.HttpHeaders.ETAG
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH
 
 class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
 
@@ -51,6 +60,21 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
                 "attemptsPoints": $UPDATED_ATTEMPTS_POINTS
             }
     """
+    private static final UPDATE_QUALIFICATION_RESULTS_BATCH_REQUEST_BODY = """
+            {
+                "judgeUserId": "$CHAMPIONSHIP_STAGE_JUDGE_3.userId",
+                "attemptsPointsByParticipant": {
+                    "$CHAMPIONSHIP_STAGE_PARTICIPANT_1.userId": [70.5, 67],
+                    "$CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId": $UPDATED_ATTEMPTS_POINTS,
+                    "$CHAMPIONSHIP_STAGE_PARTICIPANT_3.userId": $UPDATED_ATTEMPTS_POINTS
+                }
+            }
+    """
+
+    def cleanup() {
+        scoringSystemRepository.findById(SCORING_SYSTEM_ID).ifPresent { scoringSystemRepository.delete(it) }
+        scoringSystemRepository.flush()
+    }
 
 
     // --- Championship stage creation
@@ -594,6 +618,71 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
         (participants as List).sort() == [USER_ID_1, USER_ID_2]
     }
 
+    def 'should not resend championship stage participants until they are changed'() {
+        given:
+        carRepository.saveAndFlush(CAR)
+        championshipStageRepository.saveAndFlush(CHAMPIONSHIP_STAGE)
+
+        expect:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .header(IF_NONE_MATCH, '"0"')
+                .when()
+                .get(CHAMPIONSHIP_STAGE_PARTICIPANTS_API_URL)
+                .then()
+                .statusCode(SC_NOT_MODIFIED)
+                .header(ETAG, '"0"')
+
+        when:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .when()
+                .post(CHAMPIONSHIP_STAGE_PARTICIPANTS_API_URL)
+                .then()
+                .statusCode(SC_OK)
+
+        then:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .header(IF_NONE_MATCH, '"0"')
+                .when()
+                .get(CHAMPIONSHIP_STAGE_PARTICIPANTS_API_URL)
+                .then()
+                .statusCode(SC_OK)
+                .header(ETAG, '"1"')
+                .extract().body().as(String[]) == [USER_ID_1]
+    }
+
+    def 'should provide page of championship stage participants with their active cars'() {
+        given:
+        championshipStageRepository.saveAndFlush(CHAMPIONSHIP_STAGE)
+        userRepository.saveAllAndFlush([
+                User.builder().id(USER_ID_1).email('email-1').password('pwd').active(true).build(),
+                User.builder().id(USER_ID_2).email('email-2').password('pwd').active(true).build()
+        ])
+        carRepository.saveAndFlush(CAR)
+        championshipStageParticipantRepository.saveAllAndFlush([
+                ChampionshipStageParticipant.builder().id('1').championshipStageId(CHAMPIONSHIP_STAGE_ID).userId(USER_ID_1).build(),
+                ChampionshipStageParticipant.builder().id('2').championshipStageId(CHAMPIONSHIP_STAGE_ID).userId(USER_ID_2).build()
+        ])
+
+        when:
+        def response = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .queryParam('limit', 1)
+                .when()
+                .get("$CHAMPIONSHIP_STAGE_PARTICIPANTS_API_URL/expanded")
+                .then()
+                .statusCode(SC_OK)
+                .extract()
+
+        then:
+        def participants = response.body().as(UserWithCarsDto[]) as List
+        participants.collect({ it.user.id }) == [USER_ID_1]
+        participants[0].cars == [CarDto.from(CAR)]
+        response.header(NEXT_CURSOR_HEADER)
+    }
+
     def 'should not provide championship stage if wrong championship stage id is provided'() {
         when:
         def response = given()
@@ -787,6 +876,42 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
         (participants as List).sort() == [USER_ID_1, USER_ID_2]
     }
 
+    def 'should provide page of championship stage judges with their active cars'() {
+        given:
+        championshipStageRepository.saveAndFlush(CHAMPIONSHIP_STAGE)
+        userRepository.saveAllAndFlush([
+                User.builder().id(USER_ID_1).email('email-1').password('pwd').active(true).build(),
+                User.builder().id(USER_ID_2).email('email-2').password('pwd').active(true).build()
+        ])
+        championshipStageJudgeRepository.saveAllAndFlush([
+                ChampionshipStageJudge.builder().id('1').championshipStageId(CHAMPIONSHIP_STAGE_ID).userId(USER_ID_2).build(),
+                ChampionshipStageJudge.builder().id('2').championshipStageId(CHAMPIONSHIP_STAGE_ID).userId(USER_ID_1).build()
+        ])
+
+        when:
+        def response = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .when()
+                .get("$CHAMPIONSHIP_STAGE_JUDGES_API_URL/expanded")
+                .then()
+                .statusCode(SC_OK)
+                .extract()
+
+        then:
+        def judges = response.body().as(UserWithCarsDto[]) as List
+        judges.collect({ it.user.id }) == [USER_ID_1, USER_ID_2]
+        judges.every({ it.cars.isEmpty() })
+        !response.header(NEXT_CURSOR_HEADER)
+    }
+
+    def 'should not provide expanded championship stage judges in case of request without valid access token'() {
+        expect:
+        when()
+                .get("$CHAMPIONSHIP_STAGE_JUDGES_API_URL/expanded")
+                .then()
+                .statusCode(SC_UNAUTHORIZED)
+    }
+
     def 'should not provide championship stage judges if wrong championship stage id is provided'() {
         when:
         def response = given()
@@ -842,11 +967,11 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
                 CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build()
 
         and:
-        championshipStageParticipantRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) == [
-                CHAMPIONSHIP_STAGE_PARTICIPANT_1.toBuilder().qualificationResults(INITIAL_QUALIFICATION_RESULTS).build(),
-                CHAMPIONSHIP_STAGE_PARTICIPANT_2.toBuilder().qualificationResults(INITIAL_QUALIFICATION_RESULTS).build(),
-                CHAMPIONSHIP_STAGE_PARTICIPANT_3.toBuilder().qualificationResults(INITIAL_QUALIFICATION_RESULTS).build()
-        ]
+        championshipStageQualificationScoreRepository.findAll() as Set == (
+                toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_1.userId, INITIAL_QUALIFICATION_RESULTS) +
+                        toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId, INITIAL_QUALIFICATION_RESULTS) +
+                        toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_3.userId, INITIAL_QUALIFICATION_RESULTS)
+        ) as Set
     }
 
     def 'should not start qualification if wrong championship stage id is provided'() {
@@ -925,12 +1050,14 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
         given:
         def championshipStage = CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.PAIRS_RACES).build()
         def participants = [
-                CHAMPIONSHIP_STAGE_PARTICIPANT_1.toBuilder().qualificationResults(QUALIFICATION_RESULTS).build(),
-                CHAMPIONSHIP_STAGE_PARTICIPANT_2.toBuilder().qualificationResults(QUALIFICATION_RESULTS).build(),
-                CHAMPIONSHIP_STAGE_PARTICIPANT_3.toBuilder().qualificationResults(QUALIFICATION_RESULTS).build()
+                CHAMPIONSHIP_STAGE_PARTICIPANT_1,
+                CHAMPIONSHIP_STAGE_PARTICIPANT_2,
+                CHAMPIONSHIP_STAGE_PARTICIPANT_3
         ]
+        def scores = participants.collectMany { toQualificationScores(it.userId, QUALIFICATION_RESULTS) }
         championshipStageRepository.saveAndFlush(championshipStage)
         championshipStageParticipantRepository.saveAllAndFlush(participants)
+        championshipStageQualificationScoreRepository.saveAllAndFlush(scores)
 
         when:
         def response = given()
@@ -949,6 +1076,9 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
 
         and:
         championshipStageParticipantRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) == participants
+
+        and:
+        championshipStageQualificationScoreRepository.findAll() as Set == scores as Set
     }
 
     def 'should not start qualification if judges are not assigned'() {
@@ -1004,8 +1134,9 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
         championshipStageRepository.saveAndFlush(
                 CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build())
         championshipStageJudgeRepository.saveAndFlush(CHAMPIONSHIP_STAGE_JUDGE_3)
-        championshipStageParticipantRepository.saveAndFlush(
-                CHAMPIONSHIP_STAGE_PARTICIPANT_2.toBuilder().qualificationResults(INITIAL_QUALIFICATION_RESULTS).build())
+        championshipStageParticipantRepository.saveAndFlush(CHAMPIONSHIP_STAGE_PARTICIPANT_2)
+        championshipStageQualificationScoreRepository.saveAllAndFlush(
+                toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId, INITIAL_QUALIFICATION_RESULTS))
 
         when:
         given()
@@ -1018,8 +1149,8 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
                 .statusCode(SC_OK)
 
         then:
-        championshipStageParticipantRepository.findById(CHAMPIONSHIP_STAGE_PARTICIPANT_2.id).get() ==
-                CHAMPIONSHIP_STAGE_PARTICIPANT_2.toBuilder().qualificationResults(UPDATED_QUALIFICATION_RESULTS).build()
+        championshipStageQualificationScoreRepository.findAll() as Set ==
+                toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId, UPDATED_QUALIFICATION_RESULTS) as Set
     }
 
     def 'should not update qualification results if wrong championship stage id is provided'() {
@@ -1042,8 +1173,10 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
         given:
         championshipStageRepository.saveAndFlush(
                 CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build())
-        def participant = CHAMPIONSHIP_STAGE_PARTICIPANT_2.toBuilder().qualificationResults(INITIAL_QUALIFICATION_RESULTS).build()
+        def participant = CHAMPIONSHIP_STAGE_PARTICIPANT_2
+        def scores = toQualificationScores(participant.userId, INITIAL_QUALIFICATION_RESULTS)
         championshipStageParticipantRepository.saveAndFlush(participant)
+        championshipStageQualificationScoreRepository.saveAllAndFlush(scores)
 
         when:
         given()
@@ -1056,15 +1189,17 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
                 .statusCode(SC_BAD_REQUEST)
 
         then:
-        championshipStageParticipantRepository.findById(participant.id).get() == participant
+        championshipStageQualificationScoreRepository.findAll() as Set == scores as Set
     }
 
     def 'should not update qualification results if request without valid access token'() {
         given:
         championshipStageRepository.saveAndFlush(
                 CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build())
-        def participant = CHAMPIONSHIP_STAGE_PARTICIPANT_2.toBuilder().qualificationResults(INITIAL_QUALIFICATION_RESULTS).build()
+        def participant = CHAMPIONSHIP_STAGE_PARTICIPANT_2
+        def scores = toQualificationScores(participant.userId, INITIAL_QUALIFICATION_RESULTS)
         championshipStageParticipantRepository.saveAndFlush(participant)
+        championshipStageQualificationScoreRepository.saveAllAndFlush(scores)
 
         when:
         given()
@@ -1076,7 +1211,7 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
                 .statusCode(SC_UNAUTHORIZED)
 
         then:
-        championshipStageParticipantRepository.findById(participant.id).get() == participant
+        championshipStageQualificationScoreRepository.findAll() as Set == scores as Set
     }
 
     def 'should not update qualification results if championship stage is not in QUALIFICATION phase'() {
@@ -1084,8 +1219,10 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
         championshipStageRepository.saveAndFlush(
                 CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.PAIRS_RACES).build())
         championshipStageJudgeRepository.saveAndFlush(CHAMPIONSHIP_STAGE_JUDGE_3)
-        def participant = CHAMPIONSHIP_STAGE_PARTICIPANT_2.toBuilder().qualificationResults(QUALIFICATION_RESULTS).build()
+        def participant = CHAMPIONSHIP_STAGE_PARTICIPANT_2
+        def scores = toQualificationScores(participant.userId, QUALIFICATION_RESULTS)
         championshipStageParticipantRepository.saveAndFlush(participant)
+        championshipStageQualificationScoreRepository.saveAllAndFlush(scores)
 
         when:
         def response = given()
@@ -1102,15 +1239,17 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
         response == 'Validation exception: Qualification results can be updated during QUALIFICATION phase only.'
 
         and:
-        championshipStageParticipantRepository.findById(participant.id).get() == participant
+        championshipStageQualificationScoreRepository.findAll() as Set == scores as Set
     }
 
     def 'should not update qualification results if wrong judge user id is provided'() {
         given:
         championshipStageRepository.saveAndFlush(
                 CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build())
-        def participant = CHAMPIONSHIP_STAGE_PARTICIPANT_2.toBuilder().qualificationResults(INITIAL_QUALIFICATION_RESULTS).build()
+        def participant = CHAMPIONSHIP_STAGE_PARTICIPANT_2
+        def scores = toQualificationScores(participant.userId, INITIAL_QUALIFICATION_RESULTS)
         championshipStageParticipantRepository.saveAndFlush(participant)
+        championshipStageQualificationScoreRepository.saveAllAndFlush(scores)
 
         when:
         def response = given()
@@ -1127,7 +1266,7 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
         response == 'Validation exception: Wrong judge user id.'
 
         and:
-        championshipStageParticipantRepository.findById(participant.id).get() == participant
+        championshipStageQualificationScoreRepository.findAll() as Set == scores as Set
     }
 
     def 'should not update qualification results if wrong participant user id is provided'() {
@@ -1135,8 +1274,10 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
         championshipStageRepository.saveAndFlush(
                 CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build())
         championshipStageJudgeRepository.saveAndFlush(CHAMPIONSHIP_STAGE_JUDGE_3)
-        def participant = CHAMPIONSHIP_STAGE_PARTICIPANT_1.toBuilder().qualificationResults(INITIAL_QUALIFICATION_RESULTS).build()
+        def participant = CHAMPIONSHIP_STAGE_PARTICIPANT_1
+        def scores = toQualificationScores(participant.userId, INITIAL_QUALIFICATION_RESULTS)
         championshipStageParticipantRepository.saveAndFlush(participant)
+        championshipStageQualificationScoreRepository.saveAllAndFlush(scores)
 
         when:
         def response = given()
@@ -1153,16 +1294,18 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
         response == 'Validation exception: Wrong participant user id.'
 
         and:
-        championshipStageParticipantRepository.findById(participant.id).get() == participant
+        championshipStageQualificationScoreRepository.findAll() as Set == scores as Set
     }
 
-    def 'should not update qualification results if wrong number of attempts is provided'() {
+    def 'should not update qualification results if wrong attempts points are provided'() {
         given:
         championshipStageRepository.saveAndFlush(
                 CHAMPIONSHIP_STAGE.toBuilder().attempts(2).phase(ChampionshipStagePhase.QUALIFICATION).build())
         championshipStageJudgeRepository.saveAndFlush(CHAMPIONSHIP_STAGE_JUDGE_3)
-        def participant = CHAMPIONSHIP_STAGE_PARTICIPANT_2.toBuilder().qualificationResults(INITIAL_QUALIFICATION_RESULTS).build()
+        def participant = CHAMPIONSHIP_STAGE_PARTICIPANT_2
+        def scores = toQualificationScores(participant.userId, INITIAL_QUALIFICATION_RESULTS)
         championshipStageParticipantRepository.saveAndFlush(participant)
+        championshipStageQualificationScoreRepository.saveAllAndFlush(scores)
 
         when:
         def response = given()
@@ -1176,10 +1319,88 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
                 .extract().body().asString()
 
         then:
-        response == 'Validation exception: Wrong number of attempts.'
+        response == 'Validation exception: Wrong attempts points.'
 
         and:
-        championshipStageParticipantRepository.findById(participant.id).get() == participant
+        championshipStageQualificationScoreRepository.findAll() as Set == scores as Set
+    }
+
+
+    // --- Update qualification results batch
+
+    def 'should update qualification results batch and report status of each participant'() {
+        given:
+        championshipStageRepository.saveAndFlush(
+                CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build())
+        championshipStageJudgeRepository.saveAndFlush(CHAMPIONSHIP_STAGE_JUDGE_3)
+        championshipStageParticipantRepository.saveAllAndFlush([CHAMPIONSHIP_STAGE_PARTICIPANT_1, CHAMPIONSHIP_STAGE_PARTICIPANT_2])
+        def participant1Scores = toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_1.userId, INITIAL_QUALIFICATION_RESULTS)
+        championshipStageQualificationScoreRepository.saveAllAndFlush(
+                participant1Scores + toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId, INITIAL_QUALIFICATION_RESULTS))
+
+        when:
+        def response = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body(UPDATE_QUALIFICATION_RESULTS_BATCH_REQUEST_BODY)
+                .when()
+                .put(QUALIFICATION_RESULTS_BATCH_API_URL)
+                .then()
+                .statusCode(SC_OK)
+                .extract().body().as(Map)
+
+        then:
+        response == [
+                (CHAMPIONSHIP_STAGE_PARTICIPANT_1.userId): 'WRONG_ATTEMPTS_POINTS',
+                (CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId): 'UPDATED',
+                (CHAMPIONSHIP_STAGE_PARTICIPANT_3.userId): 'WRONG_PARTICIPANT_USER_ID'
+        ]
+
+        and:
+        championshipStageQualificationScoreRepository.findAll() as Set == (
+                participant1Scores + toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId, UPDATED_QUALIFICATION_RESULTS)
+        ) as Set
+    }
+
+    def 'should not update qualification results batch if request is invalid'() {
+        given:
+        championshipStageRepository.saveAndFlush(
+                CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build())
+        championshipStageJudgeRepository.saveAndFlush(CHAMPIONSHIP_STAGE_JUDGE_3)
+
+        expect:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body('{}')
+                .when()
+                .put(QUALIFICATION_RESULTS_BATCH_API_URL)
+                .then()
+                .statusCode(SC_BAD_REQUEST)
+    }
+
+    def 'should not update qualification results batch if championship stage is not in QUALIFICATION phase'() {
+        given:
+        championshipStageRepository.saveAndFlush(CHAMPIONSHIP_STAGE)
+        championshipStageJudgeRepository.saveAndFlush(CHAMPIONSHIP_STAGE_JUDGE_3)
+        championshipStageParticipantRepository.saveAndFlush(CHAMPIONSHIP_STAGE_PARTICIPANT_2)
+
+        when:
+        def response = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body(UPDATE_QUALIFICATION_RESULTS_BATCH_REQUEST_BODY)
+                .when()
+                .put(QUALIFICATION_RESULTS_BATCH_API_URL)
+                .then()
+                .statusCode(SC_BAD_REQUEST)
+                .extract().body().asString()
+
+        then:
+        response == 'Validation exception: Qualification results can be updated during QUALIFICATION phase only.'
+
+        and:
+        championshipStageQualificationScoreRepository.findAll().isEmpty()
     }
 
 
@@ -1189,10 +1410,14 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
         given:
         championshipStageRepository.saveAndFlush(CHAMPIONSHIP_STAGE)
         championshipStageParticipantRepository.saveAllAndFlush([
-                CHAMPIONSHIP_STAGE_PARTICIPANT_1.toBuilder().qualificationResults(QUALIFICATION_RESULTS).build(),
-                CHAMPIONSHIP_STAGE_PARTICIPANT_2.toBuilder().qualificationResults(UPDATED_QUALIFICATION_RESULTS).build(),
-                CHAMPIONSHIP_STAGE_PARTICIPANT_3.toBuilder().qualificationResults(INITIAL_QUALIFICATION_RESULTS).build()
+                CHAMPIONSHIP_STAGE_PARTICIPANT_1,
+                CHAMPIONSHIP_STAGE_PARTICIPANT_2,
+                CHAMPIONSHIP_STAGE_PARTICIPANT_3
         ])
+        championshipStageQualificationScoreRepository.saveAllAndFlush(
+                toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_1.userId, QUALIFICATION_RESULTS) +
+                        toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId, UPDATED_QUALIFICATION_RESULTS) +
+                        toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_3.userId, INITIAL_QUALIFICATION_RESULTS))
 
         when:
         def response = given()
@@ -1210,6 +1435,68 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
         qualificationResults.get(CHAMPIONSHIP_STAGE_PARTICIPANT_3.userId) == 0d
     }
 
+    def 'should not resend qualification results until they are changed'() {
+        given:
+        championshipStageRepository.saveAndFlush(
+                CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build())
+        championshipStageJudgeRepository.saveAndFlush(CHAMPIONSHIP_STAGE_JUDGE_3)
+        championshipStageParticipantRepository.saveAndFlush(CHAMPIONSHIP_STAGE_PARTICIPANT_2)
+        championshipStageQualificationScoreRepository.saveAllAndFlush(
+                toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId, INITIAL_QUALIFICATION_RESULTS))
+        def etag = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .when()
+                .get(QUALIFICATION_RESULTS_API_URL)
+                .then()
+                .statusCode(SC_OK)
+                .extract().header(ETAG)
+
+        expect:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .header(IF_NONE_MATCH, etag)
+                .when()
+                .get(QUALIFICATION_RESULTS_API_URL)
+                .then()
+                .statusCode(SC_NOT_MODIFIED)
+                .header(ETAG, etag)
+
+        when:
+        qualificationLeaderboardRegistry.clear()
+
+        then:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .header(IF_NONE_MATCH, etag)
+                .when()
+                .get(QUALIFICATION_RESULTS_API_URL)
+                .then()
+                .statusCode(SC_NOT_MODIFIED)
+                .header(ETAG, etag)
+
+        when:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body(UPDATE_QUALIFICATION_RESULTS_REQUEST_BODY)
+                .when()
+                .put(QUALIFICATION_RESULTS_API_URL)
+                .then()
+                .statusCode(SC_OK)
+        def response = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .header(IF_NONE_MATCH, etag)
+                .when()
+                .get(QUALIFICATION_RESULTS_API_URL)
+                .then()
+                .statusCode(SC_OK)
+                .extract()
+
+        then:
+        response.header(ETAG) != etag
+        response.body().as(Map) == [(CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId): 70.95d]
+    }
+
     def 'should not provide qualification results if wrong championship stage id is provided'() {
         when:
         def response = given()
@@ -1233,6 +1520,94 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
     }
 
 
+    // --- Qualification results streaming
+
+    def 'should stream qualification results standings and then changed rows only'() {
+        given:
+        championshipStageRepository.saveAndFlush(
+                CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build())
+        championshipStageJudgeRepository.saveAndFlush(CHAMPIONSHIP_STAGE_JUDGE_3)
+        championshipStageParticipantRepository.saveAllAndFlush([CHAMPIONSHIP_STAGE_PARTICIPANT_1, CHAMPIONSHIP_STAGE_PARTICIPANT_2])
+        championshipStageQualificationScoreRepository.saveAllAndFlush(
+                toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_1.userId, QUALIFICATION_RESULTS) +
+                        toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId, INITIAL_QUALIFICATION_RESULTS))
+
+        and:
+        def connection = openQualificationResultsStream()
+        def reader = connection.inputStream.newReader('UTF-8')
+
+        when:
+        def standingsEvent = readEvent(reader)
+
+        and:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body(UPDATE_QUALIFICATION_RESULTS_REQUEST_BODY)
+                .when()
+                .put(QUALIFICATION_RESULTS_API_URL)
+                .then()
+                .statusCode(SC_OK)
+
+        and:
+        def changesEvent = readEvent(reader)
+
+        then:
+        connection.responseCode == SC_OK
+        standingsEvent == [
+                event: 'standings',
+                data : [(CHAMPIONSHIP_STAGE_PARTICIPANT_1.userId): 244, (CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId): 0]
+        ]
+        changesEvent == [
+                event: 'changes',
+                data : [(CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId): 70.95]
+        ]
+
+        cleanup:
+        connection?.disconnect()
+    }
+
+    def 'should not stream qualification results if wrong championship stage id is provided'() {
+        when:
+        def response = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .when()
+                .get(QUALIFICATION_RESULTS_STREAM_API_URL)
+                .then()
+                .statusCode(SC_BAD_REQUEST)
+                .extract().body().asString()
+
+        then:
+        response == 'Validation exception: Wrong championship stage id.'
+    }
+
+    def 'should not stream qualification results if request without valid access token'() {
+        expect:
+        when()
+                .get(QUALIFICATION_RESULTS_STREAM_API_URL)
+                .then()
+                .statusCode(SC_UNAUTHORIZED)
+    }
+
+    private HttpURLConnection openQualificationResultsStream() {
+        def connection = new URL("http://localhost:$RestAssured.port$QUALIFICATION_RESULTS_STREAM_API_URL").openConnection() as HttpURLConnection
+        connection.setRequestProperty(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+        connection.readTimeout = 10_000
+        connection
+    }
+
+    private static Map readEvent(BufferedReader reader) {
+        def event = [:]
+        def line = reader.readLine()
+        while (line) {
+            def (name, value) = line.split(':', 2)
+            event[name] = name == 'data' ? new JsonSlurper().parseText(value) : value
+            line = reader.readLine()
+        }
+        event
+    }
+
+
     // --- Qualification results retrieval by judge
 
     def 'should provide qualification results by judge successfully'() {
@@ -1240,10 +1615,14 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
         championshipStageRepository.saveAndFlush(CHAMPIONSHIP_STAGE)
         championshipStageJudgeRepository.saveAndFlush(CHAMPIONSHIP_STAGE_JUDGE_3)
         championshipStageParticipantRepository.saveAllAndFlush([
-                CHAMPIONSHIP_STAGE_PARTICIPANT_1.toBuilder().qualificationResults(QUALIFICATION_RESULTS).build(),
-                CHAMPIONSHIP_STAGE_PARTICIPANT_2.toBuilder().qualificationResults(UPDATED_QUALIFICATION_RESULTS).build(),
-                CHAMPIONSHIP_STAGE_PARTICIPANT_3.toBuilder().qualificationResults(INITIAL_QUALIFICATION_RESULTS).build()
+                CHAMPIONSHIP_STAGE_PARTICIPANT_1,
+                CHAMPIONSHIP_STAGE_PARTICIPANT_2,
+                CHAMPIONSHIP_STAGE_PARTICIPANT_3
         ])
+        championshipStageQualificationScoreRepository.saveAllAndFlush(
+                toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_1.userId, QUALIFICATION_RESULTS) +
+                        toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId, UPDATED_QUALIFICATION_RESULTS) +
+                        toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_3.userId, INITIAL_QUALIFICATION_RESULTS))
 
         when:
         def response = given()
@@ -1299,4 +1678,176 @@ class ChampionshipStageControllerFunctionalTest extends BaseFunctionalTest {
                 .then()
                 .statusCode(SC_UNAUTHORIZED)
     }
+
+
+    // --- PAIRS RACES FLOW
+
+
+    // --- Pairs races start
+
+    def 'should start pairs races successfully'() {
+        given:
+        scoringSystemRepository.saveAndFlush(SCORING_SYSTEM.toBuilder().participantsAfterQualification(2).build())
+        championshipRepository.saveAndFlush(CHAMPIONSHIP)
+        championshipStageRepository.saveAndFlush(
+                CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build())
+        championshipStageParticipantRepository.saveAllAndFlush([
+                CHAMPIONSHIP_STAGE_PARTICIPANT_1,
+                CHAMPIONSHIP_STAGE_PARTICIPANT_2,
+                CHAMPIONSHIP_STAGE_PARTICIPANT_3
+        ])
+        championshipStageQualificationScoreRepository.saveAllAndFlush(
+                toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_1.userId, INITIAL_QUALIFICATION_RESULTS) +
+                        toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId, UPDATED_QUALIFICATION_RESULTS) +
+                        toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_3.userId, QUALIFICATION_RESULTS))
+
+        when:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .when()
+                .post(START_PAIRS_RACES_API_URL)
+                .then()
+                .statusCode(SC_OK)
+
+        then:
+        championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID).get().phase == ChampionshipStagePhase.PAIRS_RACES
+        championshipStageBracketRepository.findById(CHAMPIONSHIP_STAGE_ID).get().participantUserIds ==
+                [CHAMPIONSHIP_STAGE_PARTICIPANT_3.userId, CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId]
+
+        when:
+        def battles = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .when()
+                .get(BATTLES_API_URL)
+                .then()
+                .statusCode(SC_OK)
+                .extract().body().as(List)
+
+        then:
+        battles == [[
+                number      : 1,
+                top         : 2,
+                leaderUserId: CHAMPIONSHIP_STAGE_PARTICIPANT_3.userId,
+                chaserUserId: CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId,
+                winnerUserId: null,
+                omt         : 0
+        ]]
+    }
+
+    def 'should not start pairs races if championship stage is not in QUALIFICATION phase'() {
+        given:
+        championshipStageRepository.saveAndFlush(CHAMPIONSHIP_STAGE)
+
+        when:
+        def response = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .when()
+                .post(START_PAIRS_RACES_API_URL)
+                .then()
+                .statusCode(SC_BAD_REQUEST)
+                .extract().body().asString()
+
+        then:
+        response == 'Validation exception: Pairs races can be started from QUALIFICATION phase only.'
+
+        and:
+        championshipStageBracketRepository.findAll().isEmpty()
+    }
+
+
+    // --- Battle result update
+
+    def 'should update battle result successfully'() {
+        given:
+        def bracket = PairsRacesBracket.seed([USER_ID_1, USER_ID_2, USER_ID_3], N_OMT_1)
+        championshipStageRepository.saveAndFlush(
+                CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.PAIRS_RACES).build())
+        championshipStageBracketRepository.saveAndFlush(bracket.toSnapshot(CHAMPIONSHIP_STAGE_ID))
+
+        when:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body("""{"winnerUserId": "$USER_ID_3"}""")
+                .when()
+                .put("$BATTLES_API_URL/3")
+                .then()
+                .statusCode(SC_OK)
+
+        then:
+        PairsRacesBracket.from(championshipStageBracketRepository.findById(CHAMPIONSHIP_STAGE_ID).get()).getBattles() ==
+                bracket.withWinner(3, USER_ID_3).getBattles()
+        championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID).get().phase == ChampionshipStagePhase.PAIRS_RACES
+    }
+
+    def 'should finalize championship stage and add championship standings points after the final'() {
+        given:
+        def bracket = PairsRacesBracket.seed([USER_ID_3, USER_ID_2], N_OMT_1)
+        scoringSystemRepository.saveAndFlush(SCORING_SYSTEM.toBuilder().build())
+        championshipRepository.saveAndFlush(CHAMPIONSHIP)
+        championshipStageRepository.saveAndFlush(
+                CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.PAIRS_RACES).build())
+        championshipStageParticipantRepository.saveAllAndFlush([
+                CHAMPIONSHIP_STAGE_PARTICIPANT_1,
+                CHAMPIONSHIP_STAGE_PARTICIPANT_2,
+                CHAMPIONSHIP_STAGE_PARTICIPANT_3
+        ])
+        championshipStageQualificationScoreRepository.saveAllAndFlush(
+                toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_1.userId, INITIAL_QUALIFICATION_RESULTS) +
+                        toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_2.userId, UPDATED_QUALIFICATION_RESULTS) +
+                        toQualificationScores(CHAMPIONSHIP_STAGE_PARTICIPANT_3.userId, QUALIFICATION_RESULTS))
+        championshipStageBracketRepository.saveAndFlush(bracket.toSnapshot(CHAMPIONSHIP_STAGE_ID))
+        championshipStandingRepository.saveAndFlush(new ChampionshipStanding(CHAMPIONSHIP_ID, USER_ID_1, 100d))
+
+        when:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body("""{"winnerUserId": "$USER_ID_2"}""")
+                .when()
+                .put("$BATTLES_API_URL/1")
+                .then()
+                .statusCode(SC_OK)
+
+        then:
+        championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID).get().phase == ChampionshipStagePhase.FINALIZATION
+        championshipStandingRepository.findAllByChampionshipIdOrderByPointsDescUserIdAsc(CHAMPIONSHIP_ID) == [
+                new ChampionshipStanding(CHAMPIONSHIP_ID, USER_ID_1, 100d + (PARTICIPATION_POINTS + QUALIFICATION_POINTS[2])),
+                new ChampionshipStanding(CHAMPIONSHIP_ID, USER_ID_2, PARTICIPATION_POINTS + QUALIFICATION_POINTS[1] + POINTS[0]),
+                new ChampionshipStanding(CHAMPIONSHIP_ID, USER_ID_3, PARTICIPATION_POINTS + QUALIFICATION_POINTS[0] + POINTS[1])
+        ]
+    }
+
+    def 'should not update battle result if battle participants are not determined yet'() {
+        given:
+        def bracket = PairsRacesBracket.seed([USER_ID_1, USER_ID_2, USER_ID_3], N_OMT_1)
+        championshipStageRepository.saveAndFlush(
+                CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.PAIRS_RACES).build())
+        championshipStageBracketRepository.saveAndFlush(bracket.toSnapshot(CHAMPIONSHIP_STAGE_ID))
+
+        when:
+        def response = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body("""{"winnerUserId": "$USER_ID_1"}""")
+                .when()
+                .put("$BATTLES_API_URL/1")
+                .then()
+                .statusCode(SC_BAD_REQUEST)
+                .extract().body().asString()
+
+        then:
+        response == 'Validation exception: Battle participants are not determined yet.'
+    }
+
+    def 'should not update battle result if request without valid access token'() {
+        expect:
+        given()
+                .contentType(JSON_CONTENT_TYPE)
+                .body("""{"winnerUserId": "$USER_ID_1"}""")
+                .when()
+                .put("$BATTLES_API_URL/1")
+                .then()
+                .statusCode(SC_UNAUTHORIZED)
+    }
 }
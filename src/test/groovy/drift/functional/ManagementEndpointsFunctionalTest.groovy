@@ -0,0 +1,46 @@
+package drift.functional
+
+import org.springframework.boot.actuate.autoconfigure.web.server.LocalManagementPort
+
+import static drift.controller.AccessTokenAuthenticationFilter.ACCESS_TOKEN_HEADER
+import static io.restassured.RestAssured.given
+import static org.apache.http.HttpStatus.SC_NOT_FOUND
+import static org.apache.http.HttpStatus.SC_OK
+import static org.apache.http.HttpStatus.SC_UNAUTHORIZED
+
+class ManagementEndpointsFunctionalTest extends BaseFunctionalTest {
+
+    private static final METRICS_URI = '/actuator/metrics'
+
+    @LocalManagementPort
+    private int managementPort
+
+    def 'should provide metrics on management port only'() {
+        expect:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .when()
+                .get(METRICS_URI)
+                .then()
+                .statusCode(SC_NOT_FOUND)
+
+        and:
+        given()
+                .port(managementPort)
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .when()
+                .get(METRICS_URI)
+                .then()
+                .statusCode(SC_OK)
+    }
+
+    def 'should not provide metrics in case of request without valid access token'() {
+        expect:
+        given()
+                .port(managementPort)
+                .when()
+                .get(METRICS_URI)
+                .then()
+                .statusCode(SC_UNAUTHORIZED)
+    }
+}
@@ -4,6 +4,8 @@ import drift.dto.UserDto
 import drift.model.User
 import spock.lang.Ignore
 
+import java.time.Instant
+
 import static drift.controller.AccessTokenAuthenticationFilter.ACCESS_TOKEN_HEADER
 import static drift.util.TestConstants.*
 import static io.restassured.RestAssured.given
@@ -59,6 +61,20 @@ class MeControllerFunctionalTest extends BaseFunctionalTest {
         response == 'Validation exception: Wrong user id.'
     }
 
+    def "should not retrieve requester's user in case of request with revoked access token"() {
+        given:
+        userRepository.saveAndFlush(USER)
+        accessTokenRevocations.put(USER_ID_1, Instant.ofEpochMilli(TIMESTAMP + 1000))
+
+        expect:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .when()
+                .get(ME_API_URL)
+                .then()
+                .statusCode(SC_UNAUTHORIZED)
+    }
+
     def "should not retrieve requester's user in case of request without valid access token"() {
         expect:
         when()
@@ -96,6 +112,26 @@ class MeControllerFunctionalTest extends BaseFunctionalTest {
         updatedUser.active
     }
 
+    def "should hash requester's new password without holding transaction or database connection"() {
+        given:
+        userRepository.saveAndFlush(USER)
+
+        when:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body(USER_UPDATE_REQUEST_BODY)
+                .when()
+                .put(ME_API_URL)
+                .then()
+                .statusCode(SC_OK)
+
+        then:
+        passwordHasher.hashingContexts.size() == 1
+        !passwordHasher.hashingContexts[0].transactionActive
+        passwordHasher.hashingContexts[0].boundResources.isEmpty()
+    }
+
     def "should not update requester's user if active user is not found by id"() {
         when:
         def response = given()
@@ -141,6 +177,7 @@ class MeControllerFunctionalTest extends BaseFunctionalTest {
 
         then:
         userRepository.findById(USER_ID_1).get() == deactivatedUser
+        accessTokenRevocationRepository.findById(USER_ID_1).get().notBefore == Instant.ofEpochMilli(TIMESTAMP)
     }
 
     def "should not deactivate requester's user if active user is not found by id"() {
@@ -7,6 +7,8 @@ import static drift.util.TestConstants.*
 import static io.restassured.RestAssured.given
 import static io.restassured.RestAssured.when
 import static org.apache.http.HttpStatus.*
+import static org.springframework.http.HttpHeaders.ETAG
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH
 
 class ScoringSystemControllerFunctionalTest extends BaseFunctionalTest {
 
@@ -84,9 +86,43 @@ class ScoringSystemControllerFunctionalTest extends BaseFunctionalTest {
                 .statusCode(SC_UNAUTHORIZED)
     }
 
+    def 'should not resend scoring systems until they are changed'() {
+        given:
+        def etag = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .when()
+                .get(BASE_SCORING_SYSTEMS_API_URL)
+                .then()
+                .statusCode(SC_OK)
+                .extract().header(ETAG)
+
+        expect:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .header(IF_NONE_MATCH, etag)
+                .when()
+                .get(BASE_SCORING_SYSTEMS_API_URL)
+                .then()
+                .statusCode(SC_NOT_MODIFIED)
+                .header(ETAG, etag)
+
+        when:
+        scoringSystemRepository.saveAndFlush(SCORING_SYSTEM.toBuilder().build())
+
+        then:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .header(IF_NONE_MATCH, etag)
+                .when()
+                .get(BASE_SCORING_SYSTEMS_API_URL)
+                .then()
+                .statusCode(SC_OK)
+                .extract().header(ETAG) != etag
+    }
+
     def 'should retrieve scoring system by id successfully'() {
         given:
-        scoringSystemRepository.saveAndFlush(SCORING_SYSTEM)
+        scoringSystemRepository.saveAndFlush(SCORING_SYSTEM.toBuilder().build())
 
         when:
         def scoringSystem = given()
@@ -101,6 +137,36 @@ class ScoringSystemControllerFunctionalTest extends BaseFunctionalTest {
         scoringSystem == SCORING_SYSTEM_DTO
     }
 
+    def 'should not resend scoring system until it is changed'() {
+        given:
+        scoringSystemRepository.saveAndFlush(SCORING_SYSTEM.toBuilder().build())
+
+        expect:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .header(IF_NONE_MATCH, '"0"')
+                .when()
+                .get(SCORING_SYSTEM_URI)
+                .then()
+                .statusCode(SC_NOT_MODIFIED)
+                .header(ETAG, '"0"')
+
+        when:
+        def scoringSystem = scoringSystemRepository.findById(SCORING_SYSTEM_ID).get()
+        scoringSystemRepository.saveAndFlush(scoringSystem.toBuilder().name(NAME_2).build())
+
+        then:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .header(IF_NONE_MATCH, '"0"')
+                .when()
+                .get(SCORING_SYSTEM_URI)
+                .then()
+                .statusCode(SC_OK)
+                .header(ETAG, '"1"')
+                .extract().body().as(ScoringSystemDto) == SCORING_SYSTEM_DTO.toBuilder().name(NAME_2).build()
+    }
+
     def 'should not retrieve scoring system by id if scoring system is not found by id'() {
         when:
         def response = given()
@@ -142,7 +208,7 @@ class ScoringSystemControllerFunctionalTest extends BaseFunctionalTest {
                 .extract().body().asString()
 
         then:
-        scoringSystemRepository.findById(scoringSystemId).get() == SCORING_SYSTEM.toBuilder().id(scoringSystemId).build()
+        scoringSystemRepository.findById(scoringSystemId).get() == SCORING_SYSTEM.toBuilder().id(scoringSystemId).version(0L).build()
     }
 
     def 'should not create scoring system in case of incorrect request'() {
@@ -3,16 +3,70 @@ package drift.functional
 import drift.dto.*
 import drift.model.User
 import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
 import spock.lang.Unroll
 
 import static drift.controller.AccessTokenAuthenticationFilter.ACCESS_TOKEN_HEADER
+import static drift.controller.SearchController.NEXT_CURSOR_HEADER
 import static drift.util.TestConstants.*
 import static io.restassured.RestAssured.given
+import static org.apache.http.HttpStatus.SC_BAD_REQUEST
 import static org.apache.http.HttpStatus.SC_OK
 import static org.apache.http.HttpStatus.SC_UNAUTHORIZED
 
 class SearchControllerFunctionalTest extends BaseFunctionalTest {
 
+    private static final NDJSON_CONTENT_TYPE = 'application/x-ndjson'
+
+    // --- Unified search
+
+    def 'should perform requested searches at once'() {
+        given:
+        userRepository.saveAllAndFlush([
+                User.builder().id('user-1').email('email-1').password('pwd').active(true).build(),
+                User.builder().id('user-2').email('email-2').password('pwd').active(false).build()
+        ])
+        trainingRepository.saveAllAndFlush([
+                TRAINING.toBuilder().id('tr-1').build(),
+                TRAINING.toBuilder().id('tr-2').build()
+        ])
+
+        when:
+        def response = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body(JsonOutput.toJson(['users': ['active': true], 'trainings': ['limit': 1]]))
+                .when()
+                .post("$BASE_SEARCH_API_URL/all")
+                .then()
+                .statusCode(SC_OK)
+                .extract().body().asString()
+
+        then:
+        def result = new JsonSlurper().parseText(response)
+        result.users.items*.id == ['user-1']
+        result.users.nextCursor == null
+        result.trainings.items*.id == ['tr-1']
+        result.trainings.nextCursor
+        result.cars == null
+        result.organisations == null
+        result.championships == null
+        result.championshipStages == null
+        result.timedOut == []
+    }
+
+    def 'should not perform unified search in case of request without valid access token'() {
+        expect:
+        given()
+                .contentType(JSON_CONTENT_TYPE)
+                .body('{}')
+                .when()
+                .post("$BASE_SEARCH_API_URL/all")
+                .then()
+                .statusCode(SC_UNAUTHORIZED)
+    }
+
+
     // --- Users search
 
     @Unroll
@@ -51,6 +105,80 @@ class SearchControllerFunctionalTest extends BaseFunctionalTest {
         'by empty criteria' | [:]                                    | ['user-1','user-2','user-3','user-4']
     }
 
+    def 'should page users search results by cursor'() {
+        given:
+        userRepository.saveAllAndFlush((1..5).collect {
+            User.builder().id("user-$it").email("email-$it").password('pwd').active(true).build()
+        })
+
+        when:
+        def firstPage = searchForUsers(['limit': 2])
+
+        then:
+        firstPage.body().as(UserDto[]).collect({ it.id }) == ['user-1', 'user-2']
+
+        when:
+        def secondPage = searchForUsers(['limit': 2, 'cursor': firstPage.header(NEXT_CURSOR_HEADER)])
+
+        then:
+        secondPage.body().as(UserDto[]).collect({ it.id }) == ['user-3', 'user-4']
+
+        when:
+        def lastPage = searchForUsers(['limit': 2, 'cursor': secondPage.header(NEXT_CURSOR_HEADER)])
+
+        then:
+        lastPage.body().as(UserDto[]).collect({ it.id }) == ['user-5']
+        !lastPage.header(NEXT_CURSOR_HEADER)
+    }
+
+    def 'should stream users search results as NDJSON'() {
+        given:
+        userRepository.saveAllAndFlush((1..60).collect {
+            User.builder().id(String.format('user-%02d', it)).email("email-$it").password('pwd').active(it % 2 == 0).build()
+        })
+
+        when:
+        def response = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body(JsonOutput.toJson(['active': true]))
+                .when()
+                .post("$BASE_SEARCH_API_URL/users/stream")
+                .then()
+                .statusCode(SC_OK)
+                .contentType(NDJSON_CONTENT_TYPE)
+                .extract().body().asString()
+
+        then:
+        def users = response.readLines().collect { new JsonSlurper().parseText(it) }
+        users.size() == 30
+        users.collect { it.id } == (1..30).collect { String.format('user-%02d', 2 * it) }
+        users.every { it.active }
+    }
+
+    @Unroll
+    def 'should not perform users search if #incorrectness'() {
+        when:
+        def response = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body(JsonOutput.toJson(requestBody))
+                .when()
+                .post("$BASE_SEARCH_API_URL/users")
+                .then()
+                .statusCode(SC_BAD_REQUEST)
+                .extract().body().asString()
+
+        then:
+        response == "Validation exception: $message."
+
+        where:
+        incorrectness          | requestBody          || message
+        'limit is too small'   | ['limit': 0]         || 'Limit should be between 1 and 200'
+        'limit is too big'     | ['limit': 201]       || 'Limit should be between 1 and 200'
+        'cursor is not base64' | ['cursor': '%%']     || 'Wrong cursor'
+    }
+
     def 'should not perform users search in case of request without valid access token'() {
         expect:
         given()
@@ -63,6 +191,56 @@ class SearchControllerFunctionalTest extends BaseFunctionalTest {
     }
 
 
+    // --- Users search by name
+
+    def 'should search for active users by prefixes of their names'() {
+        given:
+        userRepository.saveAllAndFlush([
+                User.builder().id('user-1').email('john@mail.com').password('pwd').firstName('John').lastName('Smith').active(true).build(),
+                User.builder().id('user-2').email('jane@mail.com').password('pwd').firstName('Jane').lastName('Smith').active(true).build(),
+                User.builder().id('user-3').email('jack@mail.com').password('pwd').firstName('Jack').lastName('Smith').active(false).build()
+        ])
+        userService.rebuildUserNameIndex()
+
+        expect:
+        searchForUsersByName(['query': 'smi']).collect({ it.id }) == ['user-1', 'user-2']
+        searchForUsersByName(['query': 'jo sm']).collect({ it.id }) == ['user-1']
+        searchForUsersByName(['query': 'smith', 'limit': 1]).collect({ it.id }) == ['user-1']
+        searchForUsersByName(['query': 'jack']).isEmpty()
+    }
+
+    def "should find requester's user by updated name"() {
+        given:
+        userRepository.saveAndFlush(
+                User.builder().id(USER_ID_1).email(NORMALIZED_EMAIL).password(PASSWORD_1_ENCODED).active(true).build())
+        userService.rebuildUserNameIndex()
+
+        when:
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body(JsonOutput.toJson(['firstName': 'Winston', 'lastName': 'Churchill']))
+                .when()
+                .put(ME_API_URL)
+                .then()
+                .statusCode(SC_OK)
+
+        then:
+        searchForUsersByName(['query': 'winst']).collect({ it.id }) == [USER_ID_1]
+    }
+
+    def 'should not search for users by name in case of request without valid access token'() {
+        expect:
+        given()
+                .contentType(JSON_CONTENT_TYPE)
+                .body('{"query":"jo"}')
+                .when()
+                .post("$BASE_SEARCH_API_URL/users/typeahead")
+                .then()
+                .statusCode(SC_UNAUTHORIZED)
+    }
+
+
     // --- Cars search
 
     @Unroll
@@ -314,6 +492,63 @@ class SearchControllerFunctionalTest extends BaseFunctionalTest {
         'by empty criteria'   | [:]                                    | ['tr-1','tr-2','tr-3','tr-4','tr-5']
     }
 
+    def 'should page trainings search results by start timestamp and id'() {
+        given:
+        trainingRepository.saveAllAndFlush([
+                TRAINING.toBuilder().id('tr-1').startTimestamp(TIMESTAMP_1_AS_INSTANT.plusSeconds(10)).build(),
+                TRAINING.toBuilder().id('tr-2').startTimestamp(TIMESTAMP_1_AS_INSTANT).build(),
+                TRAINING.toBuilder().id('tr-3').startTimestamp(TIMESTAMP_1_AS_INSTANT).build(),
+                TRAINING.toBuilder().id('tr-4').startTimestamp(TIMESTAMP_1_AS_INSTANT.plusSeconds(5)).build()
+        ])
+
+        when:
+        def firstPage = searchForTrainings(['limit': 3])
+
+        then:
+        firstPage.body().as(TrainingDto[]).collect({ it.id }) == ['tr-2', 'tr-3', 'tr-4']
+
+        when:
+        def lastPage = searchForTrainings(['limit': 3, 'cursor': firstPage.header(NEXT_CURSOR_HEADER)])
+
+        then:
+        lastPage.body().as(TrainingDto[]).collect({ it.id }) == ['tr-1']
+        !lastPage.header(NEXT_CURSOR_HEADER)
+    }
+
+    def 'should stream trainings search results ordered by start timestamp and id'() {
+        given:
+        trainingRepository.saveAllAndFlush([
+                TRAINING.toBuilder().id('tr-1').startTimestamp(TIMESTAMP_1_AS_INSTANT.plusSeconds(10)).build(),
+                TRAINING.toBuilder().id('tr-2').startTimestamp(TIMESTAMP_1_AS_INSTANT).build(),
+                TRAINING.toBuilder().id('tr-3').startTimestamp(TIMESTAMP_1_AS_INSTANT).active(false).build()
+        ])
+
+        when:
+        def response = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body('{}')
+                .when()
+                .post("$BASE_SEARCH_API_URL/trainings/stream")
+                .then()
+                .statusCode(SC_OK)
+                .extract().body().asString()
+
+        then:
+        response.readLines().collect { new JsonSlurper().parseText(it).id } == ['tr-2', 'tr-3', 'tr-1']
+    }
+
+    def 'should not stream trainings search results in case of request without valid access token'() {
+        expect:
+        given()
+                .contentType(JSON_CONTENT_TYPE)
+                .body('{}')
+                .when()
+                .post("$BASE_SEARCH_API_URL/trainings/stream")
+                .then()
+                .statusCode(SC_UNAUTHORIZED)
+    }
+
     def 'should not perform trainings search in case of request without valid access token'() {
         expect:
         given()
@@ -324,4 +559,243 @@ class SearchControllerFunctionalTest extends BaseFunctionalTest {
                 .then()
                 .statusCode(SC_UNAUTHORIZED)
     }
+
+
+    // --- Full-text search
+
+    def 'should page championship stages full-text search results by relevance'() {
+        given:
+        championshipStageRepository.saveAllAndFlush([
+                CHAMPIONSHIP_STAGE.toBuilder().id('stage-1').name('Winter drift cup').description('Drift on ice').location('Moscow').build(),
+                CHAMPIONSHIP_STAGE.toBuilder().id('stage-2').name('Summer cup').description('Gymkhana').location('Sochi').build(),
+                CHAMPIONSHIP_STAGE.toBuilder().id('stage-3').name('Drift final').description('Drift, drift and drift').location('Kazan').build(),
+                CHAMPIONSHIP_STAGE.toBuilder().id('stage-4').name('Autumn sprint').description('Sprint race').location('Moscow').build()
+        ])
+
+        when:
+        def firstPage = search('championship-stages/full-text', ['query': 'drift', 'limit': 1])
+
+        then:
+        firstPage.body().as(ChampionshipStageDto[]).collect({ it.id }) == ['stage-3']
+
+        when:
+        def lastPage = search('championship-stages/full-text', ['query': 'drift', 'limit': 1, 'cursor': firstPage.header(NEXT_CURSOR_HEADER)])
+
+        then:
+        lastPage.body().as(ChampionshipStageDto[]).collect({ it.id }) == ['stage-1']
+        !lastPage.header(NEXT_CURSOR_HEADER)
+    }
+
+    def 'should perform trainings full-text search by location and active flag'() {
+        given:
+        trainingRepository.saveAllAndFlush([
+                TRAINING.toBuilder().id('tr-1').name('Drift training').location('Moscow raceway').build(),
+                TRAINING.toBuilder().id('tr-2').name('Gymkhana training').location('Sochi autodrom').build(),
+                TRAINING.toBuilder().id('tr-3').name('Evening session').location('Moscow raceway').active(false).build()
+        ])
+
+        when:
+        def result = search('trainings/full-text', ['query': 'moscow', 'active': true])
+
+        then:
+        result.body().as(TrainingDto[]).collect({ it.id }) == ['tr-1']
+    }
+
+    def 'should perform organisations full-text search by name and description'() {
+        given:
+        organisationRepository.saveAllAndFlush([
+                ORGANISATION.toBuilder().id('org-1').name('Drift club').description('Moscow community').build(),
+                ORGANISATION.toBuilder().id('org-2').name('Racing team').description('Circuit racing').build(),
+                ORGANISATION.toBuilder().id('org-3').name('Kart club').description('Karting community').build()
+        ])
+
+        when:
+        def result = search('organisations/full-text', ['query': 'circuit'])
+
+        then:
+        result.body().as(OrganisationDto[]).collect({ it.id }) == ['org-2']
+    }
+
+    @Unroll
+    def 'should not perform full-text search if #incorrectness'() {
+        when:
+        def response = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body(JsonOutput.toJson(requestBody))
+                .when()
+                .post("$BASE_SEARCH_API_URL/trainings/full-text")
+                .then()
+                .statusCode(SC_BAD_REQUEST)
+                .extract().body().asString()
+
+        then:
+        response == "Validation exception: $message."
+
+        where:
+        incorrectness           | requestBody                        || message
+        'query is not provided' | [:]                                || 'Query should not be empty'
+        'query is blank'        | ['query': ' ']                     || 'Query should not be empty'
+        'limit is too big'      | ['query': 'drift', 'limit': 201]   || 'Limit should be between 1 and 200'
+        'cursor is not offset'  | ['query': 'drift', 'cursor': 'YQ'] || 'Wrong cursor'
+    }
+
+    def 'should not perform full-text search in case of request without valid access token'() {
+        expect:
+        given()
+                .contentType(JSON_CONTENT_TYPE)
+                .body('{"query":"drift"}')
+                .when()
+                .post("$BASE_SEARCH_API_URL/organisations/full-text")
+                .then()
+                .statusCode(SC_UNAUTHORIZED)
+    }
+
+
+    // --- Facets
+
+    def 'should count championships matching search context by owner'() {
+        given:
+        championshipRepository.saveAllAndFlush([
+                CHAMPIONSHIP.toBuilder().id('champ-1').ownerId(USER_ID_1).active(true).build(),
+                CHAMPIONSHIP.toBuilder().id('champ-2').ownerId(USER_ID_1).active(true).build(),
+                CHAMPIONSHIP.toBuilder().id('champ-3').ownerId(USER_ID_2).active(false).build(),
+                CHAMPIONSHIP.toBuilder().id('champ-4').ownerId(USER_ID_2).active(true).build()
+        ])
+
+        when:
+        def counts = search('championships/facets/ownerId', ['active': true, 'limit': 1]).body().as(Map)
+
+        then:
+        counts == [(USER_ID_1): 2, (USER_ID_2): 1]
+    }
+
+    def 'should serve cached counts for repeated facet request'() {
+        given:
+        trainingRepository.saveAndFlush(TRAINING.toBuilder().id('tr-1').organisationId('org-1').build())
+        search('trainings/facets/organisationId', [:])
+
+        and:
+        trainingRepository.saveAndFlush(TRAINING.toBuilder().id('tr-2').organisationId('org-1').build())
+
+        expect:
+        search('trainings/facets/organisationId', ['cursor': 'any']).body().as(Map) == ['org-1': 1]
+    }
+
+    def 'should not count search results by attribute which is not a facet'() {
+        when:
+        def response = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body('{}')
+                .when()
+                .post("$BASE_SEARCH_API_URL/championship-stages/facets/location")
+                .then()
+                .statusCode(SC_BAD_REQUEST)
+                .extract().body().asString()
+
+        then:
+        response == 'Validation exception: Facet should be one of [active, championshipId].'
+    }
+
+    def 'should not count search results in case of request without valid access token'() {
+        expect:
+        given()
+                .contentType(JSON_CONTENT_TYPE)
+                .body('{}')
+                .when()
+                .post("$BASE_SEARCH_API_URL/users/facets/active")
+                .then()
+                .statusCode(SC_UNAUTHORIZED)
+    }
+
+
+    // --- Upcoming events search
+
+    def 'should page upcoming events merged from championship stages and trainings by start timestamp and id'() {
+        given:
+        championshipStageRepository.saveAllAndFlush([
+                CHAMPIONSHIP_STAGE.toBuilder().id('stage-1').startTimestamp(TIMESTAMP_1_AS_INSTANT.plusSeconds(10)).build(),
+                CHAMPIONSHIP_STAGE.toBuilder().id('stage-2').startTimestamp(TIMESTAMP_1_AS_INSTANT).build(),
+                CHAMPIONSHIP_STAGE.toBuilder().id('stage-3').startTimestamp(TIMESTAMP_1_AS_INSTANT).active(false).build(),
+                CHAMPIONSHIP_STAGE.toBuilder().id('stage-4').startTimestamp(CLOCK.instant().minusSeconds(1)).build()
+        ])
+        trainingRepository.saveAllAndFlush([
+                TRAINING.toBuilder().id('tr-1').startTimestamp(TIMESTAMP_1_AS_INSTANT).build(),
+                TRAINING.toBuilder().id('tr-2').startTimestamp(TIMESTAMP_1_AS_INSTANT.plusSeconds(5)).build(),
+                TRAINING.toBuilder().id('tr-3').startTimestamp(TIMESTAMP_2_AS_INSTANT).build()
+        ])
+
+        when:
+        def firstPage = searchForEvents(['limit': 3, 'startTimestampTo': TIMESTAMP_2])
+
+        then:
+        firstPage.body().as(EventDto[]).collect({ it.id }) == ['stage-2', 'tr-1', 'tr-2']
+        firstPage.body().as(EventDto[]).collect({ it.type }) == [EventType.CHAMPIONSHIP_STAGE, EventType.TRAINING, EventType.TRAINING]
+        firstPage.body().as(EventDto[])[0].championshipStage.id == 'stage-2'
+        firstPage.body().as(EventDto[])[1].training.id == 'tr-1'
+
+        when:
+        def lastPage = searchForEvents(['limit': 3, 'startTimestampTo': TIMESTAMP_2, 'cursor': firstPage.header(NEXT_CURSOR_HEADER)])
+
+        then:
+        lastPage.body().as(EventDto[]).collect({ it.id }) == ['stage-1']
+        !lastPage.header(NEXT_CURSOR_HEADER)
+    }
+
+    def 'should search for events starting in provided time window'() {
+        given:
+        championshipStageRepository.saveAllAndFlush([
+                CHAMPIONSHIP_STAGE.toBuilder().id('stage-1').startTimestamp(CLOCK.instant().minusSeconds(1)).build()
+        ])
+        trainingRepository.saveAllAndFlush([
+                TRAINING.toBuilder().id('tr-1').startTimestamp(TIMESTAMP_1_AS_INSTANT).build()
+        ])
+
+        when:
+        def result = searchForEvents(['startTimestampFrom': TIMESTAMP - 1000, 'startTimestampTo': TIMESTAMP_1])
+
+        then:
+        result.body().as(EventDto[]).collect({ it.id }) == ['stage-1']
+    }
+
+    def 'should not search for events in case of request without valid access token'() {
+        expect:
+        given()
+                .contentType(JSON_CONTENT_TYPE)
+                .body('{}')
+                .when()
+                .post("$BASE_SEARCH_API_URL/events")
+                .then()
+                .statusCode(SC_UNAUTHORIZED)
+    }
+
+
+    private searchForUsers(Map requestBody) {
+        search('users', requestBody)
+    }
+
+    private searchForUsersByName(Map requestBody) {
+        search('users/typeahead', requestBody).body().as(UserDto[]) as List
+    }
+
+    private searchForTrainings(Map requestBody) {
+        search('trainings', requestBody)
+    }
+
+    private searchForEvents(Map requestBody) {
+        search('events', requestBody)
+    }
+
+    private search(String target, Map requestBody) {
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .contentType(JSON_CONTENT_TYPE)
+                .body(JsonOutput.toJson(requestBody))
+                .when()
+                .post("$BASE_SEARCH_API_URL/$target")
+                .then()
+                .statusCode(SC_OK)
+                .extract()
+    }
 }
@@ -1,9 +1,14 @@
 package drift.functional
 
+import drift.dto.CarDto
+import drift.dto.UserDto
+import drift.dto.UserWithCarsDto
 import drift.model.TrainingParticipant
+import drift.model.User
 import spock.lang.Ignore
 
 import static drift.controller.AccessTokenAuthenticationFilter.ACCESS_TOKEN_HEADER
+import static drift.controller.SearchController.NEXT_CURSOR_HEADER
 import static drift.util.TestConstants.*
 import static io.restassured.RestAssured.given
 import static io.restassured.RestAssured.when
@@ -558,6 +563,51 @@ class TrainingControllerFunctionalTest extends BaseFunctionalTest {
         (participants as List).sort() == [USER_ID_1, USER_ID_2]
     }
 
+    def 'should provide pages of training participants with their active cars'() {
+        given:
+        trainingRepository.saveAndFlush(TRAINING)
+        userRepository.saveAllAndFlush([
+                User.builder().id(USER_ID_1).email('email-1').password('pwd').active(true).build(),
+                User.builder().id(USER_ID_2).email('email-2').password('pwd').active(true).build()
+        ])
+        carRepository.saveAndFlush(CAR)
+        trainingParticipantRepository.saveAllAndFlush([
+                TrainingParticipant.builder().id('1').trainingId(TRAINING_ID).userId(USER_ID_1).build(),
+                TrainingParticipant.builder().id('2').trainingId(TRAINING_ID).userId(USER_ID_2).build()
+        ])
+
+        when:
+        def firstPage = getExpandedParticipants([limit: 1])
+
+        then:
+        (firstPage.body().as(UserWithCarsDto[]) as List) == [new UserWithCarsDto(UserDto.from(User.builder().id(USER_ID_1).email('email-1').active(true).build()), [CarDto.from(CAR)])]
+
+        when:
+        def lastPage = getExpandedParticipants([limit: 1, cursor: firstPage.header(NEXT_CURSOR_HEADER)])
+
+        then:
+        (lastPage.body().as(UserWithCarsDto[]) as List).collect({ it.user.id }) == [USER_ID_2]
+        !lastPage.header(NEXT_CURSOR_HEADER)
+    }
+
+    def 'should not provide expanded training participants if wrong limit is provided'() {
+        given:
+        trainingRepository.saveAndFlush(TRAINING)
+
+        when:
+        def response = given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .queryParam('limit', 0)
+                .when()
+                .get("$TRAINING_PARTICIPANTS_API_URL/expanded")
+                .then()
+                .statusCode(SC_BAD_REQUEST)
+                .extract().body().asString()
+
+        then:
+        response.startsWith('Validation exception: Limit should be between 1 and ')
+    }
+
     def 'should not provide training participants if wrong training id is provided'() {
         when:
         def response = given()
@@ -579,4 +629,15 @@ class TrainingControllerFunctionalTest extends BaseFunctionalTest {
                 .then()
                 .statusCode(SC_UNAUTHORIZED)
     }
+
+    private getExpandedParticipants(Map queryParams) {
+        given()
+                .header(ACCESS_TOKEN_HEADER, accessTokenForUser1)
+                .queryParams(queryParams)
+                .when()
+                .get("$TRAINING_PARTICIPANTS_API_URL/expanded")
+                .then()
+                .statusCode(SC_OK)
+                .extract()
+    }
 }
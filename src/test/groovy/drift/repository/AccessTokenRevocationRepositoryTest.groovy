@@ -0,0 +1,39 @@
+package drift.repository
+
+import drift.functional.BaseFunctionalTest
+import drift.model.AccessTokenRevocation
+
+import java.time.Instant
+
+import static drift.util.TestConstants.*
+
+class AccessTokenRevocationRepositoryTest extends BaseFunctionalTest {
+
+    private static final NOT_BEFORE = Instant.ofEpochMilli(TIMESTAMP)
+
+    def 'should find revocations with not before timestamp since provided one'() {
+        given:
+        accessTokenRevocationRepository.saveAllAndFlush([
+                new AccessTokenRevocation(USER_ID_1, NOT_BEFORE.minusSeconds(10)),
+                new AccessTokenRevocation(USER_ID_2, NOT_BEFORE),
+                new AccessTokenRevocation(USER_ID_3, NOT_BEFORE.plusSeconds(10))
+        ])
+
+        expect:
+        accessTokenRevocationRepository.findAllByNotBeforeGreaterThanEqual(NOT_BEFORE) as Set == [
+                new AccessTokenRevocation(USER_ID_2, NOT_BEFORE),
+                new AccessTokenRevocation(USER_ID_3, NOT_BEFORE.plusSeconds(10))
+        ] as Set
+    }
+
+    def 'should override not before timestamp of user on repeated revocation'() {
+        given:
+        accessTokenRevocationRepository.saveAndFlush(new AccessTokenRevocation(USER_ID_1, NOT_BEFORE))
+
+        when:
+        accessTokenRevocationRepository.saveAndFlush(new AccessTokenRevocation(USER_ID_1, NOT_BEFORE.plusSeconds(10)))
+
+        then:
+        accessTokenRevocationRepository.findAll() == [new AccessTokenRevocation(USER_ID_1, NOT_BEFORE.plusSeconds(10))]
+    }
+}
@@ -0,0 +1,45 @@
+package drift.repository
+
+import drift.functional.BaseFunctionalTest
+import drift.service.PairsRacesBracket
+import org.springframework.orm.ObjectOptimisticLockingFailureException
+
+import static drift.util.TestConstants.*
+
+class ChampionshipStageBracketRepositoryTest extends BaseFunctionalTest {
+
+    private static final BRACKET = PairsRacesBracket.seed([USER_ID_1, USER_ID_2, USER_ID_3], N_OMT_1)
+
+    def 'should save and find bracket snapshot'() {
+        when:
+        def savedSnapshot = championshipStageBracketRepository.saveAndFlush(BRACKET.toSnapshot(CHAMPIONSHIP_STAGE_ID))
+
+        then:
+        championshipStageBracketRepository.findById(CHAMPIONSHIP_STAGE_ID).get() ==
+                BRACKET.withVersion(savedSnapshot.version).toSnapshot(CHAMPIONSHIP_STAGE_ID)
+    }
+
+    def 'should find persisted bracket snapshot version'() {
+        given:
+        def savedSnapshot = championshipStageBracketRepository.saveAndFlush(BRACKET.toSnapshot(CHAMPIONSHIP_STAGE_ID))
+        def updatedSnapshot = championshipStageBracketRepository.saveAndFlush(
+                BRACKET.withVersion(savedSnapshot.version).withOmt(1).toSnapshot(CHAMPIONSHIP_STAGE_ID))
+
+        expect:
+        championshipStageBracketRepository.findVersion(CHAMPIONSHIP_STAGE_ID) == Optional.of(updatedSnapshot.version)
+        championshipStageBracketRepository.findVersion(CHAMPIONSHIP_STAGE_ID + 1) == Optional.empty()
+    }
+
+    def 'should not save bracket snapshot based on outdated version'() {
+        given:
+        def savedSnapshot = championshipStageBracketRepository.saveAndFlush(BRACKET.toSnapshot(CHAMPIONSHIP_STAGE_ID))
+        def savedBracket = BRACKET.withVersion(savedSnapshot.version)
+        championshipStageBracketRepository.saveAndFlush(savedBracket.withWinner(3, USER_ID_2).toSnapshot(CHAMPIONSHIP_STAGE_ID))
+
+        when:
+        championshipStageBracketRepository.saveAndFlush(savedBracket.withWinner(3, USER_ID_3).toSnapshot(CHAMPIONSHIP_STAGE_ID))
+
+        then:
+        thrown(ObjectOptimisticLockingFailureException)
+    }
+}
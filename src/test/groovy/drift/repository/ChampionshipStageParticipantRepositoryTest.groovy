@@ -6,9 +6,7 @@ import org.springframework.orm.jpa.JpaSystemException
 
 import javax.validation.ConstraintViolationException
 
-import static drift.util.TestConstants.CHAMPIONSHIP_STAGE_PARTICIPANT_1
 import static drift.util.TestConstants.CHAMPIONSHIP_STAGE_PARTICIPANT_ID_1
-import static drift.util.TestConstants.QUALIFICATION_RESULTS
 
 class ChampionshipStageParticipantRepositoryTest extends BaseFunctionalTest {
 
@@ -34,13 +32,4 @@ class ChampionshipStageParticipantRepositoryTest extends BaseFunctionalTest {
             field -> assert exception.message.contains("interpolatedMessage='must not be null', propertyPath=$field")
         })
     }
-
-    def 'should save qualification results correctly'() {
-        when:
-        championshipStageParticipantRepository.saveAndFlush(
-                CHAMPIONSHIP_STAGE_PARTICIPANT_1.toBuilder().qualificationResults(QUALIFICATION_RESULTS).build())
-
-        then:
-        championshipStageParticipantRepository.findById(CHAMPIONSHIP_STAGE_PARTICIPANT_ID_1).get().qualificationResults == QUALIFICATION_RESULTS
-    }
 }
@@ -0,0 +1,54 @@
+package drift.repository
+
+import drift.functional.BaseFunctionalTest
+
+import static drift.util.TestConstants.*
+
+class ChampionshipStageQualificationScoreRepositoryTest extends BaseFunctionalTest {
+
+    def 'should insert all scores and update them on repeated upsert'() {
+        given:
+        def initialScores = toQualificationScores(USER_ID_1, INITIAL_QUALIFICATION_RESULTS)
+        def updatedScores = toQualificationScores(USER_ID_1, UPDATED_QUALIFICATION_RESULTS)
+
+        when:
+        championshipStageQualificationScoreRepository.upsertAll(initialScores)
+
+        then:
+        championshipStageQualificationScoreRepository.findAll() as Set == initialScores as Set
+
+        when:
+        championshipStageQualificationScoreRepository.upsertAll(updatedScores)
+
+        then:
+        championshipStageQualificationScoreRepository.findAll() as Set == updatedScores as Set
+    }
+
+    def 'should upsert attempts points of judge for participant in single statement'() {
+        given:
+        championshipStageQualificationScoreRepository.saveAllAndFlush(
+                toQualificationScores(USER_ID_1, INITIAL_QUALIFICATION_RESULTS))
+
+        when:
+        championshipStageQualificationScoreRepository.upsert(
+                CHAMPIONSHIP_STAGE_ID, CHAMPIONSHIP_STAGE_JUDGE_3.userId, USER_ID_1, UPDATED_ATTEMPTS_POINTS)
+
+        then:
+        championshipStageQualificationScoreRepository.findAll() as Set ==
+                toQualificationScores(USER_ID_1, UPDATED_QUALIFICATION_RESULTS) as Set
+    }
+
+    def 'should find scores by championship stage and judge'() {
+        given:
+        championshipStageQualificationScoreRepository.saveAllAndFlush(
+                toQualificationScores(USER_ID_1, QUALIFICATION_RESULTS) +
+                        toQualificationScores(USER_ID_2, UPDATED_QUALIFICATION_RESULTS))
+
+        expect:
+        championshipStageQualificationScoreRepository.findAllByChampionshipStageIdAndJudgeUserId(
+                CHAMPIONSHIP_STAGE_ID, CHAMPIONSHIP_STAGE_JUDGE_3.userId) as Set == (
+                toQualificationScores(USER_ID_1, [(CHAMPIONSHIP_STAGE_JUDGE_3.userId): QUALIFICATION_RESULTS[CHAMPIONSHIP_STAGE_JUDGE_3.userId]]) +
+                        toQualificationScores(USER_ID_2, [(CHAMPIONSHIP_STAGE_JUDGE_3.userId): UPDATED_ATTEMPTS_POINTS])
+        ) as Set
+    }
+}
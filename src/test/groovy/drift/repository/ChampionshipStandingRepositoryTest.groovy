@@ -0,0 +1,43 @@
+package drift.repository
+
+import drift.functional.BaseFunctionalTest
+import drift.model.ChampionshipStanding
+
+import static drift.util.TestConstants.*
+
+class ChampionshipStandingRepositoryTest extends BaseFunctionalTest {
+
+    def 'should insert standings and accumulate points on repeated add'() {
+        when:
+        championshipStandingRepository.addPoints(CHAMPIONSHIP_ID, [(USER_ID_1): 10d, (USER_ID_2): 20d])
+
+        then:
+        championshipStandingRepository.findAllByChampionshipIdOrderByPointsDescUserIdAsc(CHAMPIONSHIP_ID) == [
+                new ChampionshipStanding(CHAMPIONSHIP_ID, USER_ID_2, 20d),
+                new ChampionshipStanding(CHAMPIONSHIP_ID, USER_ID_1, 10d)
+        ]
+
+        when:
+        championshipStandingRepository.addPoints(CHAMPIONSHIP_ID, [(USER_ID_1): 15d, (USER_ID_3): 5d])
+
+        then:
+        championshipStandingRepository.findAllByChampionshipIdOrderByPointsDescUserIdAsc(CHAMPIONSHIP_ID) == [
+                new ChampionshipStanding(CHAMPIONSHIP_ID, USER_ID_1, 25d),
+                new ChampionshipStanding(CHAMPIONSHIP_ID, USER_ID_2, 20d),
+                new ChampionshipStanding(CHAMPIONSHIP_ID, USER_ID_3, 5d)
+        ]
+    }
+
+    def 'should find standings of championship only'() {
+        given:
+        championshipStandingRepository.saveAllAndFlush([
+                new ChampionshipStanding(CHAMPIONSHIP_ID, USER_ID_1, 10d),
+                new ChampionshipStanding('other-championship-id', USER_ID_2, 20d)
+        ])
+
+        expect:
+        championshipStandingRepository.findAllByChampionshipIdOrderByPointsDescUserIdAsc(CHAMPIONSHIP_ID) == [
+                new ChampionshipStanding(CHAMPIONSHIP_ID, USER_ID_1, 10d)
+        ]
+    }
+}
@@ -0,0 +1,24 @@
+package drift.repository
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ListOfIntegersToStringConverterTest extends Specification {
+
+    @Unroll
+    def 'should convert correctly'() {
+        given:
+        def converter = new ListOfIntegersToStringConverter()
+
+        expect:
+        converter.convertToDatabaseColumn(entityAttributeValue) == dbColumnValue
+
+        and:
+        converter.convertToEntityAttribute(dbColumnValue) == entityAttributeValue
+
+        where:
+        entityAttributeValue || dbColumnValue
+        [3, -1, 0]           || '3,-1,0'
+        null                 || null
+    }
+}
@@ -0,0 +1,24 @@
+package drift.repository
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ListOfStringsToStringConverterTest extends Specification {
+
+    @Unroll
+    def 'should convert correctly'() {
+        given:
+        def converter = new ListOfStringsToStringConverter()
+
+        expect:
+        converter.convertToDatabaseColumn(entityAttributeValue) == dbColumnValue
+
+        and:
+        converter.convertToEntityAttribute(dbColumnValue) == entityAttributeValue
+
+        where:
+        entityAttributeValue       || dbColumnValue
+        ['user-id-1', 'user-id-2'] || 'user-id-1,user-id-2'
+        null                       || null
+    }
+}
@@ -2,14 +2,23 @@ package drift.repository
 
 import drift.functional.BaseFunctionalTest
 import drift.model.Organisation
+import io.micrometer.core.instrument.MeterRegistry
+import org.hibernate.SessionFactory
+import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.orm.jpa.JpaSystemException
 
+import javax.persistence.EntityManagerFactory
 import javax.validation.ConstraintViolationException
 
 import static drift.util.TestConstants.*
 
 class OrganisationRepositoryTest extends BaseFunctionalTest {
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory
+    @Autowired
+    private MeterRegistry meterRegistry
+
     def 'should throw exception during saving if [id] field is not set'() {
         when:
         organisationRepository.saveAndFlush(Organisation.builder().build())
@@ -44,4 +53,31 @@ class OrganisationRepositoryTest extends BaseFunctionalTest {
             field -> assert exception.message.contains("interpolatedMessage='must not be null', propertyPath=$field")
         })
     }
+
+    def 'should serve organisation by id from second-level cache and keep it consistent with updates'() {
+        given:
+        organisationRepository.saveAndFlush(ORGANISATION)
+        organisationRepository.findById(ORGANISATION_ID)
+        def statistics = entityManagerFactory.unwrap(SessionFactory).statistics
+        statistics.clear()
+
+        when:
+        def organisations = (1..2).collect { organisationRepository.findById(ORGANISATION_ID).get() }
+
+        then:
+        organisations == [ORGANISATION, ORGANISATION]
+        statistics.secondLevelCacheHitCount == 2
+        statistics.prepareStatementCount == 0
+
+        when:
+        organisationRepository.saveAndFlush(ORGANISATION.toBuilder().description(DESCRIPTION_2).build())
+
+        then:
+        organisationRepository.findById(ORGANISATION_ID).get().description == DESCRIPTION_2
+
+        and:
+        meterRegistry.get('hibernate.second.level.cache.requests')
+                .tags('region', Organisation.name, 'result', 'hit')
+                .functionCounter().count() > 0
+    }
 }
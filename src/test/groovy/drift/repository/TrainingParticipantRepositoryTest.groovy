@@ -1,12 +1,14 @@
 package drift.repository
 
+import drift.dto.CarDto
 import drift.functional.BaseFunctionalTest
 import drift.model.TrainingParticipant
+import drift.model.User
 import org.springframework.orm.jpa.JpaSystemException
 
 import javax.validation.ConstraintViolationException
 
-import static drift.util.TestConstants.TRAINING_PARTICIPANT_ID
+import static drift.util.TestConstants.*
 
 class TrainingParticipantRepositoryTest extends BaseFunctionalTest {
 
@@ -32,4 +34,43 @@ class TrainingParticipantRepositoryTest extends BaseFunctionalTest {
             field -> assert exception.message.contains("interpolatedMessage='must not be null', propertyPath=$field")
         })
     }
+
+    def 'should provide pages of training participants with their active cars'() {
+        given:
+        userRepository.saveAllAndFlush([
+                User.builder().id(USER_ID_1).email('email-1').password('pwd').firstName('First').active(true).build(),
+                User.builder().id(USER_ID_2).email('email-2').password('pwd').active(true).build(),
+                User.builder().id(USER_ID_3).email('email-3').password('pwd').active(true).build()
+        ])
+        carRepository.saveAllAndFlush([
+                CAR.toBuilder().id('car-1').ownerId(USER_ID_1).build(),
+                CAR.toBuilder().id('car-2').ownerId(USER_ID_1).build(),
+                CAR.toBuilder().id('car-3').ownerId(USER_ID_1).active(false).build(),
+                CAR.toBuilder().id('car-4').ownerId(USER_ID_3).build()
+        ])
+        trainingParticipantRepository.saveAllAndFlush([
+                TrainingParticipant.builder().id('1').trainingId(TRAINING_ID).userId(USER_ID_1).build(),
+                TrainingParticipant.builder().id('2').trainingId(TRAINING_ID).userId(USER_ID_2).build(),
+                TrainingParticipant.builder().id('3').trainingId(TRAINING_ID).userId(USER_ID_3).build(),
+                TrainingParticipant.builder().id('4').trainingId('other-training-id').userId(USER_ID_1).build()
+        ])
+
+        when:
+        def firstPage = trainingParticipantRepository.searchUsersWithCars(TRAINING_ID, new UsersWithCarsSearchContext(limit: 2))
+
+        then:
+        firstPage.items.collect({ it.user.id }) == [USER_ID_1, USER_ID_2]
+        firstPage.items[0].user.firstName == 'First'
+        firstPage.items.collect({ it.cars.collect({ car -> car.id }) }) == [['car-1', 'car-2'], []]
+        firstPage.nextCursor
+
+        when:
+        def lastPage = trainingParticipantRepository.searchUsersWithCars(
+                TRAINING_ID, new UsersWithCarsSearchContext(limit: 2, cursor: firstPage.nextCursor))
+
+        then:
+        lastPage.items.collect({ it.user.id }) == [USER_ID_3]
+        lastPage.items[0].cars == [CarDto.from(CAR.toBuilder().id('car-4').ownerId(USER_ID_3).build())]
+        !lastPage.nextCursor
+    }
 }
@@ -1,11 +1,13 @@
 package drift.repository
 
+import drift.exception.ValidationException
 import drift.functional.BaseFunctionalTest
 import drift.model.Training
 import org.springframework.orm.jpa.JpaSystemException
 
 import javax.validation.ConstraintViolationException
 
+import static drift.util.TestConstants.TRAINING
 import static drift.util.TestConstants.TRAINING_ID
 
 class TrainingRepositoryTest extends BaseFunctionalTest {
@@ -34,4 +36,29 @@ class TrainingRepositoryTest extends BaseFunctionalTest {
             field -> assert exception.message.contains("interpolatedMessage='must not be null', propertyPath=$field")
         })
     }
+
+    def 'should count trainings matching search context grouped by facet'() {
+        given:
+        trainingRepository.saveAllAndFlush([
+                TRAINING.toBuilder().id('tr-1').organisationId('org-1').build(),
+                TRAINING.toBuilder().id('tr-2').organisationId('org-2').build(),
+                TRAINING.toBuilder().id('tr-3').organisationId('org-2').build(),
+                TRAINING.toBuilder().id('tr-4').organisationId('org-3').active(false).build()
+        ])
+
+        expect:
+        trainingRepository.countBy(new TrainingsSearchContext(), 'organisationId') == ['org-2': 2L, 'org-1': 1L, 'org-3': 1L]
+        trainingRepository.countBy(new TrainingsSearchContext(active: true), 'organisationId') == ['org-2': 2L, 'org-1': 1L]
+        trainingRepository.countBy(new TrainingsSearchContext(), 'active') == ['true': 3L, 'false': 1L]
+        trainingRepository.countBy(new TrainingsSearchContext(), 'organisationId').keySet() as List == ['org-2', 'org-1', 'org-3']
+    }
+
+    def 'should not count trainings by attribute which is not a facet'() {
+        when:
+        trainingRepository.countBy(new TrainingsSearchContext(), 'location')
+
+        then:
+        def exception = thrown(ValidationException)
+        exception.message == 'Facet should be one of [active, discipline, organisationId, ownerId]'
+    }
 }
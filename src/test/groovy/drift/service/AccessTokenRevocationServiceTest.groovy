@@ -0,0 +1,67 @@
+package drift.service
+
+import drift.model.AccessTokenRevocation
+import drift.repository.AccessTokenRevocationRepository
+import spock.lang.Specification
+
+import java.time.Clock
+import java.time.Instant
+
+import static drift.util.TestConstants.*
+
+class AccessTokenRevocationServiceTest extends Specification {
+
+    private static final TOKEN_TTL_IN_MILLIS = 60000L
+    private static final NOW = Instant.ofEpochMilli(TIMESTAMP)
+
+    private accessTokenRevocationRepository = Mock(AccessTokenRevocationRepository)
+    private accessTokenRevocations = Mock(AccessTokenRevocations)
+    private clock = Stub(Clock) { instant() >> NOW }
+
+    private accessTokenRevocationService = new AccessTokenRevocationService(
+            accessTokenRevocationRepository, accessTokenRevocations, clock, TOKEN_TTL_IN_MILLIS)
+
+
+    def 'should revoke access tokens issued before the current millisecond'() {
+        given:
+        def accessTokenRevocationService = new AccessTokenRevocationService(accessTokenRevocationRepository,
+                accessTokenRevocations, Stub(Clock) { instant() >> NOW.plusMillis(700) }, TOKEN_TTL_IN_MILLIS)
+
+        when:
+        accessTokenRevocationService.revokeAccessTokens(USER_ID_1)
+
+        then:
+        1 * accessTokenRevocationRepository.save(new AccessTokenRevocation(USER_ID_1, NOW.plusMillis(700)))
+        1 * accessTokenRevocations.put(USER_ID_1, NOW.plusMillis(700))
+        0 * _
+    }
+
+    def 'should refresh revocations incrementally'() {
+        given:
+        def revocation1 = new AccessTokenRevocation(USER_ID_1, NOW.minusSeconds(10))
+        def revocation2 = new AccessTokenRevocation(USER_ID_2, NOW.minusSeconds(5))
+        def revocation3 = new AccessTokenRevocation(USER_ID_3, NOW)
+
+        when:
+        accessTokenRevocationService.refresh()
+
+        then:
+        1 * accessTokenRevocationRepository.findAllByNotBeforeGreaterThanEqual(NOW.minusSeconds(120)) >> [
+                revocation1, revocation2]
+        1 * accessTokenRevocations.put(USER_ID_1, revocation1.notBefore)
+        1 * accessTokenRevocations.put(USER_ID_2, revocation2.notBefore)
+        1 * accessTokenRevocations.removeOlderThan(NOW.minusSeconds(60))
+        0 * _
+
+        when:
+        accessTokenRevocationService.refresh()
+
+        then:
+        1 * accessTokenRevocationRepository.findAllByNotBeforeGreaterThanEqual(NOW.minusSeconds(65)) >> [
+                revocation2, revocation3]
+        1 * accessTokenRevocations.put(USER_ID_2, revocation2.notBefore)
+        1 * accessTokenRevocations.put(USER_ID_3, revocation3.notBefore)
+        1 * accessTokenRevocations.removeOlderThan(NOW.minusSeconds(60))
+        0 * _
+    }
+}
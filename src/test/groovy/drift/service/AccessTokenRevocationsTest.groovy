@@ -0,0 +1,68 @@
+package drift.service
+
+import spock.lang.Specification
+
+import java.time.Instant
+
+import static drift.util.TestConstants.*
+
+class AccessTokenRevocationsTest extends Specification {
+
+    private static final NOT_BEFORE = Instant.ofEpochMilli(TIMESTAMP)
+
+    private accessTokenRevocations = new AccessTokenRevocations(10)
+
+    def 'should revoke access tokens of user issued before not before timestamp only'() {
+        when:
+        accessTokenRevocations.put(USER_ID_1, NOT_BEFORE)
+
+        then:
+        accessTokenRevocations.isRevoked(USER_ID_1, TIMESTAMP - 1)
+        !accessTokenRevocations.isRevoked(USER_ID_1, TIMESTAMP)
+        !accessTokenRevocations.isRevoked(USER_ID_2, TIMESTAMP - 1)
+    }
+
+    def 'should keep the latest not before timestamp of user'() {
+        when:
+        accessTokenRevocations.put(USER_ID_1, NOT_BEFORE)
+        accessTokenRevocations.put(USER_ID_1, NOT_BEFORE.minusSeconds(10))
+
+        then:
+        accessTokenRevocations.isRevoked(USER_ID_1, TIMESTAMP - 1)
+    }
+
+    def 'should remove revocations older than threshold'() {
+        given:
+        accessTokenRevocations.put(USER_ID_1, NOT_BEFORE)
+        accessTokenRevocations.put(USER_ID_2, NOT_BEFORE.plusSeconds(10))
+
+        when:
+        accessTokenRevocations.removeOlderThan(NOT_BEFORE.plusSeconds(1))
+
+        then:
+        !accessTokenRevocations.isRevoked(USER_ID_1, TIMESTAMP - 1)
+        accessTokenRevocations.isRevoked(USER_ID_2, TIMESTAMP - 1)
+    }
+
+    def 'should revoke access tokens of more users than expected'() {
+        given:
+        def userIds = (1..100).collect { "user-id-$it" as String }
+
+        when:
+        userIds.each { accessTokenRevocations.put(it, NOT_BEFORE) }
+
+        then:
+        userIds.every { accessTokenRevocations.isRevoked(it, TIMESTAMP - 1) }
+    }
+
+    def 'should clear revocations'() {
+        given:
+        accessTokenRevocations.put(USER_ID_1, NOT_BEFORE)
+
+        when:
+        accessTokenRevocations.clear()
+
+        then:
+        !accessTokenRevocations.isRevoked(USER_ID_1, TIMESTAMP - 1)
+    }
+}
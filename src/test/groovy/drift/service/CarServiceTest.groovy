@@ -13,10 +13,11 @@ class CarServiceTest extends Specification {
     private idGenerator = Mock(IdGenerator)
     private securityService = Mock(SecurityService)
     private carRepository = Mock(CarRepository)
+    private roleService = Mock(RoleService)
     private fileService = Mock(FileService)
     private image = Mock(MultipartFile)
 
-    private carService = new CarService(idGenerator, securityService, carRepository, fileService)
+    private carService = new CarService(idGenerator, securityService, carRepository, roleService, fileService)
 
 
     // --- Car registration
@@ -29,6 +30,7 @@ class CarServiceTest extends Specification {
         1 * idGenerator.generate() >> CAR_ID
         1 * securityService.getRequesterId() >> USER_ID_1
         1 * carRepository.save(CAR) >> CAR
+        1 * roleService.evictRoles(USER_ID_1)
         0 * _
 
         and:
@@ -93,6 +95,7 @@ class CarServiceTest extends Specification {
         1 * carRepository.findById(CAR_ID) >> Optional.of(CAR)
         1 * securityService.validateOwner(USER_ID_1, Car)
         1 * carRepository.save(deactivatedCar)
+        1 * roleService.evictRoles(USER_ID_1)
         0 * _
     }
 
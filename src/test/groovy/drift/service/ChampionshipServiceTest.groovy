@@ -1,7 +1,9 @@
 package drift.service
 
 import drift.model.Championship
+import drift.model.ChampionshipStanding
 import drift.repository.ChampionshipRepository
+import drift.repository.ChampionshipStandingRepository
 import spock.lang.Specification
 
 import static drift.util.TestConstants.*
@@ -12,8 +14,11 @@ class ChampionshipServiceTest extends Specification {
     private securityService = Mock(SecurityService)
     private organisationService = Mock(OrganisationService)
     private championshipRepository = Mock(ChampionshipRepository)
+    private championshipStandingRepository = Mock(ChampionshipStandingRepository)
+    private championshipStandingsCache = new ChampionshipStandingsCache(10, 60000)
 
-    private championshipService = new ChampionshipService(idGenerator, securityService, organisationService, championshipRepository)
+    private championshipService = new ChampionshipService(idGenerator, securityService, organisationService, championshipRepository,
+            championshipStandingRepository, championshipStandingsCache)
 
 
     // --- Championship creation
@@ -89,4 +94,63 @@ class ChampionshipServiceTest extends Specification {
         def exception = thrown(SecurityException)
         exception.message == EXCEPTION_MESSAGE
     }
+
+
+    // --- Championship standings
+
+    def 'should add standings points and evict cached standings'() {
+        given:
+        def pointsByUserId = [(USER_ID_1): 10d, (USER_ID_2): 5d]
+        championshipStandingsCache.getOrLoad(CHAMPIONSHIP_ID, { [:] })
+
+        when:
+        championshipService.addStandingsPoints(CHAMPIONSHIP_ID, pointsByUserId)
+
+        then:
+        1 * championshipStandingRepository.addPoints(CHAMPIONSHIP_ID, pointsByUserId)
+        0 * _
+
+        when:
+        def standings = championshipService.getStandings(CHAMPIONSHIP_ID)
+
+        then:
+        1 * championshipRepository.existsById(CHAMPIONSHIP_ID) >> true
+        1 * championshipStandingRepository.findAllByChampionshipIdOrderByPointsDescUserIdAsc(CHAMPIONSHIP_ID) >> [
+                new ChampionshipStanding(CHAMPIONSHIP_ID, USER_ID_1, 10d),
+                new ChampionshipStanding(CHAMPIONSHIP_ID, USER_ID_2, 5d)
+        ]
+        0 * _
+
+        and:
+        standings == pointsByUserId
+        standings.keySet() as List == [USER_ID_1, USER_ID_2]
+    }
+
+    def 'should return cached standings'() {
+        given:
+        def cachedStandings = [(USER_ID_1): 10d]
+        championshipStandingsCache.getOrLoad(CHAMPIONSHIP_ID, { cachedStandings })
+
+        when:
+        def standings = championshipService.getStandings(CHAMPIONSHIP_ID)
+
+        then:
+        0 * _
+
+        and:
+        standings.is(cachedStandings)
+    }
+
+    def 'should throw exception during standings retrieval if championship is not found by provided id'() {
+        when:
+        championshipService.getStandings(CHAMPIONSHIP_ID)
+
+        then:
+        1 * championshipRepository.existsById(CHAMPIONSHIP_ID) >> false
+        0 * _
+
+        and:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == 'Wrong championship id'
+    }
 }
@@ -0,0 +1,50 @@
+package drift.service
+
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import static drift.util.TestConstants.*
+
+class ChampionshipStageRosterRegistryTest extends Specification {
+
+    private static final ROSTER = ChampionshipStageRoster.of([CHAMPIONSHIP_STAGE_JUDGE_3], [CHAMPIONSHIP_STAGE_PARTICIPANT_1])
+
+    def 'should load roster once while it is cached'() {
+        given:
+        def registry = new ChampionshipStageRosterRegistry(10, 60000)
+        def loads = 0
+
+        when:
+        def rosters = (1..3).collect { registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, { loads++; ROSTER }) }
+
+        then:
+        rosters.every { it.is(ROSTER) }
+        loads == 1
+    }
+
+    def 'should reload roster after it expires'() {
+        given:
+        def registry = new ChampionshipStageRosterRegistry(10, 50)
+        def loads = 0
+        registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, { loads++; ROSTER })
+
+        expect:
+        new PollingConditions(timeout: 5).eventually {
+            registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, { loads++; ROSTER })
+            assert loads == 2
+        }
+    }
+
+    def 'should reload roster after eviction'() {
+        given:
+        def registry = new ChampionshipStageRosterRegistry(10, 60000)
+        def reloadedRoster = ChampionshipStageRoster.of([CHAMPIONSHIP_STAGE_JUDGE_3], [CHAMPIONSHIP_STAGE_PARTICIPANT_2])
+        registry.put(CHAMPIONSHIP_STAGE_ID, ROSTER)
+
+        when:
+        registry.evict(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, { reloadedRoster }).is(reloadedRoster)
+    }
+}
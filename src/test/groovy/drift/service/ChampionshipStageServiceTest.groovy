@@ -1,11 +1,27 @@
 package drift.service
 
+import drift.dto.BattleResultDto
+import drift.dto.CarDto
+import drift.dto.QualificationResultStatus
+import drift.dto.QualificationResultsBatchDto
+import drift.dto.QualificationResultsDto
+import drift.dto.ScoringSystemDto
+import drift.dto.UserDto
+import drift.dto.UserWithCarsDto
 import drift.model.*
+import drift.repository.ChampionshipStageBracketRepository
 import drift.repository.ChampionshipStageJudgeRepository
 import drift.repository.ChampionshipStageParticipantRepository
+import drift.repository.ChampionshipStageQualificationScoreRepository
 import drift.repository.ChampionshipStageRepository
+import drift.repository.SearchPage
+import drift.repository.UsersWithCarsSearchContext
+import org.springframework.orm.ObjectOptimisticLockingFailureException
 import org.springframework.web.multipart.MultipartFile
 import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.concurrent.Executors
 
 import static drift.util.TestConstants.*
 
@@ -14,16 +30,27 @@ class ChampionshipStageServiceTest extends Specification {
     private idGenerator = Mock(IdGenerator)
     private securityService = Mock(SecurityService)
     private championshipService = Mock(ChampionshipService)
+    private scoringSystemService = Mock(ScoringSystemService)
     private userService = Mock(UserService)
     private championshipStageRepository = Mock(ChampionshipStageRepository)
     private championshipStageParticipantRepository = Mock(ChampionshipStageParticipantRepository)
     private championshipStageJudgeRepository = Mock(ChampionshipStageJudgeRepository)
+    private championshipStageQualificationScoreRepository = Mock(ChampionshipStageQualificationScoreRepository)
+    private championshipStageBracketRepository = Mock(ChampionshipStageBracketRepository)
     private fileService = Mock(FileService)
     private image = Mock(MultipartFile)
+    private qualificationLeaderboardRegistry = new QualificationLeaderboardRegistry(10, 60000)
+    private qualificationResultsBroadcaster = new QualificationResultsBroadcaster(
+            { it.run() }, Executors.newSingleThreadScheduledExecutor(), 5000)
+    private pairsRacesBracketRegistry = new PairsRacesBracketRegistry(10, 60000)
+    private championshipStageRosterRegistry = new ChampionshipStageRosterRegistry(10, 60000)
 
     private championshipStageService = new ChampionshipStageService(
-            idGenerator, securityService, championshipService, userService, championshipStageRepository,
-            championshipStageParticipantRepository, championshipStageJudgeRepository, fileService)
+            idGenerator, securityService, championshipService, scoringSystemService, userService,
+            championshipStageRepository, championshipStageParticipantRepository, championshipStageJudgeRepository,
+            championshipStageQualificationScoreRepository, championshipStageBracketRepository, fileService,
+            qualificationLeaderboardRegistry, qualificationResultsBroadcaster, pairsRacesBracketRegistry,
+            championshipStageRosterRegistry)
 
 
     // --- Championship stage creation
@@ -72,6 +99,7 @@ class ChampionshipStageServiceTest extends Specification {
         1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(CHAMPIONSHIP_STAGE)
         1 * securityService.validateOwner(USER_ID_1, ChampionshipStage)
         1 * championshipStageRepository.save(updatedChampionshipStage)
+        1 * championshipStageRepository.incrementVersion(CHAMPIONSHIP_STAGE_ID)
         0 * _
     }
 
@@ -233,6 +261,7 @@ class ChampionshipStageServiceTest extends Specification {
         1 * championshipStageParticipantRepository.existsByChampionshipStageIdAndUserId(CHAMPIONSHIP_STAGE_ID, USER_ID_1) >> false
         1 * idGenerator.generate() >> CHAMPIONSHIP_STAGE_PARTICIPANT_ID_1
         1 * championshipStageParticipantRepository.save(CHAMPIONSHIP_STAGE_PARTICIPANT_1)
+        1 * championshipStageRepository.incrementVersion(CHAMPIONSHIP_STAGE_ID)
         0 * _
     }
 
@@ -286,9 +315,44 @@ class ChampionshipStageServiceTest extends Specification {
         1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(CHAMPIONSHIP_STAGE)
         1 * securityService.getRequesterId() >> USER_ID_1
         1 * championshipStageParticipantRepository.deleteByChampionshipStageIdAndUserId(CHAMPIONSHIP_STAGE_ID, USER_ID_1)
+        1 * championshipStageQualificationScoreRepository.deleteAllByChampionshipStageIdAndParticipantUserId(CHAMPIONSHIP_STAGE_ID, USER_ID_1)
+        1 * championshipStageRepository.incrementVersion(CHAMPIONSHIP_STAGE_ID)
         0 * _
     }
 
+    def 'should reload roster after participant is deleted'() {
+        given:
+        def championshipStage = CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build()
+        championshipStageRosterRegistry.put(CHAMPIONSHIP_STAGE_ID,
+                ChampionshipStageRoster.of([CHAMPIONSHIP_STAGE_JUDGE_3], [CHAMPIONSHIP_STAGE_PARTICIPANT_1]))
+        def qualificationResultsDto = new QualificationResultsDto(
+                judgeUserId: USER_ID_3, participantUserId: USER_ID_1, attemptsPoints: UPDATED_ATTEMPTS_POINTS)
+
+        when:
+        championshipStageService.deleteParticipant(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(championshipStage)
+        1 * securityService.getRequesterId() >> USER_ID_1
+        1 * championshipStageParticipantRepository.deleteByChampionshipStageIdAndUserId(CHAMPIONSHIP_STAGE_ID, USER_ID_1)
+        1 * championshipStageQualificationScoreRepository.deleteAllByChampionshipStageIdAndParticipantUserId(CHAMPIONSHIP_STAGE_ID, USER_ID_1)
+        1 * championshipStageRepository.incrementVersion(CHAMPIONSHIP_STAGE_ID)
+        0 * _
+
+        when:
+        championshipStageService.updateQualificationResults(CHAMPIONSHIP_STAGE_ID, qualificationResultsDto)
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(championshipStage)
+        1 * championshipStageJudgeRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> [CHAMPIONSHIP_STAGE_JUDGE_3]
+        1 * championshipStageParticipantRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> []
+        0 * _
+
+        and:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == 'Wrong participant user id'
+    }
+
     def 'should not delete participant if wrong championship stage id is provided'() {
         when:
         championshipStageService.deleteParticipant(CHAMPIONSHIP_STAGE_ID)
@@ -303,27 +367,61 @@ class ChampionshipStageServiceTest extends Specification {
     }
 
 
+    // --- Version retrieval
+
+    def 'should provide championship stage version'() {
+        given:
+        1 * championshipStageRepository.findVersion(CHAMPIONSHIP_STAGE_ID) >> Optional.of(3L)
+        0 * _
+
+        expect:
+        championshipStageService.getVersion(CHAMPIONSHIP_STAGE_ID) == 3L
+    }
+
+    def 'should not provide version if wrong championship stage id is provided'() {
+        when:
+        championshipStageService.getVersion(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        1 * championshipStageRepository.findVersion(CHAMPIONSHIP_STAGE_ID) >> Optional.empty()
+        0 * _
+
+        and:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == 'Wrong championship stage id'
+    }
+
+
     // --- Participants retrieval
 
     def 'should provide championship stage participants'() {
         given:
-        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(CHAMPIONSHIP_STAGE)
-        1 * championshipStageParticipantRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> [
-                ChampionshipStageParticipant.builder().userId(USER_ID_1).build(),
-                ChampionshipStageParticipant.builder().userId(USER_ID_2).build()
-        ]
+        1 * championshipStageRepository.existsById(CHAMPIONSHIP_STAGE_ID) >> true
+        1 * championshipStageParticipantRepository.findAllUserIdsByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> [USER_ID_1, USER_ID_2]
         0 * _
 
         expect:
         championshipStageService.getParticipants(CHAMPIONSHIP_STAGE_ID) == [USER_ID_1, USER_ID_2] as Set
     }
 
+    def 'should provide page of championship stage participants with their cars'() {
+        given:
+        def context = new UsersWithCarsSearchContext(limit: 1)
+        def page = new SearchPage([new UserWithCarsDto(UserDto.from(User.builder().id(USER_ID_1).build()), [CarDto.from(CAR)])], 'cursor')
+        1 * championshipStageRepository.existsById(CHAMPIONSHIP_STAGE_ID) >> true
+        1 * championshipStageParticipantRepository.searchUsersWithCars(CHAMPIONSHIP_STAGE_ID, context) >> page
+        0 * _
+
+        expect:
+        championshipStageService.getParticipants(CHAMPIONSHIP_STAGE_ID, context) == page
+    }
+
     def 'should not provide participants if wrong championship stage id is provided'() {
         when:
         championshipStageService.getParticipants(CHAMPIONSHIP_STAGE_ID)
 
         then:
-        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.empty()
+        1 * championshipStageRepository.existsById(CHAMPIONSHIP_STAGE_ID) >> false
         0 * _
 
         and:
@@ -341,11 +439,11 @@ class ChampionshipStageServiceTest extends Specification {
         then:
         1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(CHAMPIONSHIP_STAGE)
         1 * securityService.validateOwner(USER_ID_1, ChampionshipStage.class)
-        1 * userService.getUser(USER_ID_1)
-        1 * userService.getUser(USER_ID_2)
+        1 * userService.getUsers([USER_ID_1, USER_ID_2])
         1 * championshipStageJudgeRepository.deleteAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID)
-        2 * idGenerator.generate() >> CHAMPIONSHIP_STAGE_JUDGE_ID_1 >> CHAMPIONSHIP_STAGE_JUDGE_ID_2
+        1 * idGenerator.generate(2) >> [CHAMPIONSHIP_STAGE_JUDGE_ID_1, CHAMPIONSHIP_STAGE_JUDGE_ID_2]
         1 * championshipStageJudgeRepository.saveAll([CHAMPIONSHIP_STAGE_JUDGE_1, CHAMPIONSHIP_STAGE_JUDGE_2])
+        1 * championshipStageRepository.incrementVersion(CHAMPIONSHIP_STAGE_ID)
         0 * _
     }
 
@@ -397,8 +495,7 @@ class ChampionshipStageServiceTest extends Specification {
         then:
         1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(CHAMPIONSHIP_STAGE)
         1 * securityService.validateOwner(USER_ID_1, ChampionshipStage.class)
-        1 * userService.getUser(USER_ID_1)
-        1 * userService.getUser(USER_ID_2) >> { throw new IllegalArgumentException(EXCEPTION_MESSAGE) }
+        1 * userService.getUsers([USER_ID_1, USER_ID_2]) >> { throw new IllegalArgumentException(EXCEPTION_MESSAGE) }
         0 * _
 
         and:
@@ -411,11 +508,8 @@ class ChampionshipStageServiceTest extends Specification {
 
     def 'should provide championship stage judges'() {
         given:
-        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(CHAMPIONSHIP_STAGE)
-        1 * championshipStageJudgeRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> [
-                ChampionshipStageJudge.builder().userId(USER_ID_1).build(),
-                ChampionshipStageJudge.builder().userId(USER_ID_2).build()
-        ]
+        1 * championshipStageRepository.existsById(CHAMPIONSHIP_STAGE_ID) >> true
+        1 * championshipStageJudgeRepository.findAllUserIdsByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> [USER_ID_1, USER_ID_2]
         0 * _
 
         expect:
@@ -427,7 +521,7 @@ class ChampionshipStageServiceTest extends Specification {
         championshipStageService.getJudges(CHAMPIONSHIP_STAGE_ID)
 
         then:
-        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.empty()
+        1 * championshipStageRepository.existsById(CHAMPIONSHIP_STAGE_ID) >> false
         0 * _
 
         and:
@@ -442,6 +536,11 @@ class ChampionshipStageServiceTest extends Specification {
     // --- Qualification start
 
     def 'should start qualification successfully'() {
+        given:
+        def initialScores = toQualificationScores(USER_ID_1, INITIAL_QUALIFICATION_RESULTS) +
+                toQualificationScores(USER_ID_2, INITIAL_QUALIFICATION_RESULTS) +
+                toQualificationScores(USER_ID_3, INITIAL_QUALIFICATION_RESULTS)
+
         when:
         championshipStageService.startQualification(CHAMPIONSHIP_STAGE_ID)
 
@@ -460,13 +559,29 @@ class ChampionshipStageServiceTest extends Specification {
                 CHAMPIONSHIP_STAGE_PARTICIPANT_2,
                 CHAMPIONSHIP_STAGE_PARTICIPANT_3
         ]
-        1 * championshipStageParticipantRepository.saveAll([
-                CHAMPIONSHIP_STAGE_PARTICIPANT_1.toBuilder().qualificationResults(INITIAL_QUALIFICATION_RESULTS).build(),
-                CHAMPIONSHIP_STAGE_PARTICIPANT_2.toBuilder().qualificationResults(INITIAL_QUALIFICATION_RESULTS).build(),
-                CHAMPIONSHIP_STAGE_PARTICIPANT_3.toBuilder().qualificationResults(INITIAL_QUALIFICATION_RESULTS).build()
-        ])
+        1 * championshipStageQualificationScoreRepository.upsertAll({ it as Set == initialScores as Set })
+        1 * championshipStageRepository.incrementVersion(CHAMPIONSHIP_STAGE_ID) >> 1L
         1 * championshipStageRepository.save(CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build())
         0 * _
+
+        when:
+        def qualificationResults = championshipStageService.getQualificationResults(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        1 * championshipStageRepository.findVersion(CHAMPIONSHIP_STAGE_ID) >> Optional.of(1L)
+        0 * _
+
+        and:
+        qualificationResults == [(USER_ID_1): 0d, (USER_ID_2): 0d, (USER_ID_3): 0d]
+
+        when:
+        championshipStageService.getQualificationResults(CHAMPIONSHIP_STAGE_ID, USER_ID_3)
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(CHAMPIONSHIP_STAGE)
+        1 * championshipStageQualificationScoreRepository.findAllByChampionshipStageIdAndJudgeUserId(CHAMPIONSHIP_STAGE_ID, USER_ID_3) >>
+                toQualificationScores(USER_ID_1, INITIAL_QUALIFICATION_RESULTS)
+        0 * _
     }
 
     def 'should not start qualification if wrong championship stage id is provided'() {
@@ -540,4 +655,487 @@ class ChampionshipStageServiceTest extends Specification {
         def exception = thrown(IllegalArgumentException)
         exception.message == 'No participants'
     }
+
+
+    // --- Qualification results update
+
+    def 'should update qualification results and leaderboard successfully'() {
+        given:
+        def qualificationResultsDto = new QualificationResultsDto(
+                judgeUserId: USER_ID_3, participantUserId: USER_ID_2, attemptsPoints: UPDATED_ATTEMPTS_POINTS)
+        def championshipStage = CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build()
+        qualificationLeaderboardRegistry.put(CHAMPIONSHIP_STAGE_ID, toQualificationLeaderboard(
+                1L, [(USER_ID_1): QUALIFICATION_RESULTS, (USER_ID_2): INITIAL_QUALIFICATION_RESULTS]))
+
+        when:
+        championshipStageService.updateQualificationResults(CHAMPIONSHIP_STAGE_ID, qualificationResultsDto)
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(championshipStage)
+        1 * championshipStageJudgeRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> [CHAMPIONSHIP_STAGE_JUDGE_3]
+        1 * championshipStageParticipantRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> [
+                CHAMPIONSHIP_STAGE_PARTICIPANT_1,
+                CHAMPIONSHIP_STAGE_PARTICIPANT_2
+        ]
+        1 * championshipStageQualificationScoreRepository.upsert(CHAMPIONSHIP_STAGE_ID, USER_ID_3, USER_ID_2, UPDATED_ATTEMPTS_POINTS)
+        1 * championshipStageRepository.incrementVersion(CHAMPIONSHIP_STAGE_ID) >> 2L
+        0 * _
+
+        when:
+        def qualificationResults = championshipStageService.getQualificationResults(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        1 * championshipStageRepository.findVersion(CHAMPIONSHIP_STAGE_ID) >> Optional.of(2L)
+        0 * _
+
+        and:
+        qualificationResults == [(USER_ID_1): 244d, (USER_ID_2): 70.95d]
+
+        when:
+        championshipStageService.updateQualificationResults(CHAMPIONSHIP_STAGE_ID, qualificationResultsDto)
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(championshipStage)
+        1 * championshipStageQualificationScoreRepository.upsert(CHAMPIONSHIP_STAGE_ID, USER_ID_3, USER_ID_2, UPDATED_ATTEMPTS_POINTS)
+        1 * championshipStageRepository.incrementVersion(CHAMPIONSHIP_STAGE_ID) >> 3L
+        0 * _
+    }
+
+    @Unroll
+    def 'should not update qualification results if attempts points are #attemptsPoints'() {
+        given:
+        def qualificationResultsDto = new QualificationResultsDto(
+                judgeUserId: USER_ID_3, participantUserId: USER_ID_2, attemptsPoints: attemptsPoints)
+        championshipStageRosterRegistry.put(CHAMPIONSHIP_STAGE_ID,
+                ChampionshipStageRoster.of([CHAMPIONSHIP_STAGE_JUDGE_3], [CHAMPIONSHIP_STAGE_PARTICIPANT_2]))
+
+        when:
+        championshipStageService.updateQualificationResults(CHAMPIONSHIP_STAGE_ID, qualificationResultsDto)
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >>
+                Optional.of(CHAMPIONSHIP_STAGE.toBuilder().attempts(2).phase(ChampionshipStagePhase.QUALIFICATION).build())
+        0 * _
+
+        and:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == 'Wrong attempts points'
+
+        where:
+        attemptsPoints << [[1d], [1d, null]]
+    }
+
+    def 'should update qualification results batch in single upsert and report status of each participant'() {
+        given:
+        def qualificationResultsDto = new QualificationResultsBatchDto(
+                judgeUserId: USER_ID_3,
+                attemptsPointsByParticipant: [
+                        (USER_ID_1): [70.5d, 67d],
+                        (USER_ID_2): UPDATED_ATTEMPTS_POINTS,
+                        (USER_ID_3): UPDATED_ATTEMPTS_POINTS
+                ])
+        def championshipStage = CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build()
+        qualificationLeaderboardRegistry.put(CHAMPIONSHIP_STAGE_ID, toQualificationLeaderboard(
+                1L, [(USER_ID_1): QUALIFICATION_RESULTS, (USER_ID_2): INITIAL_QUALIFICATION_RESULTS]))
+
+        when:
+        def statuses = championshipStageService.updateQualificationResults(CHAMPIONSHIP_STAGE_ID, qualificationResultsDto)
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(championshipStage)
+        1 * championshipStageJudgeRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> [CHAMPIONSHIP_STAGE_JUDGE_3]
+        1 * championshipStageParticipantRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> [
+                CHAMPIONSHIP_STAGE_PARTICIPANT_1,
+                CHAMPIONSHIP_STAGE_PARTICIPANT_2
+        ]
+        1 * championshipStageQualificationScoreRepository.upsertAll(
+                toQualificationScores(USER_ID_2, [(USER_ID_3): UPDATED_ATTEMPTS_POINTS]))
+        1 * championshipStageRepository.incrementVersion(CHAMPIONSHIP_STAGE_ID) >> 2L
+        0 * _
+
+        and:
+        statuses == [
+                (USER_ID_1): QualificationResultStatus.WRONG_ATTEMPTS_POINTS,
+                (USER_ID_2): QualificationResultStatus.UPDATED,
+                (USER_ID_3): QualificationResultStatus.WRONG_PARTICIPANT_USER_ID
+        ]
+
+        when:
+        def qualificationResults = championshipStageService.getQualificationResults(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        1 * championshipStageRepository.findVersion(CHAMPIONSHIP_STAGE_ID) >> Optional.of(2L)
+        0 * _
+
+        and:
+        qualificationResults == [(USER_ID_1): 244d, (USER_ID_2): 70.95d]
+    }
+
+    def 'should not update qualification results batch if wrong judge user id is provided'() {
+        given:
+        def qualificationResultsDto = new QualificationResultsBatchDto(
+                judgeUserId: USER_ID_3, attemptsPointsByParticipant: [(USER_ID_2): UPDATED_ATTEMPTS_POINTS])
+
+        when:
+        championshipStageService.updateQualificationResults(CHAMPIONSHIP_STAGE_ID, qualificationResultsDto)
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >>
+                Optional.of(CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build())
+        1 * championshipStageJudgeRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> [CHAMPIONSHIP_STAGE_JUDGE_1]
+        1 * championshipStageParticipantRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> [CHAMPIONSHIP_STAGE_PARTICIPANT_2]
+        0 * _
+
+        and:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == 'Wrong judge user id'
+    }
+
+
+    // --- Qualification results retrieval
+
+    def 'should load qualification leaderboard once and then provide results from memory'() {
+        when:
+        def qualificationResults = championshipStageService.getQualificationResults(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        1 * championshipStageRepository.findVersion(CHAMPIONSHIP_STAGE_ID) >> Optional.of(1L)
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(CHAMPIONSHIP_STAGE)
+        1 * championshipStageParticipantRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> [
+                CHAMPIONSHIP_STAGE_PARTICIPANT_1,
+                CHAMPIONSHIP_STAGE_PARTICIPANT_2
+        ]
+        1 * championshipStageQualificationScoreRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >>
+                toQualificationScores(USER_ID_1, QUALIFICATION_RESULTS) + toQualificationScores(USER_ID_2, UPDATED_QUALIFICATION_RESULTS)
+        0 * _
+
+        and:
+        qualificationResults == [(USER_ID_1): 244d, (USER_ID_2): 70.95d]
+
+        when:
+        qualificationResults = championshipStageService.getQualificationResults(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        1 * championshipStageRepository.findVersion(CHAMPIONSHIP_STAGE_ID) >> Optional.of(1L)
+        0 * _
+
+        and:
+        qualificationResults == [(USER_ID_1): 244d, (USER_ID_2): 70.95d]
+    }
+
+    def 'should reload qualification leaderboard changed through another node'() {
+        given:
+        qualificationLeaderboardRegistry.put(CHAMPIONSHIP_STAGE_ID, toQualificationLeaderboard(
+                1L, [(USER_ID_1): QUALIFICATION_RESULTS, (USER_ID_2): INITIAL_QUALIFICATION_RESULTS]))
+
+        when:
+        def qualificationResults = championshipStageService.getQualificationResults(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        1 * championshipStageRepository.findVersion(CHAMPIONSHIP_STAGE_ID) >> Optional.of(2L)
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(CHAMPIONSHIP_STAGE)
+        1 * championshipStageParticipantRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> [
+                CHAMPIONSHIP_STAGE_PARTICIPANT_1,
+                CHAMPIONSHIP_STAGE_PARTICIPANT_2
+        ]
+        1 * championshipStageQualificationScoreRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >>
+                toQualificationScores(USER_ID_1, QUALIFICATION_RESULTS) + toQualificationScores(USER_ID_2, UPDATED_QUALIFICATION_RESULTS)
+        0 * _
+
+        and:
+        qualificationResults == [(USER_ID_1): 244d, (USER_ID_2): 70.95d]
+    }
+
+    def 'should reload qualification leaderboard which missed change made through another node'() {
+        given:
+        def qualificationResultsDto = new QualificationResultsDto(
+                judgeUserId: USER_ID_3, participantUserId: USER_ID_2, attemptsPoints: UPDATED_ATTEMPTS_POINTS)
+        def championshipStage = CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build()
+        championshipStageRosterRegistry.put(CHAMPIONSHIP_STAGE_ID,
+                ChampionshipStageRoster.of([CHAMPIONSHIP_STAGE_JUDGE_3], [CHAMPIONSHIP_STAGE_PARTICIPANT_2]))
+        qualificationLeaderboardRegistry.put(CHAMPIONSHIP_STAGE_ID, toQualificationLeaderboard(
+                1L, [(USER_ID_2): INITIAL_QUALIFICATION_RESULTS]))
+
+        when:
+        championshipStageService.updateQualificationResults(CHAMPIONSHIP_STAGE_ID, qualificationResultsDto)
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(championshipStage)
+        1 * championshipStageQualificationScoreRepository.upsert(CHAMPIONSHIP_STAGE_ID, USER_ID_3, USER_ID_2, UPDATED_ATTEMPTS_POINTS)
+        1 * championshipStageRepository.incrementVersion(CHAMPIONSHIP_STAGE_ID) >> 3L
+        0 * _
+
+        when:
+        def qualificationResults = championshipStageService.getQualificationResults(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        1 * championshipStageRepository.findVersion(CHAMPIONSHIP_STAGE_ID) >> Optional.of(3L)
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(championshipStage)
+        1 * championshipStageParticipantRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> [
+                CHAMPIONSHIP_STAGE_PARTICIPANT_1,
+                CHAMPIONSHIP_STAGE_PARTICIPANT_2
+        ]
+        1 * championshipStageQualificationScoreRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >>
+                toQualificationScores(USER_ID_1, QUALIFICATION_RESULTS) + toQualificationScores(USER_ID_2, UPDATED_QUALIFICATION_RESULTS)
+        0 * _
+
+        and:
+        qualificationResults == [(USER_ID_1): 244d, (USER_ID_2): 70.95d]
+    }
+
+    def 'should provide qualification results of given championship stage version without reading it again'() {
+        given:
+        qualificationLeaderboardRegistry.put(CHAMPIONSHIP_STAGE_ID, toQualificationLeaderboard(2L, [
+                (USER_ID_1): QUALIFICATION_RESULTS,
+                (USER_ID_2): UPDATED_QUALIFICATION_RESULTS
+        ]))
+
+        when:
+        def qualificationResults = championshipStageService.getQualificationResults(CHAMPIONSHIP_STAGE_ID, 2L)
+
+        then:
+        0 * _
+
+        and:
+        qualificationResults == [(USER_ID_1): 244d, (USER_ID_2): 70.95d]
+    }
+
+    def 'should not provide qualification results if wrong championship stage id is provided'() {
+        when:
+        championshipStageService.getQualificationResults(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        1 * championshipStageRepository.findVersion(CHAMPIONSHIP_STAGE_ID) >> Optional.empty()
+        0 * _
+
+        and:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == 'Wrong championship stage id'
+    }
+
+
+    // --- Qualification results retrieval by judge
+
+    def 'should provide qualification results by judge with single scores query'() {
+        when:
+        def qualificationResults = championshipStageService.getQualificationResults(CHAMPIONSHIP_STAGE_ID, USER_ID_3)
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(CHAMPIONSHIP_STAGE)
+        1 * championshipStageJudgeRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> [CHAMPIONSHIP_STAGE_JUDGE_3]
+        1 * championshipStageParticipantRepository.findAllByChampionshipStageId(CHAMPIONSHIP_STAGE_ID) >> []
+        1 * championshipStageQualificationScoreRepository.findAllByChampionshipStageIdAndJudgeUserId(CHAMPIONSHIP_STAGE_ID, USER_ID_3) >>
+                (toQualificationScores(USER_ID_1, [(USER_ID_3): [72d, 67.5d, 81.5d]]) +
+                        toQualificationScores(USER_ID_2, [(USER_ID_3): UPDATED_ATTEMPTS_POINTS])).reverse()
+        0 * _
+
+        and:
+        qualificationResults == [(USER_ID_1): [72d, 67.5d, 81.5d], (USER_ID_2): UPDATED_ATTEMPTS_POINTS]
+    }
+
+
+    // --- PAIRS RACES FLOW
+
+
+    // --- Pairs races start
+
+    def 'should start pairs races with top qualified participants'() {
+        given:
+        def championshipStage = CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.QUALIFICATION).build()
+        qualificationLeaderboardRegistry.put(CHAMPIONSHIP_STAGE_ID, toQualificationLeaderboard(1L, [
+                (USER_ID_1): INITIAL_QUALIFICATION_RESULTS,
+                (USER_ID_2): UPDATED_QUALIFICATION_RESULTS,
+                (USER_ID_3): QUALIFICATION_RESULTS
+        ]))
+        def bracket = PairsRacesBracket.seed([USER_ID_3, USER_ID_2], N_OMT_1)
+
+        when:
+        championshipStageService.startPairsRaces(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(championshipStage)
+        1 * securityService.validateOwner(USER_ID_1, ChampionshipStage)
+        1 * championshipService.getRequesterChampionship(CHAMPIONSHIP_ID) >> CHAMPIONSHIP
+        1 * scoringSystemService.getScoringSystem(SCORING_SYSTEM_ID) >>
+                ScoringSystemDto.from(SCORING_SYSTEM.toBuilder().participantsAfterQualification(2).build())
+        1 * championshipStageRepository.findVersion(CHAMPIONSHIP_STAGE_ID) >> Optional.of(1L)
+        1 * championshipStageRepository.save(championshipStage.toBuilder().phase(ChampionshipStagePhase.PAIRS_RACES).build())
+        1 * championshipStageBracketRepository.saveAndFlush(bracket.toSnapshot(CHAMPIONSHIP_STAGE_ID)) >>
+                bracket.withVersion(0L).toSnapshot(CHAMPIONSHIP_STAGE_ID)
+        0 * _
+
+        when:
+        def battles = championshipStageService.getBattles(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        0 * _
+
+        and:
+        battles == bracket.getBattles()
+    }
+
+    def 'should not start pairs races if championship stage is not in QUALIFICATION phase'() {
+        when:
+        championshipStageService.startPairsRaces(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(CHAMPIONSHIP_STAGE)
+        1 * securityService.validateOwner(USER_ID_1, ChampionshipStage)
+        0 * _
+
+        and:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == 'Pairs races can be started from QUALIFICATION phase only'
+    }
+
+
+    // --- Battle result update
+
+    def 'should update battle result and finish pairs races after the final'() {
+        given:
+        def championshipStage = CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.PAIRS_RACES).build()
+        def bracket = PairsRacesBracket.seed([USER_ID_1, USER_ID_2], N_OMT_1).withVersion(1L)
+        def updatedBracket = bracket.withWinner(1, USER_ID_2)
+        qualificationLeaderboardRegistry.put(CHAMPIONSHIP_STAGE_ID, toQualificationLeaderboard(1L, [
+                (USER_ID_1): INITIAL_QUALIFICATION_RESULTS,
+                (USER_ID_2): UPDATED_QUALIFICATION_RESULTS,
+                (USER_ID_3): INITIAL_QUALIFICATION_RESULTS
+        ]))
+
+        when:
+        championshipStageService.updateBattleResult(CHAMPIONSHIP_STAGE_ID, 1, new BattleResultDto(winnerUserId: USER_ID_2))
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(championshipStage)
+        1 * securityService.validateOwner(USER_ID_1, ChampionshipStage)
+        1 * championshipStageBracketRepository.findVersion(CHAMPIONSHIP_STAGE_ID) >> Optional.of(1L)
+        1 * championshipStageBracketRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(bracket.toSnapshot(CHAMPIONSHIP_STAGE_ID))
+        1 * championshipStageRepository.save(championshipStage.toBuilder().phase(ChampionshipStagePhase.FINALIZATION).build())
+        1 * championshipService.getRequesterChampionship(CHAMPIONSHIP_ID) >> CHAMPIONSHIP
+        1 * scoringSystemService.getScoringSystem(SCORING_SYSTEM_ID) >> SCORING_SYSTEM_DTO
+        1 * championshipStageRepository.findVersion(CHAMPIONSHIP_STAGE_ID) >> Optional.of(1L)
+        1 * championshipService.addStandingsPoints(CHAMPIONSHIP_ID, [
+                (USER_ID_2): PARTICIPATION_POINTS + QUALIFICATION_POINTS[0] + POINTS[0],
+                (USER_ID_1): PARTICIPATION_POINTS + QUALIFICATION_POINTS[1] + POINTS[1],
+                (USER_ID_3): PARTICIPATION_POINTS + QUALIFICATION_POINTS[2]
+        ])
+        1 * championshipStageBracketRepository.saveAndFlush(updatedBracket.toSnapshot(CHAMPIONSHIP_STAGE_ID)) >>
+                updatedBracket.withVersion(2L).toSnapshot(CHAMPIONSHIP_STAGE_ID)
+        0 * _
+
+        and:
+        championshipStageService.getBattles(CHAMPIONSHIP_STAGE_ID) == updatedBracket.getBattles()
+
+        and:
+        def reloadedLeaderboard = toQualificationLeaderboard(1L, [(USER_ID_1): QUALIFICATION_RESULTS])
+        qualificationLeaderboardRegistry.getOrLoad(CHAMPIONSHIP_STAGE_ID, 1L, { reloadedLeaderboard }).is(reloadedLeaderboard)
+    }
+
+    def 'should count OMT of battle'() {
+        given:
+        def championshipStage = CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.PAIRS_RACES).build()
+        def bracket = PairsRacesBracket.seed([USER_ID_1, USER_ID_2], N_OMT_1).withVersion(1L)
+        pairsRacesBracketRegistry.put(CHAMPIONSHIP_STAGE_ID, bracket)
+        def updatedBracket = bracket.withOmt(1)
+
+        when:
+        championshipStageService.updateBattleResult(CHAMPIONSHIP_STAGE_ID, 1, new BattleResultDto(omt: true))
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(championshipStage)
+        1 * securityService.validateOwner(USER_ID_1, ChampionshipStage)
+        1 * championshipStageBracketRepository.findVersion(CHAMPIONSHIP_STAGE_ID) >> Optional.of(1L)
+        1 * championshipStageBracketRepository.saveAndFlush(updatedBracket.toSnapshot(CHAMPIONSHIP_STAGE_ID)) >>
+                updatedBracket.withVersion(2L).toSnapshot(CHAMPIONSHIP_STAGE_ID)
+        0 * _
+
+        and:
+        championshipStageService.getBattles(CHAMPIONSHIP_STAGE_ID)[0].omt == 1
+    }
+
+    def 'should reload outdated cached bracket before battle result update'() {
+        given:
+        def championshipStage = CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.PAIRS_RACES).build()
+        def outdatedBracket = PairsRacesBracket.seed([USER_ID_1, USER_ID_2], N_OMT_1).withVersion(1L)
+        pairsRacesBracketRegistry.put(CHAMPIONSHIP_STAGE_ID, outdatedBracket)
+        def persistedBracket = outdatedBracket.withOmt(1).withVersion(2L)
+        def updatedBracket = persistedBracket.withOmt(1)
+
+        when:
+        championshipStageService.updateBattleResult(CHAMPIONSHIP_STAGE_ID, 1, new BattleResultDto(omt: true))
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(championshipStage)
+        1 * securityService.validateOwner(USER_ID_1, ChampionshipStage)
+        1 * championshipStageBracketRepository.findVersion(CHAMPIONSHIP_STAGE_ID) >> Optional.of(2L)
+        1 * championshipStageBracketRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(persistedBracket.toSnapshot(CHAMPIONSHIP_STAGE_ID))
+        1 * championshipStageBracketRepository.saveAndFlush(updatedBracket.toSnapshot(CHAMPIONSHIP_STAGE_ID)) >>
+                updatedBracket.withVersion(3L).toSnapshot(CHAMPIONSHIP_STAGE_ID)
+        0 * _
+
+        and:
+        championshipStageService.getBattles(CHAMPIONSHIP_STAGE_ID)[0].omt == 2
+    }
+
+    def 'should evict cached bracket if battle result update conflicts with concurrent one'() {
+        given:
+        def championshipStage = CHAMPIONSHIP_STAGE.toBuilder().phase(ChampionshipStagePhase.PAIRS_RACES).build()
+        def bracket = PairsRacesBracket.seed([USER_ID_1, USER_ID_2], N_OMT_1).withVersion(1L)
+        pairsRacesBracketRegistry.put(CHAMPIONSHIP_STAGE_ID, bracket)
+        def persistedBracket = bracket.withOmt(1).withVersion(2L)
+
+        when:
+        championshipStageService.updateBattleResult(CHAMPIONSHIP_STAGE_ID, 1, new BattleResultDto(omt: true))
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(championshipStage)
+        1 * securityService.validateOwner(USER_ID_1, ChampionshipStage)
+        1 * championshipStageBracketRepository.findVersion(CHAMPIONSHIP_STAGE_ID) >> Optional.of(1L)
+        1 * championshipStageBracketRepository.saveAndFlush(bracket.withOmt(1).toSnapshot(CHAMPIONSHIP_STAGE_ID)) >>
+                { throw new ObjectOptimisticLockingFailureException(ChampionshipStageBracket, CHAMPIONSHIP_STAGE_ID) }
+        0 * _
+
+        and:
+        thrown(ObjectOptimisticLockingFailureException)
+
+        when:
+        def battles = championshipStageService.getBattles(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        1 * championshipStageBracketRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(persistedBracket.toSnapshot(CHAMPIONSHIP_STAGE_ID))
+        0 * _
+
+        and:
+        battles == persistedBracket.getBattles()
+    }
+
+    def 'should not update battle result if championship stage is not in PAIRS_RACES phase'() {
+        when:
+        championshipStageService.updateBattleResult(CHAMPIONSHIP_STAGE_ID, 1, new BattleResultDto(winnerUserId: USER_ID_2))
+
+        then:
+        1 * championshipStageRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.of(CHAMPIONSHIP_STAGE)
+        1 * securityService.validateOwner(USER_ID_1, ChampionshipStage)
+        0 * _
+
+        and:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == 'Battle results can be updated during PAIRS_RACES phase only'
+    }
+
+
+    // --- Battles retrieval
+
+    def 'should not provide battles if pairs races are not started'() {
+        when:
+        championshipStageService.getBattles(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        1 * championshipStageBracketRepository.findById(CHAMPIONSHIP_STAGE_ID) >> Optional.empty()
+        0 * _
+
+        and:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == 'Pairs races are not started'
+    }
 }
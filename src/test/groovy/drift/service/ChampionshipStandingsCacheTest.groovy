@@ -0,0 +1,49 @@
+package drift.service
+
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import static drift.util.TestConstants.*
+
+class ChampionshipStandingsCacheTest extends Specification {
+
+    private static final STANDINGS = [(USER_ID_1): 10d, (USER_ID_2): 5d]
+
+    def 'should load standings once while they are cached'() {
+        given:
+        def championshipStandingsCache = new ChampionshipStandingsCache(10, 60000)
+        def loads = 0
+
+        when:
+        def standings = (1..3).collect { championshipStandingsCache.getOrLoad(CHAMPIONSHIP_ID, { loads++; STANDINGS }) }
+
+        then:
+        standings == [STANDINGS, STANDINGS, STANDINGS]
+        loads == 1
+    }
+
+    def 'should reload standings after they expire'() {
+        given:
+        def championshipStandingsCache = new ChampionshipStandingsCache(10, 50)
+        def loads = 0
+        championshipStandingsCache.getOrLoad(CHAMPIONSHIP_ID, { loads++; STANDINGS })
+
+        expect:
+        new PollingConditions(timeout: 5).eventually {
+            championshipStandingsCache.getOrLoad(CHAMPIONSHIP_ID, { loads++; STANDINGS })
+            assert loads == 2
+        }
+    }
+
+    def 'should rethrow exception of standings loading'() {
+        given:
+        def championshipStandingsCache = new ChampionshipStandingsCache(10, 60000)
+
+        when:
+        championshipStandingsCache.getOrLoad(CHAMPIONSHIP_ID, { throw new IllegalArgumentException(EXCEPTION_MESSAGE) })
+
+        then:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == EXCEPTION_MESSAGE
+    }
+}
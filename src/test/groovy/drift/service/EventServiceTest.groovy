@@ -0,0 +1,108 @@
+package drift.service
+
+import drift.dto.ChampionshipStageDto
+import drift.dto.EventType
+import drift.dto.TrainingDto
+import drift.exception.ValidationException
+import drift.repository.*
+import spock.lang.Specification
+
+import java.time.Instant
+
+import static drift.util.TestConstants.*
+
+class EventServiceTest extends Specification {
+
+    private championshipStageRepository = Mock(ChampionshipStageRepository)
+    private trainingRepository = Mock(TrainingRepository)
+
+    private eventService = new EventService(CLOCK, championshipStageRepository, trainingRepository)
+
+    def 'should merge upcoming championship stages and trainings by start timestamp and id'() {
+        given:
+        def context = new EventsSearchContext(startTimestampTo: TIMESTAMP_2)
+
+        and:
+        def stage1 = championshipStage('stage-1', TIMESTAMP_1_AS_INSTANT)
+        def stage2 = championshipStage('stage-2', TIMESTAMP_1_AS_INSTANT.plusSeconds(10))
+        def training1 = training('tr-1', TIMESTAMP_1_AS_INSTANT)
+        def training2 = training('tr-2', TIMESTAMP_1_AS_INSTANT.plusSeconds(5))
+
+        when:
+        def events = eventService.searchForUpcomingEvents(context)
+
+        then:
+        1 * championshipStageRepository.search(new ChampionshipStagesSearchContext(
+                active: true, startTimestampFrom: TIMESTAMP, startTimestampTo: TIMESTAMP_2)) >> new SearchPage([stage1, stage2], null)
+        1 * trainingRepository.search(new TrainingsSearchContext(
+                active: true, startTimestampFrom: TIMESTAMP, startTimestampTo: TIMESTAMP_2)) >> new SearchPage([training1, training2], null)
+        0 * _
+
+        and:
+        events.items.collect { it.id } == ['stage-1', 'tr-1', 'tr-2', 'stage-2']
+        events.items.collect { it.type } == [EventType.CHAMPIONSHIP_STAGE, EventType.TRAINING, EventType.TRAINING, EventType.CHAMPIONSHIP_STAGE]
+        events.items[0].championshipStage == stage1
+        events.items[1].training == training1
+        events.nextCursor == null
+    }
+
+    def 'should return cursor of last merged event if there are more events than limit'() {
+        given:
+        def context = new EventsSearchContext(startTimestampFrom: TIMESTAMP_1, limit: 2)
+
+        and:
+        def stage = championshipStage('stage-1', TIMESTAMP_1_AS_INSTANT.plusSeconds(10))
+        def training1 = training('tr-1', TIMESTAMP_1_AS_INSTANT)
+        def training2 = training('tr-2', TIMESTAMP_1_AS_INSTANT.plusSeconds(5))
+
+        when:
+        def firstPage = eventService.searchForUpcomingEvents(context)
+
+        then:
+        1 * championshipStageRepository.search(new ChampionshipStagesSearchContext(
+                active: true, startTimestampFrom: TIMESTAMP_1, limit: 2)) >> new SearchPage([stage], null)
+        1 * trainingRepository.search(new TrainingsSearchContext(
+                active: true, startTimestampFrom: TIMESTAMP_1, limit: 2)) >> new SearchPage([training1, training2], 'cursor')
+        0 * _
+
+        and:
+        firstPage.items.collect { it.id } == ['tr-1', 'tr-2']
+        firstPage.nextCursor == new String(Base64.urlEncoder.withoutPadding().encode("${TIMESTAMP_1 + 5000}:tr-2".bytes))
+
+        when:
+        def lastPage = eventService.searchForUpcomingEvents(new EventsSearchContext(
+                startTimestampFrom: TIMESTAMP_1, limit: 2, cursor: firstPage.nextCursor))
+
+        then:
+        1 * championshipStageRepository.search(new ChampionshipStagesSearchContext(
+                active: true, startTimestampFrom: TIMESTAMP_1, limit: 2, cursor: firstPage.nextCursor)) >> new SearchPage([stage], null)
+        1 * trainingRepository.search(new TrainingsSearchContext(
+                active: true, startTimestampFrom: TIMESTAMP_1, limit: 2, cursor: firstPage.nextCursor)) >> new SearchPage([], null)
+        0 * _
+
+        and:
+        lastPage.items.collect { it.id } == ['stage-1']
+        lastPage.nextCursor == null
+    }
+
+    def 'should not search for upcoming events if search context is wrong'() {
+        when:
+        eventService.searchForUpcomingEvents(new EventsSearchContext(limit: 0))
+
+        then:
+        1 * championshipStageRepository.search(_) >> { throw new ValidationException(EXCEPTION_MESSAGE) }
+        0 * _
+
+        and:
+        def exception = thrown(ValidationException)
+        exception.message == EXCEPTION_MESSAGE
+    }
+
+    private static championshipStage(String id, Instant startTimestamp) {
+        ChampionshipStageDto.from(CHAMPIONSHIP_STAGE.toBuilder().id(id).startTimestamp(startTimestamp).build())
+    }
+
+    private static training(String id, Instant startTimestamp) {
+        TrainingDto.from(TRAINING.toBuilder().id(id).startTimestamp(startTimestamp).build())
+    }
+}
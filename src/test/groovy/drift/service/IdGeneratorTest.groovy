@@ -2,14 +2,127 @@ package drift.service
 
 import spock.lang.Specification
 
+import java.time.Clock
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+import static drift.util.TestConstants.CLOCK
+
 class IdGeneratorTest extends Specification {
 
-    private idGenerator = new IdGenerator()
+    private idGenerator = new IdGenerator(Clock.systemUTC(), 1)
+
+    def 'should generate unique ids of fixed length in ascending order'() {
+        when:
+        def ids = (1..10000).collect { idGenerator.generate() }
+
+        then:
+        ids.every { it.length() == 13 }
+        ids.toSet().size() == ids.size()
+        ids == ids.toSorted()
+    }
+
+    def 'should generate unique ids when clock does not move by borrowing next millisecond'() {
+        given:
+        def idGenerator = new IdGenerator(CLOCK, 1)
+
+        when:
+        def ids = (1..8192).collect { idGenerator.generate() }
+
+        then:
+        ids.toSet().size() == ids.size()
+        ids == ids.toSorted()
+    }
+
+    def 'should wait for clock instead of borrowing more than one millisecond'() {
+        given:
+        def currentMillis = new AtomicLong(CLOCK.millis())
+        def clock = Stub(Clock) { millis() >> { currentMillis.get() } }
+        def idGenerator = new IdGenerator(clock, 1)
+        def ids = idGenerator.generate(4096) + idGenerator.generate(4096)
+        def executor = Executors.newSingleThreadExecutor()
+
+        when:
+        def nextId = executor.submit({ idGenerator.generate() } as Callable<String>)
+        Thread.sleep(100)
+
+        then:
+        !nextId.done
+
+        when:
+        currentMillis.incrementAndGet()
+
+        then:
+        nextId.get(5, TimeUnit.SECONDS) > ids.last()
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def 'should reserve ordered ids in bulk'() {
+        when:
+        def ids = idGenerator.generate(5) + idGenerator.generate(3) + [idGenerator.generate()]
+
+        then:
+        ids.size() == 9
+        ids.toSet().size() == ids.size()
+        ids == ids.toSorted()
+    }
+
+    def 'should generate different ids on different nodes'() {
+        given:
+        def otherNodeIdGenerator = new IdGenerator(CLOCK, 2)
+        def idGenerator = new IdGenerator(CLOCK, 1)
 
-    def 'should generate id'() {
         expect:
-        1.upto(20, {
-            assert idGenerator.generate().length() == 8
-        })
+        idGenerator.generate(100).intersect(otherNodeIdGenerator.generate(100)).isEmpty()
+    }
+
+    def 'should generate unique ids concurrently'() {
+        given:
+        def executor = Executors.newFixedThreadPool(8)
+
+        when:
+        def ids = executor.invokeAll((1..8).collect {
+            { -> (1..5000).collect { idGenerator.generate() } } as Callable<List<String>>
+        }).collectMany { it.get() }
+
+        then:
+        ids.toSet().size() == 40000
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    def 'should not create generator with wrong node id'() {
+        when:
+        new IdGenerator(CLOCK, nodeId)
+
+        then:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == 'Node id should be between 0 and 1023'
+
+        where:
+        nodeId << [-1, 1024]
+    }
+
+    def 'should not reserve non positive number of ids'() {
+        when:
+        idGenerator.generate(0)
+
+        then:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == 'Number of ids should be positive'
+    }
+
+    def 'should not reserve more ids than fit in one millisecond'() {
+        when:
+        idGenerator.generate(4097)
+
+        then:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == 'Number of ids should not exceed 4096'
     }
 }
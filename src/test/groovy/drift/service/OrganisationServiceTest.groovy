@@ -13,10 +13,11 @@ class OrganisationServiceTest extends Specification {
     private idGenerator = Mock(IdGenerator)
     private securityService = Mock(SecurityService)
     private organisationRepository = Mock(OrganisationRepository)
+    private roleService = Mock(RoleService)
     private fileService = Mock(FileService)
     private image = Mock(MultipartFile)
 
-    private organisationService = new OrganisationService(idGenerator, securityService, organisationRepository, fileService)
+    private organisationService = new OrganisationService(idGenerator, securityService, organisationRepository, roleService, fileService)
 
 
     // --- Organisation registration
@@ -29,6 +30,7 @@ class OrganisationServiceTest extends Specification {
         1 * idGenerator.generate() >> ORGANISATION_ID
         1 * securityService.getRequesterId() >> USER_ID_1
         1 * organisationRepository.save(ORGANISATION) >> ORGANISATION
+        1 * roleService.evictRoles(USER_ID_1)
         0 * _
 
         and:
@@ -93,6 +95,7 @@ class OrganisationServiceTest extends Specification {
         1 * organisationRepository.findById(ORGANISATION_ID) >> Optional.of(ORGANISATION)
         1 * securityService.validateOwner(USER_ID_1, Organisation)
         1 * organisationRepository.save(deactivatedOrganisation)
+        1 * roleService.evictRoles(USER_ID_1)
         0 * _
     }
 
@@ -0,0 +1,73 @@
+package drift.service
+
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import static drift.util.TestConstants.*
+
+class PairsRacesBracketRegistryTest extends Specification {
+
+    private static final BRACKET = PairsRacesBracket.seed([USER_ID_1, USER_ID_2], N_OMT_1).withVersion(1L)
+
+    def 'should reuse cached bracket of persisted version'() {
+        given:
+        def registry = new PairsRacesBracketRegistry(10, 60000)
+        registry.put(CHAMPIONSHIP_STAGE_ID, BRACKET)
+
+        expect:
+        registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, 1L, { throw new IllegalStateException() }).is(BRACKET)
+    }
+
+    def 'should reload outdated bracket and cache the reloaded one'() {
+        given:
+        def registry = new PairsRacesBracketRegistry(10, 60000)
+        def persistedBracket = BRACKET.withOmt(1).withVersion(2L)
+        registry.put(CHAMPIONSHIP_STAGE_ID, BRACKET)
+
+        when:
+        def bracket = registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, 2L, { persistedBracket })
+
+        then:
+        bracket.is(persistedBracket)
+        registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, { throw new IllegalStateException() }).is(persistedBracket)
+    }
+
+    def 'should not replace cached bracket with older one'() {
+        given:
+        def registry = new PairsRacesBracketRegistry(10, 60000)
+        def newerBracket = BRACKET.withOmt(1).withVersion(2L)
+        registry.put(CHAMPIONSHIP_STAGE_ID, newerBracket)
+
+        when:
+        registry.put(CHAMPIONSHIP_STAGE_ID, BRACKET)
+
+        then:
+        registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, { throw new IllegalStateException() }).is(newerBracket)
+    }
+
+    def 'should reload bracket after it expires'() {
+        given:
+        def registry = new PairsRacesBracketRegistry(10, 50)
+        def loads = 0
+        registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, { loads++; BRACKET })
+
+        expect:
+        new PollingConditions(timeout: 5).eventually {
+            registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, { loads++; BRACKET })
+            assert loads == 2
+        }
+    }
+
+    def 'should reload bracket after eviction'() {
+        given:
+        def registry = new PairsRacesBracketRegistry(10, 60000)
+        def reloadedBracket = BRACKET.withOmt(1).withVersion(2L)
+        registry.put(CHAMPIONSHIP_STAGE_ID, BRACKET)
+
+        when:
+        registry.evict(CHAMPIONSHIP_STAGE_ID)
+
+        then:
+        registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, { reloadedBracket }).is(reloadedBracket)
+    }
+}
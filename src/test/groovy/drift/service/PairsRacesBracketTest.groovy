@@ -0,0 +1,150 @@
+package drift.service
+
+import drift.dto.BattleDto
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static drift.util.TestConstants.*
+
+class PairsRacesBracketTest extends Specification {
+
+    private static final PARTICIPANTS = (1..8).collect { "participant-$it".toString() }
+
+    def 'should seed qualified participants so that top qualified participants meet in the latest battles'() {
+        when:
+        def bracket = PairsRacesBracket.seed(PARTICIPANTS, N_OMT_1)
+
+        then:
+        bracket.getBattles() == [
+                battle(1, 2, null, null),
+                battle(2, 4, null, null),
+                battle(3, 4, null, null),
+                battle(4, 8, 'participant-1', 'participant-8'),
+                battle(5, 8, 'participant-4', 'participant-5'),
+                battle(6, 8, 'participant-2', 'participant-7'),
+                battle(7, 8, 'participant-3', 'participant-6')
+        ]
+        !bracket.isCompleted()
+    }
+
+    def 'should advance top qualified participants without battle if number of participants is not power of two'() {
+        when:
+        def bracket = PairsRacesBracket.seed(PARTICIPANTS.take(3), N_OMT_1)
+
+        then:
+        bracket.getBattles() == [
+                battle(1, 2, 'participant-1', null),
+                battle(3, 4, 'participant-2', 'participant-3')
+        ]
+    }
+
+    def 'should advance battle winners up to the final'() {
+        given:
+        def bracket = PairsRacesBracket.seed(PARTICIPANTS.take(3), N_OMT_1)
+
+        when:
+        def semifinalBracket = bracket.withWinner(3, 'participant-3')
+        def finalBracket = semifinalBracket.withWinner(1, 'participant-3')
+
+        then:
+        semifinalBracket.getBattles() == [
+                battle(1, 2, 'participant-1', 'participant-3'),
+                battle(3, 4, 'participant-2', 'participant-3', 'participant-3')
+        ]
+        !semifinalBracket.isCompleted()
+
+        and:
+        finalBracket.getBattles()[0] == battle(1, 2, 'participant-1', 'participant-3', 'participant-3')
+        finalBracket.isCompleted()
+
+        and:
+        bracket.getBattles() == PairsRacesBracket.seed(PARTICIPANTS.take(3), N_OMT_1).getBattles()
+    }
+
+    def 'should count OMT of battle up to the limit'() {
+        given:
+        def bracket = PairsRacesBracket.seed(PARTICIPANTS.take(2), 1).withOmt(1)
+
+        expect:
+        bracket.getBattles() == [battle(1, 2, 'participant-1', 'participant-2', null, 1)]
+
+        when:
+        bracket.withOmt(1)
+
+        then:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == 'Number of OMT is exceeded'
+    }
+
+    @Unroll
+    def 'should not update battle result if #description'() {
+        given:
+        def bracket = PairsRacesBracket.seed(PARTICIPANTS.take(3), N_OMT_1)
+
+        when:
+        update(bracket)
+
+        then:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == message
+
+        where:
+        description                            | update                                                               || message
+        'battle number is wrong'               | { it.withWinner(4, 'participant-1') }                                || 'Wrong battle number'
+        'battle participants are not known'    | { it.withWinner(1, 'participant-1') }                                || 'Battle participants are not determined yet'
+        'battle is finished'                   | { it.withWinner(3, 'participant-2').withWinner(3, 'participant-2') } || 'Battle is already finished'
+        'winner is not battle participant'     | { it.withWinner(3, 'participant-1') }                                || 'Wrong winner user id'
+        'winner is not provided'               | { it.withWinner(3, null) }                                           || 'Wrong winner user id'
+        'OMT is requested for finished battle' | { it.withWinner(3, 'participant-2').withOmt(3) }                     || 'Battle is already finished'
+    }
+
+    def 'should not seed bracket with less than two participants'() {
+        when:
+        PairsRacesBracket.seed(PARTICIPANTS.take(1), N_OMT_1)
+
+        then:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == 'Not enough participants for pairs races'
+    }
+
+    def 'should restore bracket from snapshot'() {
+        given:
+        def bracket = PairsRacesBracket.seed(PARTICIPANTS.take(5), N_OMT_1).withOmt(5).withWinner(5, 'participant-5').withVersion(3L)
+
+        when:
+        def restoredBracket = PairsRacesBracket.from(bracket.toSnapshot(CHAMPIONSHIP_STAGE_ID))
+
+        then:
+        restoredBracket.getBattles() == bracket.getBattles()
+        restoredBracket.getVersion() == 3L
+        restoredBracket.toSnapshot(CHAMPIONSHIP_STAGE_ID) == bracket.toSnapshot(CHAMPIONSHIP_STAGE_ID)
+    }
+
+    def 'should rank participants by knockout round and then by qualification place'() {
+        given:
+        def bracket = PairsRacesBracket.seed(PARTICIPANTS.take(5), N_OMT_1)
+                .withWinner(5, 'participant-5')
+                .withWinner(2, 'participant-5')
+                .withWinner(3, 'participant-3')
+                .withWinner(1, 'participant-3')
+
+        expect:
+        bracket.getPlaces() == ['participant-3', 'participant-5', 'participant-1', 'participant-2', 'participant-4']
+    }
+
+    def 'should not rank participants before pairs races are finished'() {
+        when:
+        PairsRacesBracket.seed(PARTICIPANTS.take(2), N_OMT_1).getPlaces()
+
+        then:
+        def exception = thrown(IllegalStateException)
+        exception.message == 'Pairs races are not finished'
+    }
+
+    private static BattleDto battle(int number, int top, String leaderUserId, String chaserUserId,
+                                    String winnerUserId = null, int omt = 0) {
+        BattleDto.builder()
+                .number(number).top(top).leaderUserId(leaderUserId).chaserUserId(chaserUserId)
+                .winnerUserId(winnerUserId).omt(omt).build()
+    }
+}
@@ -0,0 +1,78 @@
+package drift.service
+
+import drift.exception.ServiceOverloadedException
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadFactory
+
+import static drift.util.TestConstants.PASSWORD_1
+import static drift.util.TestConstants.PASSWORD_2
+
+class PasswordHasherTest extends Specification {
+
+    private registry = new SimpleMeterRegistry()
+
+    def 'should encode password and check if it matches encoded password'() {
+        given:
+        def passwordHasher = new PasswordHasher(4, 1, 1, 1, Executors.defaultThreadFactory())
+        passwordHasher.bindTo(registry)
+
+        when:
+        def encodedPassword = passwordHasher.encode(PASSWORD_1)
+
+        then:
+        passwordHasher.matches(PASSWORD_1, encodedPassword)
+        !passwordHasher.matches(PASSWORD_2, encodedPassword)
+
+        and:
+        registry.get('password.hashing').tag('operation', 'encode').timer().count() == 1
+        registry.get('password.hashing').tag('operation', 'matches').timer().count() == 2
+
+        cleanup:
+        passwordHasher.shutdown()
+    }
+
+    def 'should require rehash of password encoded with lower strength'() {
+        given:
+        def passwordHasher = new PasswordHasher(5, 1, 1, 1, Executors.defaultThreadFactory())
+
+        expect:
+        passwordHasher.needsRehash(new BCryptPasswordEncoder(4).encode(PASSWORD_1))
+        !passwordHasher.needsRehash(new BCryptPasswordEncoder(5).encode(PASSWORD_1))
+        !passwordHasher.needsRehash(new BCryptPasswordEncoder(6).encode(PASSWORD_1))
+
+        cleanup:
+        passwordHasher.shutdown()
+    }
+
+    def 'should reject password hashing if queue is full'() {
+        given:
+        def latch = new CountDownLatch(1)
+        def threadFactory = { task -> new Thread({ latch.await(); task.run() }) } as ThreadFactory
+        def passwordHasher = new PasswordHasher(4, 1, 1, 3, threadFactory)
+        passwordHasher.bindTo(registry)
+        def pendingHashing = (1..2).collect { Thread.start { passwordHasher.encode(PASSWORD_1) } }
+        new PollingConditions(timeout: 5).eventually {
+            assert registry.get('executor.queued').tag('name', 'password-hashing').gauge().value() == 1
+        }
+
+        when:
+        passwordHasher.encode(PASSWORD_1)
+
+        then:
+        def exception = thrown(ServiceOverloadedException)
+        exception.message == 'Too many password hashing requests'
+        exception.retryAfterInSeconds == 3
+        registry.get('password.hashing.rejected').counter().count() == 1
+
+        cleanup:
+        latch.countDown()
+        pendingHashing*.join()
+        passwordHasher.shutdown()
+    }
+}
@@ -0,0 +1,106 @@
+package drift.service
+
+import spock.lang.Specification
+
+import static drift.util.TestConstants.*
+
+class QualificationLeaderboardRegistryTest extends Specification {
+
+    private registry = new QualificationLeaderboardRegistry(10, 60000)
+
+    def 'should load leaderboard once while it is not behind championship stage version'() {
+        given:
+        def leaderboard = toQualificationLeaderboard(2L, [(USER_ID_1): QUALIFICATION_RESULTS])
+
+        when:
+        def loadedLeaderboard = registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, 2L, { leaderboard })
+
+        then:
+        loadedLeaderboard.is(leaderboard)
+
+        and:
+        registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, 1L, { throw new IllegalStateException() }).is(leaderboard)
+        registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, 2L, { throw new IllegalStateException() }).is(leaderboard)
+    }
+
+    def 'should reload leaderboard behind championship stage version'() {
+        given:
+        registry.put(CHAMPIONSHIP_STAGE_ID, toQualificationLeaderboard(1L, [(USER_ID_1): INITIAL_QUALIFICATION_RESULTS]))
+        def reloadedLeaderboard = toQualificationLeaderboard(3L, [(USER_ID_1): QUALIFICATION_RESULTS])
+
+        expect:
+        registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, 3L, { reloadedLeaderboard }).is(reloadedLeaderboard)
+    }
+
+    def 'should keep newer leaderboard put while outdated one is loaded'() {
+        given:
+        def newerLeaderboard = toQualificationLeaderboard(3L, [(USER_ID_1): QUALIFICATION_RESULTS])
+        def loadedLeaderboard = toQualificationLeaderboard(2L, [(USER_ID_1): INITIAL_QUALIFICATION_RESULTS])
+
+        when:
+        def leaderboard = registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, 2L, {
+            registry.put(CHAMPIONSHIP_STAGE_ID, newerLeaderboard)
+            loadedLeaderboard
+        })
+
+        then:
+        leaderboard.is(newerLeaderboard)
+        registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, 3L, { throw new IllegalStateException() }).is(newerLeaderboard)
+    }
+
+    def 'should load leaderboards of different stages independently'() {
+        given:
+        def otherLeaderboard = toQualificationLeaderboard(1L, [(USER_ID_2): QUALIFICATION_RESULTS])
+        def leaderboard = toQualificationLeaderboard(1L, [(USER_ID_1): QUALIFICATION_RESULTS])
+
+        when:
+        def loadedLeaderboard = registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, 1L, {
+            assert registry.getOrLoad(CHAMPIONSHIP_STAGE_ID + 1, 1L, { otherLeaderboard }).is(otherLeaderboard)
+            leaderboard
+        })
+
+        then:
+        loadedLeaderboard.is(leaderboard)
+    }
+
+    def 'should apply update of next championship stage version'() {
+        given:
+        def leaderboard = toQualificationLeaderboard(1L, [(USER_ID_1): INITIAL_QUALIFICATION_RESULTS])
+        registry.put(CHAMPIONSHIP_STAGE_ID, leaderboard)
+
+        when:
+        registry.update(CHAMPIONSHIP_STAGE_ID, 2L, { it.put(USER_ID_1, USER_ID_3, UPDATED_ATTEMPTS_POINTS) })
+
+        then:
+        leaderboard.version == 2L
+        leaderboard.getResults() == [(USER_ID_1): 70.95d]
+        registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, 2L, { throw new IllegalStateException() }).is(leaderboard)
+    }
+
+    def 'should skip update already reflected by leaderboard'() {
+        given:
+        def leaderboard = toQualificationLeaderboard(2L, [(USER_ID_1): INITIAL_QUALIFICATION_RESULTS])
+        registry.put(CHAMPIONSHIP_STAGE_ID, leaderboard)
+
+        when:
+        registry.update(CHAMPIONSHIP_STAGE_ID, 2L, { it.put(USER_ID_1, USER_ID_3, UPDATED_ATTEMPTS_POINTS) })
+
+        then:
+        leaderboard.version == 2L
+        leaderboard.getResults() == [(USER_ID_1): 0d]
+    }
+
+    def 'should evict leaderboard which missed championship stage version'() {
+        given:
+        def leaderboard = toQualificationLeaderboard(1L, [(USER_ID_1): INITIAL_QUALIFICATION_RESULTS])
+        registry.put(CHAMPIONSHIP_STAGE_ID, leaderboard)
+        def reloadedLeaderboard = toQualificationLeaderboard(3L, [(USER_ID_1): QUALIFICATION_RESULTS])
+
+        when:
+        registry.update(CHAMPIONSHIP_STAGE_ID, 3L, { it.put(USER_ID_1, USER_ID_3, UPDATED_ATTEMPTS_POINTS) })
+
+        then:
+        leaderboard.getResults() == [(USER_ID_1): 0d]
+        registry.getOrLoad(CHAMPIONSHIP_STAGE_ID, 1L, { reloadedLeaderboard }).is(reloadedLeaderboard)
+    }
+}
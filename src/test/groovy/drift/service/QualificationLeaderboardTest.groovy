@@ -0,0 +1,95 @@
+package drift.service
+
+import spock.lang.Specification
+
+import static drift.util.TestConstants.*
+
+class QualificationLeaderboardTest extends Specification {
+
+    private leaderboard = new QualificationLeaderboard(N_ATTEMPTS_1, 0L)
+
+    def 'should rank participants by best attempt result'() {
+        when:
+        putQualificationResults(USER_ID_1, INITIAL_QUALIFICATION_RESULTS)
+        putQualificationResults(USER_ID_2, UPDATED_QUALIFICATION_RESULTS)
+        putQualificationResults(USER_ID_3, QUALIFICATION_RESULTS)
+
+        then:
+        leaderboard.getResults() == [(USER_ID_3): 244d, (USER_ID_2): 70.95d, (USER_ID_1): 0d]
+        leaderboard.getResults().keySet() as List == [USER_ID_3, USER_ID_2, USER_ID_1]
+    }
+
+    def 'should rerank participant after judge attempts points update'() {
+        given:
+        putQualificationResults(USER_ID_1, INITIAL_QUALIFICATION_RESULTS)
+        putQualificationResults(USER_ID_2, INITIAL_QUALIFICATION_RESULTS)
+
+        when:
+        leaderboard.put(USER_ID_2, CHAMPIONSHIP_STAGE_JUDGE_3.userId, UPDATED_ATTEMPTS_POINTS)
+
+        then:
+        leaderboard.getResults().keySet() as List == [USER_ID_2, USER_ID_1]
+        leaderboard.getResults() == [(USER_ID_2): 70.95d, (USER_ID_1): 0d]
+    }
+
+    def 'should treat participant without qualification results as having zero result'() {
+        when:
+        leaderboard.add(USER_ID_1)
+
+        then:
+        leaderboard.getResults() == [(USER_ID_1): 0d]
+    }
+
+    def 'should remove participant'() {
+        given:
+        putQualificationResults(USER_ID_1, QUALIFICATION_RESULTS)
+        putQualificationResults(USER_ID_2, UPDATED_QUALIFICATION_RESULTS)
+
+        when:
+        leaderboard.remove(USER_ID_1)
+
+        then:
+        leaderboard.getResults() == [(USER_ID_2): 70.95d]
+    }
+
+    def 'should break tie of best attempt results by next best attempt results'() {
+        when:
+        putQualificationResults(USER_ID_1, [(USER_ID_3): [80d, 60d, 0d]])
+        putQualificationResults(USER_ID_2, [(USER_ID_3): [70d, 80d, 10d]])
+        putQualificationResults(USER_ID_3, [(USER_ID_3): [50d, 0d, 80d]])
+
+        then:
+        leaderboard.getResults().keySet() as List == [USER_ID_2, USER_ID_1, USER_ID_3]
+        leaderboard.getResults() == [(USER_ID_2): 80d, (USER_ID_1): 80d, (USER_ID_3): 80d]
+    }
+
+    def 'should build results from single attempt points of judges'() {
+        given:
+        leaderboard.add(USER_ID_1)
+        leaderboard.add(USER_ID_2)
+
+        when:
+        QUALIFICATION_RESULTS.each { judgeUserId, attemptsPoints ->
+            attemptsPoints.eachWithIndex { points, attempt -> leaderboard.put(USER_ID_2, judgeUserId, attempt, points) }
+        }
+
+        then:
+        leaderboard.getResults() == [(USER_ID_2): 244d, (USER_ID_1): 0d]
+    }
+
+    def 'should not reset results of participant on repeated add'() {
+        given:
+        putQualificationResults(USER_ID_1, QUALIFICATION_RESULTS)
+
+        when:
+        leaderboard.add(USER_ID_1)
+
+        then:
+        leaderboard.getResults() == [(USER_ID_1): 244d]
+    }
+
+    private void putQualificationResults(String participantUserId, Map<String, List<Double>> qualificationResults) {
+        leaderboard.add(participantUserId)
+        qualificationResults.each { judgeUserId, attemptsPoints -> leaderboard.put(participantUserId, judgeUserId, attemptsPoints) }
+    }
+}
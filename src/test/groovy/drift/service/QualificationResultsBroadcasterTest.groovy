@@ -0,0 +1,183 @@
+package drift.service
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+
+import static drift.util.TestConstants.*
+
+class QualificationResultsBroadcasterTest extends Specification {
+
+    private static final SEND_TIMEOUT_IN_MILLIS = 200
+
+    private sendTimeoutScheduler = Executors.newSingleThreadScheduledExecutor()
+    private pendingDispatches = []
+    private broadcaster = new QualificationResultsBroadcaster(
+            { pendingDispatches << it }, sendTimeoutScheduler, SEND_TIMEOUT_IN_MILLIS)
+
+    def cleanup() {
+        sendTimeoutScheduler.shutdownNow()
+    }
+
+    def 'should send standings on subscription and then changed rows only'() {
+        given:
+        def emitter = new RecordingSseEmitter()
+        broadcaster.subscribe(CHAMPIONSHIP_STAGE_ID, emitter, { [(USER_ID_1): 244d, (USER_ID_2): 0d] })
+
+        when:
+        broadcaster.publish(CHAMPIONSHIP_STAGE_ID, [(USER_ID_2): 70.95d])
+        dispatchAll()
+
+        then:
+        emitter.events == [
+                "event:standings\ndata:${[(USER_ID_1): 244d, (USER_ID_2): 0d]}\n\n",
+                "event:changes\ndata:${[(USER_ID_2): 70.95d]}\n\n"
+        ]
+    }
+
+    def 'should coalesce changes of subscriber while previous changes are not dispatched'() {
+        given:
+        def emitter = new RecordingSseEmitter()
+        broadcaster.subscribe(CHAMPIONSHIP_STAGE_ID, emitter, { [:] })
+
+        when:
+        broadcaster.publish(CHAMPIONSHIP_STAGE_ID, [(USER_ID_1): 10d])
+        broadcaster.publish(CHAMPIONSHIP_STAGE_ID, [(USER_ID_1): 20d, (USER_ID_2): 5d])
+        broadcaster.publish(CHAMPIONSHIP_STAGE_ID, [(USER_ID_1): 30d])
+
+        then:
+        pendingDispatches.size() == 1
+
+        when:
+        dispatchAll()
+
+        then:
+        emitter.events.drop(1) == ["event:changes\ndata:${[(USER_ID_1): 30d, (USER_ID_2): 5d]}\n\n"]
+    }
+
+    def 'should drop subscriber which failed to receive changes'() {
+        given:
+        def emitter = new RecordingSseEmitter(failing: true)
+        broadcaster.subscribe(CHAMPIONSHIP_STAGE_ID, emitter, { [:] })
+
+        expect:
+        !broadcaster.hasSubscribers(CHAMPIONSHIP_STAGE_ID)
+    }
+
+    def 'should not subscribe if standings can not be provided'() {
+        when:
+        broadcaster.subscribe(CHAMPIONSHIP_STAGE_ID, new RecordingSseEmitter(), { throw new IllegalArgumentException(EXCEPTION_MESSAGE) })
+
+        then:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == EXCEPTION_MESSAGE
+
+        and:
+        !broadcaster.hasSubscribers(CHAMPIONSHIP_STAGE_ID)
+    }
+
+    def 'should keep sending changes to other subscribers while one of them is blocked and then drop it'() {
+        given:
+        def dispatcher = Executors.newFixedThreadPool(2)
+        def broadcaster = new QualificationResultsBroadcaster(dispatcher, sendTimeoutScheduler, SEND_TIMEOUT_IN_MILLIS)
+        def blockingEmitter = new BlockingSseEmitter()
+        def emitter = new RecordingSseEmitter()
+        broadcaster.subscribe(CHAMPIONSHIP_STAGE_ID, blockingEmitter, { [:] })
+        broadcaster.subscribe(CHAMPIONSHIP_STAGE_ID, emitter, { [:] })
+        blockingEmitter.blocking = true
+
+        when:
+        broadcaster.publish(CHAMPIONSHIP_STAGE_ID, [(USER_ID_1): 10d])
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert emitter.events.drop(1) == ["event:changes\ndata:${[(USER_ID_1): 10d]}\n\n"]
+        }
+
+        and:
+        new PollingConditions(timeout: 5).eventually {
+            assert blockingEmitter.failure instanceof TimeoutException
+        }
+
+        when:
+        broadcaster.publish(CHAMPIONSHIP_STAGE_ID, [(USER_ID_2): 5d])
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert emitter.events.drop(2) == ["event:changes\ndata:${[(USER_ID_2): 5d]}\n\n"]
+        }
+
+        cleanup:
+        blockingEmitter.release.countDown()
+        dispatcher.shutdownNow()
+    }
+
+    def 'should not take more dispatcher threads than bounded pool has when subscribers are stalled'() {
+        given:
+        def dispatcher = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1))
+        def broadcaster = new QualificationResultsBroadcaster(dispatcher, sendTimeoutScheduler, SEND_TIMEOUT_IN_MILLIS)
+        def stalledEmitters = (1..10).collect { new BlockingSseEmitter() }
+        stalledEmitters.each { broadcaster.subscribe(CHAMPIONSHIP_STAGE_ID, it, { [:] }) }
+        stalledEmitters.each { it.blocking = true }
+
+        when:
+        broadcaster.publish(CHAMPIONSHIP_STAGE_ID, [(USER_ID_1): 10d])
+
+        then:
+        dispatcher.largestPoolSize == 2
+
+        and:
+        stalledEmitters.count { it.failure instanceof RejectedExecutionException } == 7
+
+        cleanup:
+        stalledEmitters.each { it.release.countDown() }
+        dispatcher.shutdownNow()
+    }
+
+    private void dispatchAll() {
+        while (pendingDispatches) {
+            pendingDispatches.remove(0).run()
+        }
+    }
+
+    private static class RecordingSseEmitter extends SseEmitter {
+
+        List<String> events = []
+        boolean failing
+
+        @Override
+        void send(SseEmitter.SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException(EXCEPTION_MESSAGE)
+            }
+            events << builder.build().collect { it.data.toString() }.join()
+        }
+    }
+
+    private static class BlockingSseEmitter extends SseEmitter {
+
+        volatile boolean blocking
+        volatile Throwable failure
+        CountDownLatch release = new CountDownLatch(1)
+
+        @Override
+        void send(SseEmitter.SseEventBuilder builder) throws IOException {
+            if (blocking) {
+                release.await()
+            }
+        }
+
+        @Override
+        void completeWithError(Throwable failure) {
+            this.failure = failure
+        }
+    }
+}
@@ -4,15 +4,17 @@ import drift.repository.CarRepository
 import drift.repository.OrganisationRepository
 import spock.lang.Specification
 import spock.lang.Unroll
+import spock.util.concurrent.PollingConditions
 
 import static drift.model.Role.*
+import static drift.util.TestConstants.EXCEPTION_MESSAGE
 import static drift.util.TestConstants.USER_ID_1
 
 class RoleServiceTest extends Specification {
 
     private carRepository = Mock(CarRepository)
     private organisationRepository = Mock(OrganisationRepository)
-    private roleService = new RoleService(carRepository, organisationRepository)
+    private roleService = new RoleService(carRepository, organisationRepository, 10, 60000)
 
     @Unroll
     def 'should provide roles correctly when user [#description]'() {
@@ -22,7 +24,7 @@ class RoleServiceTest extends Specification {
         0 * _
 
         expect:
-        roleService.getRoles(USER_ID_1) == roles
+        roleService.getRoles(USER_ID_1) == roles as Set
 
         where:
         description                      | hasCar | hasOrganisation || roles
@@ -37,7 +39,7 @@ class RoleServiceTest extends Specification {
         def result = roleService.userHasRoles(USER_ID_1, [ORGANIZER, SPECTATOR])
 
         then:
-        1 * carRepository.existsByOwnerIdAndActive(USER_ID_1, true) >> true
+        1 * carRepository.existsByOwnerIdAndActive(USER_ID_1, true) >> false
         1 * organisationRepository.existsByOwnerIdAndActive(USER_ID_1, true) >> true
         0 * _
 
@@ -48,11 +50,54 @@ class RoleServiceTest extends Specification {
         result = roleService.userHasRoles(USER_ID_1, [DRIVER, ORGANIZER])
 
         then:
+        0 * _
+
+        and:
+        !result
+    }
+
+    def 'should reload roles of user after eviction'() {
+        given:
         1 * carRepository.existsByOwnerIdAndActive(USER_ID_1, true) >> false
         1 * organisationRepository.existsByOwnerIdAndActive(USER_ID_1, true) >> false
+        roleService.getRoles(USER_ID_1)
+
+        when:
+        roleService.evictRoles(USER_ID_1)
+        def roles = roleService.getRoles(USER_ID_1)
+
+        then:
+        1 * carRepository.existsByOwnerIdAndActive(USER_ID_1, true) >> true
+        1 * organisationRepository.existsByOwnerIdAndActive(USER_ID_1, true) >> false
         0 * _
 
         and:
-        !result
+        roles == [SPECTATOR, DRIVER] as Set
+    }
+
+    def 'should reload roles of user after they expire'() {
+        given:
+        def roleService = new RoleService(carRepository, organisationRepository, 10, 50)
+        carRepository.existsByOwnerIdAndActive(USER_ID_1, true) >>> [false, true]
+        organisationRepository.existsByOwnerIdAndActive(USER_ID_1, true) >> false
+        roleService.getRoles(USER_ID_1)
+
+        expect:
+        new PollingConditions(timeout: 5).eventually {
+            assert roleService.getRoles(USER_ID_1) == [SPECTATOR, DRIVER] as Set
+        }
+    }
+
+    def 'should rethrow exception of roles loading'() {
+        when:
+        roleService.getRoles(USER_ID_1)
+
+        then:
+        1 * carRepository.existsByOwnerIdAndActive(USER_ID_1, true) >> { throw new IllegalArgumentException(EXCEPTION_MESSAGE) }
+        0 * _
+
+        and:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == EXCEPTION_MESSAGE
     }
 }
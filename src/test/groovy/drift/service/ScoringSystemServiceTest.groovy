@@ -1,6 +1,7 @@
 package drift.service
 
 import drift.repository.ScoringSystemRepository
+import drift.repository.ScoringSystemsVersionRow
 import spock.lang.Specification
 
 import static drift.util.TestConstants.*
@@ -57,6 +58,27 @@ class ScoringSystemServiceTest extends Specification {
         scoringSystemService.getScoringSystem(SCORING_SYSTEM_ID) == SCORING_SYSTEM_DTO
     }
 
+    def 'should provide version of scoring systems'() {
+        given:
+        1 * scoringSystemRepository.findVersion() >> Stub(ScoringSystemsVersionRow) {
+            getCount() >> 2
+            getVersionSum() >> 5
+        }
+        0 * _
+
+        expect:
+        scoringSystemService.getScoringSystemsVersion() == '2.5'
+    }
+
+    def 'should provide version of scoring system'() {
+        given:
+        1 * scoringSystemRepository.findById(SCORING_SYSTEM_ID) >> Optional.of(SCORING_SYSTEM.toBuilder().version(1).build())
+        0 * _
+
+        expect:
+        scoringSystemService.getScoringSystemVersion(SCORING_SYSTEM_ID) == '1'
+    }
+
     def 'should throw exception during scoring system retrieval if scoring system is not found by provided id'() {
         when:
         scoringSystemService.getScoringSystem(SCORING_SYSTEM_ID)
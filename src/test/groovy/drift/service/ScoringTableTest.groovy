@@ -0,0 +1,35 @@
+package drift.service
+
+import spock.lang.Specification
+
+import static drift.util.TestConstants.*
+
+class ScoringTableTest extends Specification {
+
+    private scoringTable = ScoringTable.compile(SCORING_SYSTEM_DTO)
+
+    def 'should look up points by place'() {
+        expect:
+        scoringTable.getParticipationPoints() == PARTICIPATION_POINTS
+        scoringTable.getQualificationPoints(place) == qualificationPoints
+        scoringTable.getPoints(place) == points
+
+        where:
+        place || qualificationPoints | points
+        1     || 5.1d                | 50.1d
+        2     || 4.1d                | 40.1d
+        5     || 1.1d                | 10.1d
+        6     || 0d                  | 10.1d
+        32    || 0d                  | 10.1d
+    }
+
+    def 'should give no points if points tables are empty'() {
+        given:
+        def emptyScoringTable = ScoringTable.compile(
+                SCORING_SYSTEM_DTO.toBuilder().qualificationPoints([]).points([]).build())
+
+        expect:
+        emptyScoringTable.getQualificationPoints(1) == 0d
+        emptyScoringTable.getPoints(1) == 0d
+    }
+}
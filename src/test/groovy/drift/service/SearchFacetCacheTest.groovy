@@ -0,0 +1,69 @@
+package drift.service
+
+import drift.exception.ValidationException
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import static drift.util.TestConstants.EXCEPTION_MESSAGE
+
+class SearchFacetCacheTest extends Specification {
+
+    private static final QUERY = ['trainings', 'discipline', [:]]
+    private static final COUNTS = ['SPORT': 2L, 'TWIN': 1L]
+
+    def 'should load counts once while they are cached'() {
+        given:
+        def searchFacetCache = new SearchFacetCache(10, 60000)
+        def loads = 0
+
+        when:
+        def counts = (1..3).collect { searchFacetCache.getOrLoad(QUERY, { loads++; COUNTS }) }
+
+        then:
+        counts == [COUNTS, COUNTS, COUNTS]
+        counts[0].keySet() as List == ['SPORT', 'TWIN']
+        loads == 1
+    }
+
+    def 'should reload counts after they expire'() {
+        given:
+        def searchFacetCache = new SearchFacetCache(10, 50)
+        def loads = 0
+        searchFacetCache.getOrLoad(QUERY, { loads++; COUNTS })
+
+        expect:
+        new PollingConditions(timeout: 5).eventually {
+            searchFacetCache.getOrLoad(QUERY, { loads++; COUNTS })
+            assert loads == 2
+        }
+    }
+
+    def 'should reload counts after cache is cleared'() {
+        given:
+        def searchFacetCache = new SearchFacetCache(10, 60000)
+        def loads = 0
+        searchFacetCache.getOrLoad(QUERY, { loads++; COUNTS })
+
+        when:
+        searchFacetCache.clear()
+        searchFacetCache.getOrLoad(QUERY, { loads++; COUNTS })
+
+        then:
+        loads == 2
+    }
+
+    def 'should rethrow exception of failed load and not cache it'() {
+        given:
+        def searchFacetCache = new SearchFacetCache(10, 60000)
+
+        when:
+        searchFacetCache.getOrLoad(QUERY, { throw new ValidationException(EXCEPTION_MESSAGE) })
+
+        then:
+        def exception = thrown(ValidationException)
+        exception.message == EXCEPTION_MESSAGE
+
+        and:
+        searchFacetCache.getOrLoad(QUERY, { COUNTS }) == COUNTS
+    }
+}
@@ -0,0 +1,160 @@
+package drift.service
+
+import drift.dto.SearchTarget
+import drift.exception.ServiceOverloadedException
+import drift.exception.ValidationException
+import drift.repository.*
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+
+import java.lang.reflect.InvocationHandler
+import java.lang.reflect.Proxy
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.TimeUnit
+
+import static drift.util.TestConstants.EXCEPTION_MESSAGE
+
+class SearchServiceTest extends Specification {
+
+    private userRepository = Mock(UserRepository)
+    private carRepository = Mock(CarRepository)
+    private organisationRepository = Mock(OrganisationRepository)
+    private championshipRepository = Mock(ChampionshipRepository)
+    private championshipStageRepository = Mock(ChampionshipStageRepository)
+    private trainingRepository = Mock(TrainingRepository)
+    private registry = new SimpleMeterRegistry()
+
+    private usersPage = new SearchPage(['user'], 'users-cursor')
+    private carsPage = new SearchPage(['car'], null)
+    private trainingsPage = new SearchPage(['training'], null)
+
+    def 'should run requested searches concurrently and merge their pages'() {
+        given:
+        def started = new CountDownLatch(3)
+        def usersContext = new UsersSearchContext(active: true)
+        def carsContext = new CarsSearchContext()
+        def trainingsContext = new TrainingsSearchContext(limit: 1)
+        def searchService = new SearchService(
+                repository(UserRepository, { UsersSearchContext context -> awaitAll(started, context, usersContext, usersPage) }),
+                repository(CarRepository, { CarsSearchContext context -> awaitAll(started, context, carsContext, carsPage) }),
+                organisationRepository, championshipRepository, championshipStageRepository,
+                repository(TrainingRepository, { TrainingsSearchContext context -> awaitAll(started, context, trainingsContext, trainingsPage) }),
+                3, 3, 5000, 3, Executors.defaultThreadFactory())
+
+        when:
+        def result = searchService.search(new UnifiedSearchContext(users: usersContext, cars: carsContext, trainings: trainingsContext))
+
+        then:
+        0 * _
+
+        and:
+        result.users == usersPage
+        result.cars == carsPage
+        result.trainings == trainingsPage
+        result.organisations == null
+        result.championships == null
+        result.championshipStages == null
+        result.timedOut.isEmpty()
+
+        cleanup:
+        searchService.shutdown()
+    }
+
+    def 'should report searches which miss deadline as timed out'() {
+        given:
+        def release = new CountDownLatch(1)
+        def searchService = new SearchService(
+                repository(UserRepository, { UsersSearchContext context -> usersPage }),
+                repository(CarRepository, { CarsSearchContext context -> release.await(5, TimeUnit.SECONDS); carsPage }),
+                organisationRepository, championshipRepository, championshipStageRepository, trainingRepository,
+                2, 2, 200, 3, Executors.defaultThreadFactory())
+        searchService.bindTo(registry)
+
+        when:
+        def result = searchService.search(new UnifiedSearchContext(users: new UsersSearchContext(), cars: new CarsSearchContext()))
+
+        then:
+        0 * _
+
+        and:
+        result.users == usersPage
+        result.cars == null
+        result.timedOut == [SearchTarget.CARS] as Set
+        registry.get('search.timed.out').counter().count() == 1
+
+        cleanup:
+        release.countDown()
+        searchService.shutdown()
+    }
+
+    def 'should rethrow exception of failed search'() {
+        given:
+        def searchService = searchService(2, 2, 5000, Executors.defaultThreadFactory())
+        def usersContext = new UsersSearchContext(cursor: '%%')
+
+        when:
+        searchService.search(new UnifiedSearchContext(users: usersContext))
+
+        then:
+        1 * userRepository.search(usersContext) >> { throw new ValidationException(EXCEPTION_MESSAGE) }
+        0 * _
+
+        and:
+        def exception = thrown(ValidationException)
+        exception.message == EXCEPTION_MESSAGE
+
+        cleanup:
+        searchService.shutdown()
+    }
+
+    def 'should reject search if queue is full'() {
+        given:
+        def latch = new CountDownLatch(1)
+        def threadFactory = { task -> new Thread({ latch.await(); task.run() }) } as ThreadFactory
+        def searchService = searchService(1, 1, 5000, threadFactory)
+        searchService.bindTo(registry)
+
+        when:
+        searchService.search(new UnifiedSearchContext(
+                users: new UsersSearchContext(), cars: new CarsSearchContext(), trainings: new TrainingsSearchContext()))
+
+        then:
+        0 * _
+
+        and:
+        def exception = thrown(ServiceOverloadedException)
+        exception.message == 'Too many search requests'
+        exception.retryAfterInSeconds == 3
+        registry.get('search.rejected').counter().count() == 1
+
+        cleanup:
+        latch.countDown()
+        searchService.shutdown()
+    }
+
+    private searchService(int threads, int queueCapacity, long deadlineInMillis, ThreadFactory threadFactory) {
+        new SearchService(userRepository, carRepository, organisationRepository, championshipRepository,
+                championshipStageRepository, trainingRepository, threads, queueCapacity, deadlineInMillis, 3,
+                threadFactory)
+    }
+
+    private static <T> T repository(Class<T> type, Closure search) {
+        def handler = { proxy, method, args ->
+            if (method.name != 'search') {
+                throw new UnsupportedOperationException(method.name)
+            }
+            search(args[0])
+        } as InvocationHandler
+        Proxy.newProxyInstance(type.classLoader, [type] as Class[], handler) as T
+    }
+
+    // Note: every search waits for the others to start, so they complete only if they run concurrently.
+    private static awaitAll(CountDownLatch started, Object context, Object expectedContext, SearchPage page) {
+        assert context.is(expectedContext)
+        started.countDown()
+        assert started.await(5, TimeUnit.SECONDS)
+        page
+    }
+}
@@ -1,12 +1,18 @@
 package drift.service
 
 
+import drift.dto.CarDto
+import drift.dto.UserDto
+import drift.dto.UserWithCarsDto
 import drift.model.ImageCategory
 import drift.model.Role
 import drift.model.Training
 import drift.model.TrainingParticipant
+import drift.model.User
 import drift.repository.TrainingParticipantRepository
+import drift.repository.SearchPage
 import drift.repository.TrainingRepository
+import drift.repository.UsersWithCarsSearchContext
 import org.springframework.web.multipart.MultipartFile
 import spock.lang.Specification
 
@@ -290,6 +296,18 @@ class TrainingServiceTest extends Specification {
         trainingService.getParticipants(TRAINING_ID) == [USER_ID_1, USER_ID_2] as Set
     }
 
+    def 'should provide page of training participants with their cars'() {
+        given:
+        def context = new UsersWithCarsSearchContext(limit: 1)
+        def page = new SearchPage([new UserWithCarsDto(UserDto.from(User.builder().id(USER_ID_1).build()), [CarDto.from(CAR)])], 'cursor')
+        1 * trainingRepository.findById(TRAINING_ID) >> Optional.of(TRAINING)
+        1 * trainingParticipantRepository.searchUsersWithCars(TRAINING_ID, context) >> page
+        0 * _
+
+        expect:
+        trainingService.getParticipants(TRAINING_ID, context) == page
+    }
+
     def 'should not provide participants if wrong training id is provided'() {
         when:
         trainingService.getParticipants(TRAINING_ID)
@@ -0,0 +1,117 @@
+package drift.service
+
+import drift.dto.UserDto
+import drift.model.User
+import spock.lang.Specification
+
+import static drift.util.TestConstants.*
+
+class UserNameIndexTest extends Specification {
+
+    private index = new UserNameIndex()
+
+    def 'should find users by prefix of first name, last name or email'() {
+        given:
+        index.put(user(USER_ID_1, 'John', 'Smith', 'js@mail.com'))
+        index.put(user(USER_ID_2, 'Johanna', 'Doe', 'jd@mail.com'))
+        index.put(user(USER_ID_3, 'Anna', 'Johnson', 'anna@mail.com'))
+
+        expect:
+        index.search('jo', 10) == [USER_ID_2, USER_ID_1, USER_ID_3]
+        index.search('SMI', 10) == [USER_ID_1]
+        index.search('anna@', 10) == [USER_ID_3]
+        index.search('x', 10) == []
+    }
+
+    def 'should rank users whose name equals query before users whose name starts with it'() {
+        given:
+        index.put(user(USER_ID_1, 'Johnny', null, null))
+        index.put(user(USER_ID_2, 'John', null, null))
+
+        expect:
+        index.search('john', 10) == [USER_ID_2, USER_ID_1]
+    }
+
+    def 'should find users matching every query term'() {
+        given:
+        index.put(user(USER_ID_1, 'John', 'Smith', null))
+        index.put(user(USER_ID_2, 'John', 'Doe', null))
+        index.put(user(USER_ID_3, 'Jane Mary', 'Smith', null))
+
+        expect:
+        index.search('jo sm', 10) == [USER_ID_1]
+        index.search(' smith  mar ', 10) == [USER_ID_3]
+    }
+
+    def 'should return not more users than limit'() {
+        given:
+        index.put(user(USER_ID_1, 'John', null, null))
+        index.put(user(USER_ID_2, 'Johanna', null, null))
+        index.put(user(USER_ID_3, 'Joe', null, null))
+
+        expect:
+        index.search('jo', 2) == [USER_ID_3, USER_ID_2]
+    }
+
+    def 'should replace names of user on repeated put'() {
+        given:
+        index.put(user(USER_ID_1, 'John', 'Smith', null))
+
+        when:
+        index.put(user(USER_ID_1, 'Jack', null, null))
+
+        then:
+        index.search('john', 10) == []
+        index.search('smith', 10) == []
+        index.search('jack', 10) == [USER_ID_1]
+    }
+
+    def 'should remove user and reuse its entry'() {
+        given:
+        index.put(user(USER_ID_1, 'John', null, null))
+        index.put(user(USER_ID_2, 'Johanna', null, null))
+
+        when:
+        index.remove(USER_ID_1)
+        index.put(user(USER_ID_3, 'Jack', null, null))
+
+        then:
+        index.search('j', 10) == [USER_ID_3, USER_ID_2]
+    }
+
+    def 'should not find users which do not have names'() {
+        when:
+        index.put(user(USER_ID_1, null, ' ', null))
+
+        then:
+        index.search('', 10) == []
+        index.search(' ', 10) == []
+    }
+
+    def 'should replace all users on rebuild'() {
+        given:
+        index.put(user(USER_ID_1, 'John', null, null))
+
+        when:
+        index.rebuild([user(USER_ID_2, 'Jack', null, null), user(USER_ID_3, 'Joe', null, null)].stream())
+
+        then:
+        index.search('j', 10) == [USER_ID_2, USER_ID_3]
+    }
+
+    def 'should apply updates made during rebuild on top of rebuilt index'() {
+        given:
+        def users = [user(USER_ID_1, 'John', null, null), user(USER_ID_2, 'Jack', null, null)].stream()
+                .peek { if (it.id == USER_ID_2) { index.put(user(USER_ID_3, 'Joe', null, null)); index.remove(USER_ID_1) } }
+
+        when:
+        index.rebuild(users)
+
+        then:
+        index.search('j', 10) == [USER_ID_2, USER_ID_3]
+    }
+
+    private static user(String id, String firstName, String lastName, String email) {
+        UserDto.from(User.builder().id(id).firstName(firstName).lastName(lastName).email(email).active(true).build())
+    }
+}
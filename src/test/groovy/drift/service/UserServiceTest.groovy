@@ -1,11 +1,17 @@
 package drift.service
 
 import drift.dto.UserDto
+import drift.dto.UserNameSearchDto
+import drift.dto.UserUpdateDto
+import drift.exception.ServiceOverloadedException
 import drift.model.ImageCategory
 import drift.model.User
 import drift.repository.UserRepository
+import drift.repository.UsersSearchContext
+import drift.util.NoTransactionOperations
 import org.springframework.web.multipart.MultipartFile
 import spock.lang.Specification
+import spock.lang.Unroll
 
 import static drift.util.TestConstants.*
 
@@ -14,11 +20,15 @@ class UserServiceTest extends Specification {
     private idGenerator = Mock(IdGenerator)
     private userRepository = Mock(UserRepository)
     private securityService = Mock(SecurityService)
+    private accessTokenRevocationService = Mock(AccessTokenRevocationService)
+    private userNameIndex = Mock(UserNameIndex)
     private mailService = Mock(MailService)
     private fileService = Mock(FileService)
     private image = Mock(MultipartFile)
 
-    private userService = new UserService(idGenerator, userRepository, securityService, mailService, fileService)
+    private userService = new UserService(
+            idGenerator, userRepository, securityService, accessTokenRevocationService, userNameIndex, mailService,
+            fileService, new NoTransactionOperations())
 
 
     // --- User registration
@@ -95,6 +105,7 @@ class UserServiceTest extends Specification {
         then:
         1 * userRepository.findByEmailAndActive(NORMALIZED_EMAIL, false) >> Optional.of(registeredUser)
         1 * userRepository.save(activatedUser)
+        1 * userNameIndex.put(UserDto.from(activatedUser))
         0 * _
     }
 
@@ -142,6 +153,47 @@ class UserServiceTest extends Specification {
         then:
         1 * userRepository.findByEmailAndActive(NORMALIZED_EMAIL, true) >> Optional.of(user)
         1 * securityService.matches(PASSWORD_1, PASSWORD_1_ENCODED) >> true
+        1 * securityService.needsRehash(PASSWORD_1_ENCODED) >> false
+        1 * securityService.generateAccessToken(USER_ID_1) >> ACCESS_TOKEN
+        0 * _
+
+        and:
+        accessToken == ACCESS_TOKEN
+    }
+
+    def 'should rehash password during successful sign in if password is encoded with outdated strength'() {
+        given:
+        def user = User.builder().id(USER_ID_1).password(PASSWORD_2_ENCODED).build()
+        def userWithRehashedPassword = user.toBuilder().password(PASSWORD_1_ENCODED).build()
+
+        when:
+        def accessToken = userService.signIn(SIGN_IN_DTO)
+
+        then:
+        1 * userRepository.findByEmailAndActive(NORMALIZED_EMAIL, true) >> Optional.of(user)
+        1 * securityService.matches(PASSWORD_1, PASSWORD_2_ENCODED) >> true
+        1 * securityService.needsRehash(PASSWORD_2_ENCODED) >> true
+        1 * securityService.encode(PASSWORD_1) >> PASSWORD_1_ENCODED
+        1 * userRepository.save(userWithRehashedPassword)
+        1 * securityService.generateAccessToken(USER_ID_1) >> ACCESS_TOKEN
+        0 * _
+
+        and:
+        accessToken == ACCESS_TOKEN
+    }
+
+    def 'should skip password rehash and sign in if password hashing queue is saturated'() {
+        given:
+        def user = User.builder().id(USER_ID_1).password(PASSWORD_2_ENCODED).build()
+
+        when:
+        def accessToken = userService.signIn(SIGN_IN_DTO)
+
+        then:
+        1 * userRepository.findByEmailAndActive(NORMALIZED_EMAIL, true) >> Optional.of(user)
+        1 * securityService.matches(PASSWORD_1, PASSWORD_2_ENCODED) >> true
+        1 * securityService.needsRehash(PASSWORD_2_ENCODED) >> true
+        1 * securityService.encode(PASSWORD_1) >> { throw new ServiceOverloadedException(EXCEPTION_MESSAGE, 1) }
         1 * securityService.generateAccessToken(USER_ID_1) >> ACCESS_TOKEN
         0 * _
 
@@ -184,17 +236,18 @@ class UserServiceTest extends Specification {
 
     def 'should reset password successfully'() {
         given:
-        def user = User.builder().password(PASSWORD_1_ENCODED).build()
-        def userWithNewPassword = User.builder().password(PASSWORD_2_ENCODED).build()
+        def user = User.builder().id(USER_ID_1).password(PASSWORD_1_ENCODED).build()
+        def userWithNewPassword = User.builder().id(USER_ID_1).password(PASSWORD_2_ENCODED).build()
 
         when:
         userService.resetPassword(RESET_PASSWORD_DTO)
 
         then:
         1 * userRepository.findByEmailAndActive(NORMALIZED_EMAIL, true) >> Optional.of(user)
-        1 * idGenerator.generate() >> PASSWORD_2
+        1 * securityService.generatePassword() >> PASSWORD_2
         1 * securityService.encode(PASSWORD_2) >> PASSWORD_2_ENCODED
         1 * userRepository.save(userWithNewPassword)
+        1 * accessTokenRevocationService.revokeAccessTokens(USER_ID_1)
         1 * mailService.sendPasswordResetMail(NORMALIZED_EMAIL, PASSWORD_2)
         0 * _
     }
@@ -224,7 +277,7 @@ class UserServiceTest extends Specification {
         def retrievedUserDto = userService.getUser(USER_ID_1)
 
         then:
-        1 * userRepository.findByIdAndActive(USER_ID_1, true) >> Optional.of(user)
+        1 * userRepository.findByIdAndActive(USER_ID_1, true, UserDto) >> Optional.of(userDto)
         0 * _
 
         and:
@@ -236,7 +289,40 @@ class UserServiceTest extends Specification {
         userService.getUser(USER_ID_1)
 
         then:
-        1 * userRepository.findByIdAndActive(USER_ID_1, true) >> Optional.empty()
+        1 * userRepository.findByIdAndActive(USER_ID_1, true, UserDto) >> Optional.empty()
+        0 * _
+
+        and:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == 'Wrong user id'
+    }
+
+    def 'should retrieve users by ids'() {
+        given:
+        def userDtos = [USER_ID_1, USER_ID_2].collect {
+            UserDto.from(User.builder().id(it).email(NORMALIZED_EMAIL).password(PASSWORD_1_ENCODED).active(true).build())
+        }
+
+        when:
+        def retrievedUserDtos = userService.getUsers([USER_ID_1, USER_ID_2, USER_ID_1])
+
+        then:
+        1 * userRepository.findAllByIdInAndActive({ it == [USER_ID_1, USER_ID_2] as Set }, true, UserDto) >> userDtos
+        0 * _
+
+        and:
+        retrievedUserDtos == userDtos
+    }
+
+    def 'should throw exception during users retrieval if some active user is not found by provided id'() {
+        given:
+        def userDto = UserDto.from(User.builder().id(USER_ID_1).email(NORMALIZED_EMAIL).password(PASSWORD_1_ENCODED).active(true).build())
+
+        when:
+        userService.getUsers([USER_ID_1, USER_ID_2])
+
+        then:
+        1 * userRepository.findAllByIdInAndActive({ it == [USER_ID_1, USER_ID_2] as Set }, true, UserDto) >> [userDto]
         0 * _
 
         and:
@@ -257,7 +343,7 @@ class UserServiceTest extends Specification {
 
         then:
         1 * securityService.getRequesterId() >> USER_ID_1
-        1 * userRepository.findByIdAndActive(USER_ID_1, true) >> Optional.of(user)
+        1 * userRepository.findByIdAndActive(USER_ID_1, true, UserDto) >> Optional.of(userDto)
         0 * _
 
         and:
@@ -270,7 +356,7 @@ class UserServiceTest extends Specification {
 
         then:
         1 * securityService.getRequesterId() >> USER_ID_1
-        1 * userRepository.findByIdAndActive(USER_ID_1, true) >> Optional.empty()
+        1 * userRepository.findByIdAndActive(USER_ID_1, true, UserDto) >> Optional.empty()
         0 * _
 
         and:
@@ -296,6 +382,26 @@ class UserServiceTest extends Specification {
         1 * userRepository.findByIdAndActive(USER_ID_1, true) >> Optional.of(user)
         1 * securityService.encode(PASSWORD_2) >> PASSWORD_2_ENCODED
         1 * userRepository.save(updatedUser)
+        1 * accessTokenRevocationService.revokeAccessTokens(USER_ID_1)
+        1 * userNameIndex.put(UserDto.from(updatedUser))
+        0 * _
+    }
+
+    def "should not revoke access tokens during requester's user update if password is not updated"() {
+        given:
+        def user = User.builder().id(USER_ID_1).email(NORMALIZED_EMAIL).password(PASSWORD_1_ENCODED).build()
+        def updatedUser = user.toBuilder()
+                .firstName(FIRST_NAME).lastName(LAST_NAME).countryCode(COUNTRY_CODE).city(CITY).build()
+
+        when:
+        userService.updateMe(new UserUpdateDto(
+                firstName: FIRST_NAME, lastName: LAST_NAME, countryCode: COUNTRY_CODE, city: CITY))
+
+        then:
+        1 * securityService.getRequesterId() >> USER_ID_1
+        1 * userRepository.findByIdAndActive(USER_ID_1, true) >> Optional.of(user)
+        1 * userRepository.save(updatedUser)
+        1 * userNameIndex.put(UserDto.from(updatedUser))
         0 * _
     }
 
@@ -328,6 +434,8 @@ class UserServiceTest extends Specification {
         1 * securityService.getRequesterId() >> USER_ID_1
         1 * userRepository.findByIdAndActive(USER_ID_1, true) >> Optional.of(user)
         1 * userRepository.save(deactivatedUser)
+        1 * accessTokenRevocationService.revokeAccessTokens(USER_ID_1)
+        1 * userNameIndex.remove(USER_ID_1)
         0 * _
     }
 
@@ -346,6 +454,78 @@ class UserServiceTest extends Specification {
     }
 
 
+    // --- Users search by name
+
+    def 'should search for active users by name in order of name index'() {
+        given:
+        def user1 = UserDto.from(User.builder().id(USER_ID_1).firstName(FIRST_NAME).active(true).build())
+        def user3 = UserDto.from(User.builder().id(USER_ID_3).firstName(FIRST_NAME).active(true).build())
+
+        when:
+        def users = userService.searchForUsersByName(new UserNameSearchDto(query: FIRST_NAME, limit: 5))
+
+        then:
+        1 * userNameIndex.search(FIRST_NAME, 5) >> [USER_ID_3, USER_ID_2, USER_ID_1]
+        1 * userRepository.findAllByIdInAndActive([USER_ID_3, USER_ID_2, USER_ID_1], true, UserDto) >> [user1, user3]
+        0 * _
+
+        and:
+        users == [user3, user1]
+    }
+
+    def 'should not read users if name index has no matches'() {
+        when:
+        def users = userService.searchForUsersByName(new UserNameSearchDto(query: FIRST_NAME))
+
+        then:
+        1 * userNameIndex.search(FIRST_NAME, 10) >> []
+        0 * _
+
+        and:
+        users == []
+    }
+
+    def 'should return no users if query is blank'() {
+        when:
+        def users = userService.searchForUsersByName(new UserNameSearchDto(query: ' '))
+
+        then:
+        0 * _
+
+        and:
+        users == []
+    }
+
+    @Unroll
+    def 'should not search for users by name if limit is #limit'() {
+        when:
+        userService.searchForUsersByName(new UserNameSearchDto(query: FIRST_NAME, limit: limit))
+
+        then:
+        0 * _
+
+        and:
+        def exception = thrown(IllegalArgumentException)
+        exception.message == 'Limit should be between 1 and 50'
+
+        where:
+        limit << [0, 51]
+    }
+
+    def 'should rebuild name index from active users'() {
+        given:
+        def users = [UserDto.from(User.builder().id(USER_ID_1).active(true).build())].stream()
+
+        when:
+        userService.rebuildUserNameIndex()
+
+        then:
+        1 * userRepository.stream(new UsersSearchContext(active: true)) >> users
+        1 * userNameIndex.rebuild(users)
+        0 * _
+    }
+
+
     // --- Image upload
 
     def 'should upload image successfully'() {
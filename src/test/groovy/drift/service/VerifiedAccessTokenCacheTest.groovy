@@ -0,0 +1,68 @@
+package drift.service
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken
+import spock.lang.Specification
+
+import java.time.Clock
+
+import static drift.util.TestConstants.*
+
+class VerifiedAccessTokenCacheTest extends Specification {
+
+    private static final ACCESS_TOKEN = 'access-token'
+    private static final AUTHENTICATION = new UsernamePasswordAuthenticationToken(USER_ID_1, ACCESS_TOKEN, [])
+    private static final VERIFIED_ACCESS_TOKEN = new VerifiedAccessTokenCache.VerifiedAccessToken(
+            AUTHENTICATION, TIMESTAMP, TIMESTAMP + 1000)
+
+    private clock = Stub(Clock)
+    private verifiedAccessTokenCache = new VerifiedAccessTokenCache(2, 60000, clock)
+
+    def 'should provide cached verified access token until access token expires'() {
+        given:
+        clock.millis() >>> [TIMESTAMP, TIMESTAMP + 999, TIMESTAMP + 1000]
+        verifiedAccessTokenCache.put(ACCESS_TOKEN, VERIFIED_ACCESS_TOKEN)
+
+        expect:
+        verifiedAccessTokenCache.get(ACCESS_TOKEN) == Optional.of(VERIFIED_ACCESS_TOKEN)
+        verifiedAccessTokenCache.get(ACCESS_TOKEN) == Optional.of(VERIFIED_ACCESS_TOKEN)
+        verifiedAccessTokenCache.get(ACCESS_TOKEN) == Optional.empty()
+    }
+
+    def 'should not provide verified access token for unknown access token'() {
+        given:
+        clock.millis() >> TIMESTAMP
+        verifiedAccessTokenCache.put(ACCESS_TOKEN, VERIFIED_ACCESS_TOKEN)
+
+        expect:
+        verifiedAccessTokenCache.get(ACCESS_TOKEN + '-1') == Optional.empty()
+    }
+
+    def 'should keep number of cached access tokens within maximum size'() {
+        given:
+        clock.millis() >> TIMESTAMP
+
+        when:
+        (1..10).each { verifiedAccessTokenCache.put("$ACCESS_TOKEN-$it", VERIFIED_ACCESS_TOKEN) }
+
+        then:
+        (1..10).count { verifiedAccessTokenCache.get("$ACCESS_TOKEN-$it").isPresent() } <= 2
+    }
+
+    def 'should record hits and misses'() {
+        given:
+        def registry = new SimpleMeterRegistry()
+        verifiedAccessTokenCache.bindTo(registry)
+        clock.millis() >> TIMESTAMP
+        verifiedAccessTokenCache.put(ACCESS_TOKEN, VERIFIED_ACCESS_TOKEN)
+
+        when:
+        verifiedAccessTokenCache.get(ACCESS_TOKEN)
+        verifiedAccessTokenCache.get(ACCESS_TOKEN)
+        verifiedAccessTokenCache.get(ACCESS_TOKEN + '-1')
+
+        then:
+        registry.get('cache.gets').tag('cache', 'verified-access-tokens').tag('result', 'hit').functionCounter().count() == 2
+        registry.get('cache.gets').tag('cache', 'verified-access-tokens').tag('result', 'miss').functionCounter().count() == 1
+    }
+}
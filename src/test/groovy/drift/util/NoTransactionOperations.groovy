@@ -0,0 +1,16 @@
+package drift.util
+
+import org.springframework.transaction.TransactionException
+import org.springframework.transaction.support.SimpleTransactionStatus
+import org.springframework.transaction.support.TransactionCallback
+import org.springframework.transaction.support.TransactionOperations
+
+// Note: runs callbacks directly, as TransactionOperations.withoutTransaction() does, which Groovy 2.4 can't call
+// since it is a static interface method.
+class NoTransactionOperations implements TransactionOperations {
+
+    @Override
+    <T> T execute(TransactionCallback<T> action) throws TransactionException {
+        action.doInTransaction(new SimpleTransactionStatus(false))
+    }
+}
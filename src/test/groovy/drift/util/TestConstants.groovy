@@ -3,6 +3,7 @@ package drift.util
 import com.fasterxml.jackson.databind.ObjectMapper
 import drift.dto.*
 import drift.model.*
+import drift.service.QualificationLeaderboard
 
 import java.time.Clock
 import java.time.Instant
@@ -128,6 +129,7 @@ class TestConstants {
 
     public static final BASE_CHAMPIONSHIPS_API_URL = "$BASE_API_V1_URL/championships"
     public static final CHAMPIONSHIP_URI = "$BASE_CHAMPIONSHIPS_API_URL/$CHAMPIONSHIP_ID"
+    public static final STANDINGS_API_URL = "$CHAMPIONSHIP_URI/standings"
 
     public static final CHAMPIONSHIP_STAGE_ID = 'championship-stage-id'
     public static final TIMESTAMP_1 = 1656066464000L
@@ -179,6 +181,10 @@ class TestConstants {
     public static final CHAMPIONSHIP_STAGE_JUDGES_API_URL = "$CHAMPIONSHIP_STAGE_URI/judges"
     public static final START_QUALIFICATION_API_URL = "$CHAMPIONSHIP_STAGE_URI/start-qualification"
     public static final QUALIFICATION_RESULTS_API_URL = "$CHAMPIONSHIP_STAGE_URI/qualification-results"
+    public static final QUALIFICATION_RESULTS_BATCH_API_URL = "$CHAMPIONSHIP_STAGE_URI/qualification-results/batch"
+    public static final QUALIFICATION_RESULTS_STREAM_API_URL = "$CHAMPIONSHIP_STAGE_URI/qualification-results/stream"
+    public static final START_PAIRS_RACES_API_URL = "$CHAMPIONSHIP_STAGE_URI/start-pairs-races"
+    public static final BATTLES_API_URL = "$CHAMPIONSHIP_STAGE_URI/battles"
     public static final QUALIFICATION_RESULTS_BY_JUDGE_API_URL = "$CHAMPIONSHIP_STAGE_URI/qualification-results/by-judge/$USER_ID_3"
 
     public static final CHAMPIONSHIP_STAGE_JUDGE_ID_1 = 'championship-stage-judge-id-1'
@@ -218,6 +224,27 @@ class TestConstants {
             (CHAMPIONSHIP_STAGE_JUDGE_3.userId) : [72d, 67.5d, 81.5d]
     ]
 
+    static List<ChampionshipStageQualificationScore> toQualificationScores(
+            String participantUserId, Map<String, List<Double>> qualificationResults) {
+        qualificationResults.collectMany { judgeUserId, attemptsPoints ->
+            attemptsPoints.withIndex().collect { points, attempt ->
+                ChampionshipStageQualificationScore.builder()
+                        .championshipStageId(CHAMPIONSHIP_STAGE_ID).judgeUserId(judgeUserId)
+                        .participantUserId(participantUserId).attempt(attempt).points(points).build()
+            }
+        }
+    }
+
+    static QualificationLeaderboard toQualificationLeaderboard(
+            long version, Map<String, Map<String, List<Double>>> qualificationResultsByParticipant) {
+        def leaderboard = new QualificationLeaderboard(N_ATTEMPTS_1, version)
+        qualificationResultsByParticipant.each { participantUserId, qualificationResults ->
+            leaderboard.add(participantUserId)
+            qualificationResults.each { judgeUserId, attemptsPoints -> leaderboard.put(participantUserId, judgeUserId, attemptsPoints) }
+        }
+        leaderboard
+    }
+
     public static final TRAINING_ID = 'training-id'
     public static final TRAINING = Training.builder()
             .id(TRAINING_ID).ownerId(USER_ID_1).organisationId(ORGANISATION_ID)
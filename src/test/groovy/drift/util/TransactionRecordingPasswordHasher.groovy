@@ -0,0 +1,42 @@
+package drift.util
+
+import drift.service.PasswordHasher
+import org.springframework.transaction.support.TransactionSynchronizationManager
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.ThreadFactory
+
+// Note: records whether the thread requesting hashing runs in a transaction or has a connection or entity manager
+// bound to it, so tests can check that requests waiting for a hashing slot hold no database connection.
+class TransactionRecordingPasswordHasher extends PasswordHasher {
+
+    final List<Map<String, Object>> hashingContexts = new CopyOnWriteArrayList<>()
+
+    TransactionRecordingPasswordHasher(int strength, int threads, int queueCapacity, long retryAfterInSeconds,
+                                       ThreadFactory threadFactory) {
+        super(strength, threads, queueCapacity, retryAfterInSeconds, threadFactory)
+    }
+
+    @Override
+    String encode(String rawPassword) {
+        record()
+        super.encode(rawPassword)
+    }
+
+    @Override
+    boolean matches(String rawPassword, String encodedPassword) {
+        record()
+        super.matches(rawPassword, encodedPassword)
+    }
+
+    void clear() {
+        hashingContexts.clear()
+    }
+
+    private void record() {
+        hashingContexts << [
+                transactionActive: TransactionSynchronizationManager.isActualTransactionActive(),
+                boundResources   : new HashMap<>(TransactionSynchronizationManager.getResourceMap())
+        ]
+    }
+}